@@ -0,0 +1,61 @@
+package com.mycompany.app.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.service.EmployeeService;
+
+/**
+ * Wstawianie nowych pracowników do serwisu, który ma już size pracowników.
+ *
+ * Przed każdą iteracją serwis jest budowany od nowa, a iteracja dodaje BATCH pracowników
+ * wygenerowanych wcześniej - dzięki temu zbiór nie rośnie bez końca między iteracjami,
+ * a pomiar nie obejmuje tworzenia obiektów Employee. Przepustowość to BATCH / wynik.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = AddEmployeeBenchmark.BATCH)
+@Measurement(iterations = 5, batchSize = AddEmployeeBenchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class AddEmployeeBenchmark {
+    static final int BATCH = 100_000;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private EmployeeService service;
+    private Employee[] newEmployees;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = Datasets.populatedService(size);
+        SplittableRandom random = new SplittableRandom(Datasets.SEED + 1);
+        int companies = Datasets.companyCount(size);
+        newEmployees = new Employee[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            newEmployees[i] = Datasets.employee(size + i, random, companies);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean addEmployee() {
+        return service.addEmployee(newEmployees[next++]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.mycompany.app.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mycompany.app.model.Position;
+import com.mycompany.app.service.CsvTokenizer;
+
+/**
+ * Parsowanie jednego wiersza CSV: CsvTokenizer kontra dawne split(",") + trim().
+ * Uruchamiany z profilerem GC pokazuje różnicę w alokacji na wiersz (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvParsingBenchmark {
+    private static final Position[] POSITIONS = Position.values();
+    private static final String LINE = "Marek,Zieliński,marek.zielinski@techcorp.pl,TechCorp,programista,8000";
+
+    private final CsvTokenizer tokenizer = new CsvTokenizer(6);
+    private ByteBuffer bytes;
+
+    @Setup
+    public void setUp() {
+        bytes = ByteBuffer.wrap(LINE.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        tokenizer.next(bytes, 0, bytes.limit(), true);
+        blackhole.consume(tokenizer.join(0, 1, ' '));
+        blackhole.consume(tokenizer.string(2));
+        blackhole.consume(tokenizer.internedString(3));
+        blackhole.consume(tokenizer.matchEnum(4, POSITIONS));
+        blackhole.consume(tokenizer.parseDouble(5));
+    }
+
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        // Linia jest dekodowana z bajtów, tak jak robił to BufferedReader
+        String line = new String(bytes.array(), StandardCharsets.UTF_8);
+        String[] fields = line.split(",");
+        blackhole.consume(fields[0].trim() + " " + fields[1].trim());
+        blackhole.consume(fields[2].trim());
+        blackhole.consume(fields[3].trim());
+        blackhole.consume(Position.valueOf(fields[4].trim().toUpperCase()));
+        blackhole.consume(Double.parseDouble(fields[5].trim()));
+    }
+}
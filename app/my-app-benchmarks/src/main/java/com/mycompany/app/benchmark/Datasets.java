@@ -0,0 +1,92 @@
+package com.mycompany.app.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+import com.mycompany.app.service.EmployeeService;
+
+/**
+ * Generator powtarzalnych zbiorów danych dla benchmarków.
+ * Ten sam seed daje zawsze te same dane, więc wyniki kolejnych uruchomień są porównywalne.
+ */
+final class Datasets {
+    static final long SEED = 42L;
+
+    private static final String[] FIRST_NAMES = {
+            "Jan", "Anna", "Piotr", "Maria", "Tomasz", "Katarzyna", "Marek", "Ewa", "Adam", "Zofia"
+    };
+    private static final String[] LAST_NAMES = {
+            "Kowalski", "Nowak", "Wiśniewski", "Kowalczyk", "Zając", "Adamska", "Zieliński", "Nowicki"
+    };
+    private static final Position[] POSITIONS = Position.values();
+
+    private Datasets() {
+    }
+
+    /**
+     * Liczba firm rośnie z rozmiarem zbioru (ok. 100 pracowników na firmę, maks. 10 000 firm)
+     */
+    static int companyCount(int size) {
+        return Math.max(1, Math.min(10_000, size / 100));
+    }
+
+    static String companyName(int index) {
+        return "Firma" + index;
+    }
+
+    static Employee employee(int id, SplittableRandom random, int companies) {
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + id;
+        Position position = POSITIONS[random.nextInt(POSITIONS.length)];
+        Employee employee = new Employee(name, "osoba" + id + "@corp.pl",
+                companyName(random.nextInt(companies)), position);
+        // Co dziesiąty pracownik zarabia poniżej stawki bazowej
+        double factor = random.nextInt(10) == 0 ? 0.8 : 1.0 + random.nextInt(50) / 100.0;
+        employee.setSalary(Math.round(position.getBaseSalary() * factor));
+        return employee;
+    }
+
+    static EmployeeService populatedService(int size) {
+        EmployeeService service = new EmployeeService();
+        SplittableRandom random = new SplittableRandom(SEED);
+        int companies = companyCount(size);
+        for (int id = 0; id < size; id++) {
+            service.addEmployee(employee(id, random, companies));
+        }
+        return service;
+    }
+
+    /**
+     * Zapisuje plik CSV w formacie ImportService; co setny wiersz jest błędny
+     */
+    static Path writeCsv(int rows) throws IOException {
+        Path file = Files.createTempFile("employees-" + rows + "-", ".csv");
+        file.toFile().deleteOnExit();
+        SplittableRandom random = new SplittableRandom(SEED);
+        int companies = companyCount(rows);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName,email,company,position,salary\n");
+            for (int id = 0; id < rows; id++) {
+                String position = id % 100 == 99 ? "KIEROWCA" : POSITIONS[random.nextInt(POSITIONS.length)].name();
+                writer.write(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                writer.write(',');
+                writer.write(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                writer.write(',');
+                writer.write("osoba" + id + "@corp.pl,");
+                writer.write(companyName(random.nextInt(companies)));
+                writer.write(',');
+                writer.write(position);
+                writer.write(',');
+                writer.write(Integer.toString(3000 + random.nextInt(22_000)));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+}
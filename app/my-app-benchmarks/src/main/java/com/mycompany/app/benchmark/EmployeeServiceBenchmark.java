@@ -0,0 +1,82 @@
+package com.mycompany.app.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.app.model.CompanyStatistics;
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.service.EmployeeService;
+
+/**
+ * Przepustowość zapytań EmployeeService dla różnych rozmiarów zbioru.
+ * Zbiór jest budowany raz na próbę (trial); wstawianie mierzy AddEmployeeBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private EmployeeService service;
+    private SplittableRandom random;
+    private int companies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = Datasets.populatedService(size);
+        random = new SplittableRandom(Datasets.SEED + 1);
+        companies = Datasets.companyCount(size);
+    }
+
+    @Benchmark
+    public List<Employee> findEmployeesByCompany() {
+        return service.findEmployeesByCompany(Datasets.companyName(random.nextInt(companies)));
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesSortedByLastName() {
+        return service.getEmployeesSortedByLastName();
+    }
+
+    @Benchmark
+    public Map<String, CompanyStatistics> getCompanyStatistics() {
+        return service.getCompanyStatistics();
+    }
+
+    @Benchmark
+    public List<Employee> validateSalaryConsistency() {
+        return service.validateSalaryConsistency();
+    }
+
+    /**
+     * Zapis przed każdym sprawdzeniem - kolumny są aktualizowane przy zmianie, więc zapytanie
+     * nie może skorzystać z migawki zbudowanej przy poprzednim wywołaniu
+     */
+    @Benchmark
+    public List<Employee> validateSalaryConsistencyUnderWrites() {
+        Employee employee = service.findEmployeeByEmail("osoba" + random.nextInt(size) + "@corp.pl").orElseThrow();
+        double factor = random.nextInt(10) == 0 ? 0.8 : 1.2;
+        employee.setSalary(Math.round(employee.getPosition().getBaseSalary() * factor));
+        return service.validateSalaryConsistency();
+    }
+}
@@ -0,0 +1,65 @@
+package com.mycompany.app.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.app.service.EmployeeService;
+import com.mycompany.app.service.ImportService;
+import com.mycompany.app.service.ImportSummary;
+
+/**
+ * Czas importu wygenerowanego pliku CSV do pustego EmployeeService -
+ * ścieżka sekwencyjna i równoległa.
+ *
+ * Plik jest generowany raz na próbę. Jedno wywołanie to cały import, więc mierzymy
+ * czas pojedynczego wykonania; liczbę wierszy na sekundę daje rows / wynik.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class ImportServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        csv = Datasets.writeCsv(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public ImportSummary importFromCsv() {
+        return new ImportService(new EmployeeService()).importFromCsv(csv.toString());
+    }
+
+    @Benchmark
+    public ImportSummary importFromCsvParallel() {
+        return new ImportService(new EmployeeService()).importFromCsvParallel(csv.toString());
+    }
+}
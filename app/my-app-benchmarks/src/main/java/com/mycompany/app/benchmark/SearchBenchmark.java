@@ -0,0 +1,57 @@
+package com.mycompany.app.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.service.EmployeeService;
+
+/**
+ * Opóźnienia wyszukiwania "w trakcie pisania" - tryb SampleTime raportuje percentyle (p99).
+ * Zapytania to fragmenty losowych nazwisk z numerem i emaili, jak przy wpisywaniu kolejnych znaków.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class SearchBenchmark {
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000", "3000000"})
+    public int size;
+
+    private EmployeeService service;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = Datasets.populatedService(size);
+        random = new SplittableRandom(Datasets.SEED + 2);
+    }
+
+    @Benchmark
+    public List<Employee> searchByPrefix() {
+        return service.searchByPrefix("osoba" + random.nextInt(size / 10), LIMIT);
+    }
+
+    @Benchmark
+    public List<Employee> searchContaining() {
+        return service.searchContaining("ski" + random.nextInt(size), LIMIT);
+    }
+}
@@ -8,8 +8,8 @@ import com.mycompany.app.service.ImportService;
 import com.mycompany.app.service.ImportSummary;
 import com.mycompany.app.service.ApiService;
 import com.mycompany.app.service.ApiException;
+import com.mycompany.app.store.SalarySketch;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -111,10 +111,9 @@ public class Main {
         );
 
         // ===== 9. RANKING WYNAGRODZEŃ =====
-        System.out.println("\n\n8. RANKING WYNAGRODZEŃ (OD NAJWYŻSZYCH)");
-        System.out.println("---------------------------------------");
-        service.getAllEmployees().stream()
-                .sorted(Comparator.comparingDouble(Employee::getSalary).reversed())
+        System.out.println("\n\n8. RANKING WYNAGRODZEŃ (TOP 10)");
+        System.out.println("-------------------------------");
+        service.findHighestPaidEmployees(10)
                 .forEach(emp -> 
                     System.out.printf("%s (%s): %.2f PLN\n",
                         emp.getFullName(), 
@@ -123,6 +122,19 @@ public class Main {
                     )
                 );
 
+        // ===== 10. PERCENTYLE WYNAGRODZEŃ =====
+        System.out.println("\n\n9. PERCENTYLE WYNAGRODZEŃ W FIRMACH");
+        System.out.println("-----------------------------------");
+        for (String companyName : service.getCompanyStatistics().keySet()) {
+            SalarySketch distribution = service.getCompanySalaryDistribution(companyName);
+            System.out.printf("%s: p50=%.2f, p90=%.2f, p99=%.2f PLN\n",
+                companyName,
+                distribution.quantile(0.5),
+                distribution.quantile(0.9),
+                distribution.quantile(0.99)
+            );
+        }
+
         // ===== IMPORT PRACOWNIKÓW Z PLIKU CSV =====
         System.out.println("\n\n=== IMPORT PRACOWNIKÓW Z PLIKU CSV ===");
         ImportService importService = new ImportService(service);
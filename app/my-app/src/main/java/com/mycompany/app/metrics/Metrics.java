@@ -0,0 +1,210 @@
+package com.mycompany.app.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metryki importu, API i zapytań, publikowane przez JMX.
+ *
+ * Wszystkie liczniki to LongAdder, a histogramy zapisują bez blokad, więc pomiar na gorącej
+ * ścieżce kosztuje kilka nanosekund. Import zlicza wiersze lokalnie i zgłasza je raz, na końcu.
+ * Po wyłączeniu (setEnabled(false)) startTimer() zwraca Timer.DISABLED i nie jest wołane nawet System.nanoTime().
+ */
+public class Metrics implements MetricsMXBean {
+    public static final String OBJECT_NAME = "com.mycompany.app:type=Metrics";
+
+    private static final Metrics GLOBAL = register(new Metrics());
+
+    private volatile boolean enabled = true;
+
+    private final LongAdder importedRows = new LongAdder();
+    private final LongAdder importedBytes = new LongAdder();
+    private final LongAdder importNanos = new LongAdder();
+    private final Map<String, LongAdder> importErrors = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram httpLatency = new LatencyHistogram();
+    private final Map<String, LongAdder> httpStatuses = new ConcurrentHashMap<>();
+
+    private final LongAdder storeSize = new LongAdder();
+    private final Map<String, LatencyHistogram> queryLatencies = new ConcurrentHashMap<>();
+
+    /**
+     * @return metryki aplikacji zarejestrowane w platformowym MBeanServer
+     */
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    private static Metrics register(Metrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | SecurityException e) {
+            // Brak JMX nie może blokować aplikacji - metryki nadal działają lokalnie
+        }
+        return metrics;
+    }
+
+    /**
+     * @return początek pomiaru do przekazania do metod record...() lub Timer.DISABLED, gdy metryki są wyłączone
+     */
+    public Timer startTimer() {
+        return enabled ? Timer.start() : Timer.DISABLED;
+    }
+
+    // ===== Import =====
+
+    /**
+     * Zgłasza zakończony import (lub jego część)
+     * @param rows liczba przetworzonych wierszy
+     * @param bytes liczba przeczytanych bajtów
+     * @param startTime wynik startTimer() z początku importu
+     */
+    public void recordImport(long rows, long bytes, Timer startTime) {
+        if (!startTime.isRunning()) {
+            return;
+        }
+        importNanos.add(startTime.elapsedNanos());
+        importedRows.add(rows);
+        importedBytes.add(bytes);
+    }
+
+    /**
+     * Zlicza błąd importu
+     * @param category kategoria błędu (nazwa ImportErrorCode, np. "DUPLICATE_EMAIL")
+     */
+    public void recordImportError(String category) {
+        if (enabled) {
+            importErrors.computeIfAbsent(category, key -> new LongAdder()).increment();
+        }
+    }
+
+    // ===== HTTP =====
+
+    /**
+     * Zapisuje czas i wynik zapytania HTTP
+     * @param status kod odpowiedzi lub -1, jeśli odpowiedzi nie było
+     * @param startTime wynik startTimer() sprzed wysłania zapytania
+     */
+    public void recordHttp(int status, Timer startTime) {
+        if (!startTime.isRunning()) {
+            return;
+        }
+        httpLatency.record(startTime.elapsedNanos());
+        String key = status < 0 ? "error" : Integer.toString(status);
+        httpStatuses.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    // ===== Magazyn i zapytania =====
+
+    /**
+     * Zmienia licznik pracowników (liczony zawsze - rozmiaru nie da się odtworzyć po włączeniu metryk)
+     */
+    public void storeSizeChanged(long delta) {
+        storeSize.add(delta);
+    }
+
+    /**
+     * Zapisuje czas wykonania zapytania
+     * @param query nazwa zapytania
+     * @param startTime wynik startTimer() sprzed zapytania
+     */
+    public void recordQuery(String query, Timer startTime) {
+        if (!startTime.isRunning()) {
+            return;
+        }
+        long elapsed = startTime.elapsedNanos();
+        queryLatencies.computeIfAbsent(query, key -> new LatencyHistogram()).record(elapsed);
+    }
+
+    // ===== MXBean =====
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        importedRows.reset();
+        importedBytes.reset();
+        importNanos.reset();
+        importErrors.clear();
+        httpLatency.reset();
+        httpStatuses.clear();
+        queryLatencies.clear();
+    }
+
+    @Override
+    public long getImportedRows() {
+        return importedRows.sum();
+    }
+
+    @Override
+    public long getImportedBytes() {
+        return importedBytes.sum();
+    }
+
+    @Override
+    public double getImportRowsPerSecond() {
+        return perSecond(importedRows.sum());
+    }
+
+    @Override
+    public double getImportBytesPerSecond() {
+        return perSecond(importedBytes.sum());
+    }
+
+    @Override
+    public Map<String, Long> getImportErrorCounts() {
+        return sums(importErrors);
+    }
+
+    @Override
+    public HistogramSnapshot getHttpLatency() {
+        return httpLatency.snapshot();
+    }
+
+    @Override
+    public Map<String, Long> getHttpStatusCounts() {
+        return sums(httpStatuses);
+    }
+
+    @Override
+    public long getStoreSize() {
+        return storeSize.sum();
+    }
+
+    @Override
+    public Map<String, HistogramSnapshot> getQueryLatencies() {
+        Map<String, HistogramSnapshot> result = new TreeMap<>();
+        queryLatencies.forEach((query, histogram) -> result.put(query, histogram.snapshot()));
+        return result;
+    }
+
+    private double perSecond(long amount) {
+        long nanos = importNanos.sum();
+        return nanos == 0 ? 0.0 : amount * 1e9 / nanos;
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> result.put(key, counter.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.mycompany.app.metrics;
+
+import java.util.Map;
+
+/**
+ * Interfejs JMX metryk aplikacji (ObjectName: com.mycompany.app:type=Metrics).
+ * Czasy w histogramach są w nanosekundach.
+ */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Zeruje wszystkie liczniki i histogramy
+     */
+    void reset();
+
+    long getImportedRows();
+
+    long getImportedBytes();
+
+    /**
+     * @return wiersze na sekundę czasu spędzonego w imporcie
+     */
+    double getImportRowsPerSecond();
+
+    /**
+     * @return bajty na sekundę czasu spędzonego w imporcie
+     */
+    double getImportBytesPerSecond();
+
+    /**
+     * @return liczba błędów importu według kategorii
+     */
+    Map<String, Long> getImportErrorCounts();
+
+    HistogramSnapshot getHttpLatency();
+
+    /**
+     * @return liczba odpowiedzi HTTP według kodu ("error" - brak odpowiedzi)
+     */
+    Map<String, Long> getHttpStatusCounts();
+
+    /**
+     * @return łączna liczba pracowników we wszystkich magazynach
+     */
+    long getStoreSize();
+
+    /**
+     * @return histogramy czasu zapytań EmployeeService według nazwy zapytania
+     */
+    Map<String, HistogramSnapshot> getQueryLatencies();
+}
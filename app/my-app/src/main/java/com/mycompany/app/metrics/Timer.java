@@ -0,0 +1,33 @@
+package com.mycompany.app.metrics;
+
+/**
+ * Początek pomiaru zwrócony przez Metrics.startTimer(), przekazywany do metod record...().
+ *
+ * Gdy metryki są wyłączone, startTimer() zwraca współdzielony DISABLED - bez alokacji
+ * i bez wołania System.nanoTime(). Wartość nanoTime() nie służy więc za znacznik wyłączenia
+ * (może być zerem albo liczbą ujemną).
+ */
+public final class Timer {
+    static final Timer DISABLED = new Timer(0);
+
+    private final long startNanos;
+
+    private Timer(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    static Timer start() {
+        return new Timer(System.nanoTime());
+    }
+
+    /**
+     * @return false, jeśli pomiar rozpoczęto przy wyłączonych metrykach
+     */
+    public boolean isRunning() {
+        return this != DISABLED;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
@@ -1,17 +1,29 @@
 package com.mycompany.app.model;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Klasa reprezentująca pracownika w systemie.
  * Email jest unikalnym identyfikatorem - używany w equals() i hashCode().
+ *
+ * Settery są synchronizowane i powiadamiają zarejestrowanych słuchaczy
+ * (EmployeeChangeListener), dzięki czemu serwis może utrzymywać indeksy
+ * po firmie i stanowisku przy współbieżnych modyfikacjach.
  */
 public class Employee {
-    private String fullName;
-    private String email;
-    private String companyName;
-    private Position position;
-    private double salary;
+    private static final EmployeeChangeListener[] NO_LISTENERS = new EmployeeChangeListener[0];
+
+    private volatile String fullName;
+    // Klucz sortowania liczony raz przy ustawieniu imienia, a nie przy każdym porównaniu
+    private volatile String lastName;
+    private final String email;
+    private volatile String companyName;
+    private volatile Position position;
+    private volatile double salary;
+
+    // Tablica kopiowana przy zapisie - zwykle 0 lub 1 element, brak alokacji przy odczycie
+    private volatile EmployeeChangeListener[] listeners = NO_LISTENERS;
 
     /**
      * Konstruktor tworzący nowego pracownika
@@ -23,6 +35,7 @@ public class Employee {
     public Employee(String fullName, String email, String companyName, 
                    Position position) {
         this.fullName = fullName;
+        this.lastName = lastNameOf(fullName);
         this.email = email;
         this.companyName = companyName;
         this.position = position;
@@ -50,22 +63,117 @@ public class Employee {
         return salary;
     }
 
-    // Settery - umożliwiają modyfikację danych
+    // Settery - umożliwiają modyfikację danych.
+    // Słuchacze są powiadamiani pod monitorem, a changeCompleted() już po jego zwolnieniu.
     public void setFullName(String fullName) {
-        this.fullName = fullName;
+        EmployeeChangeListener[] notified = NO_LISTENERS;
+        synchronized (this) {
+            String oldFullName = this.fullName;
+            this.fullName = fullName;
+            this.lastName = lastNameOf(fullName);
+            if (!Objects.equals(oldFullName, fullName)) {
+                notified = listeners;
+                for (EmployeeChangeListener listener : notified) {
+                    listener.nameChanged(this, oldFullName);
+                }
+            }
+        }
+        changeCompleted(notified);
     }
 
     public void setCompanyName(String companyName) {
-        this.companyName = companyName;
+        EmployeeChangeListener[] notified = NO_LISTENERS;
+        synchronized (this) {
+            String oldCompanyName = this.companyName;
+            this.companyName = companyName;
+            if (!Objects.equals(oldCompanyName, companyName)) {
+                notified = listeners;
+                for (EmployeeChangeListener listener : notified) {
+                    listener.companyChanged(this, oldCompanyName);
+                }
+            }
+        }
+        changeCompleted(notified);
     }
 
     public void setPosition(Position position) {
-        this.position = position;
-        this.salary = position.getBaseSalary(); // Aktualizuj pensję przy zmianie stanowiska
+        checkFinite(position.getBaseSalary());
+        EmployeeChangeListener[] notified = NO_LISTENERS;
+        synchronized (this) {
+            Position oldPosition = this.position;
+            double oldSalary = this.salary;
+            this.position = position;
+            this.salary = position.getBaseSalary(); // Aktualizuj pensję przy zmianie stanowiska
+            if (oldPosition != position) {
+                notified = listeners;
+                for (EmployeeChangeListener listener : notified) {
+                    listener.positionChanged(this, oldPosition, oldSalary);
+                }
+            } else if (oldSalary != salary) {
+                notified = listeners;
+                for (EmployeeChangeListener listener : notified) {
+                    listener.salaryChanged(this, oldSalary);
+                }
+            }
+        }
+        changeCompleted(notified);
     }
 
     public void setSalary(double salary) {
-        this.salary = salary;
+        // Sprawdzenie przed zmianą pola - indeksy słuchaczy nie przyjmą NaN ani nieskończoności
+        checkFinite(salary);
+        EmployeeChangeListener[] notified = NO_LISTENERS;
+        synchronized (this) {
+            double oldSalary = this.salary;
+            this.salary = salary;
+            if (oldSalary != salary) {
+                notified = listeners;
+                for (EmployeeChangeListener listener : notified) {
+                    listener.salaryChanged(this, oldSalary);
+                }
+            }
+        }
+        changeCompleted(notified);
+    }
+
+    private static void checkFinite(double salary) {
+        if (!Double.isFinite(salary)) {
+            throw new IllegalArgumentException("Pensja musi być liczbą skończoną: " + salary);
+        }
+    }
+
+    private void changeCompleted(EmployeeChangeListener[] notified) {
+        for (EmployeeChangeListener listener : notified) {
+            listener.changeCompleted(this);
+        }
+    }
+
+    /**
+     * Rejestruje słuchacza zmian (np. serwis przechowujący tego pracownika)
+     * @param listener słuchacz do dodania
+     */
+    public synchronized void addChangeListener(EmployeeChangeListener listener) {
+        EmployeeChangeListener[] current = listeners;
+        EmployeeChangeListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Usuwa wcześniej zarejestrowanego słuchacza zmian
+     * @param listener słuchacz do usunięcia
+     */
+    public synchronized void removeChangeListener(EmployeeChangeListener listener) {
+        EmployeeChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                EmployeeChangeListener[] updated = new EmployeeChangeListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
     }
 
     /**
@@ -106,10 +214,21 @@ public class Employee {
     }
 
     /**
-     * Pomocnicza metoda do wyciągania nazwiska z pełnego imienia
+     * Zwraca nazwisko wyciągnięte z pełnego imienia (zapamiętane przy jego ustawieniu)
      * Zakłada format "Imię Nazwisko"
      */
     public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Nazwisko z pełnego imienia - ostatnie słowo (tak jak getLastName())
+     * @param fullName imię i nazwisko, np. sprzed zmiany
+     */
+    public static String lastNameOf(String fullName) {
+        if (fullName == null) {
+            return null;
+        }
         String[] parts = fullName.split(" ");
         return parts.length > 1 ? parts[parts.length - 1] : fullName;
     }
@@ -0,0 +1,54 @@
+package com.mycompany.app.model;
+
+/**
+ * Słuchacz zmian danych pracownika.
+ * Pozwala serwisowi, który przechowuje pracownika, aktualizować swoje indeksy
+ * w momencie wywołania settera - bez ponownego skanowania całej kolekcji.
+ *
+ * Metody *Changed są wywoływane synchronicznie, pod monitorem obiektu Employee,
+ * już po zmianie wartości pola. Po zwolnieniu monitora setter wywołuje jeszcze
+ * changeCompleted() - tam można czekać na coś wolnego (np. fsync) bez blokowania pracownika.
+ */
+public interface EmployeeChangeListener {
+
+    /**
+     * Wywoływane po zmianie nazwy firmy
+     * @param employee zmieniony pracownik (z nową wartością)
+     * @param oldCompanyName poprzednia nazwa firmy
+     */
+    default void companyChanged(Employee employee, String oldCompanyName) {
+    }
+
+    /**
+     * Wywoływane po zmianie stanowiska (zmiana stanowiska ustawia też pensję bazową)
+     * @param employee zmieniony pracownik (z nową wartością)
+     * @param oldPosition poprzednie stanowisko
+     * @param oldSalary pensja sprzed zmiany
+     */
+    default void positionChanged(Employee employee, Position oldPosition, double oldSalary) {
+    }
+
+    /**
+     * Wywoływane po zmianie wynagrodzenia
+     * @param employee zmieniony pracownik (z nową wartością)
+     * @param oldSalary poprzednie wynagrodzenie
+     */
+    default void salaryChanged(Employee employee, double oldSalary) {
+    }
+
+    /**
+     * Wywoływane po zmianie imienia i nazwiska
+     * @param employee zmieniony pracownik (z nową wartością)
+     * @param oldFullName poprzednie imię i nazwisko
+     */
+    default void nameChanged(Employee employee, String oldFullName) {
+    }
+
+    /**
+     * Wywoływane po powiadomieniu o zmianie, już poza monitorem pracownika
+     * (chyba że wywołujący sam go trzyma, np. w synchronized (employee) { ... })
+     * @param employee zmieniony pracownik
+     */
+    default void changeCompleted(Employee employee) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.mycompany.app.query;
+
+/**
+ * Agregaty wynagrodzeń dostępne w wynikach zapytania.
+ * Wszystkie są liczone w tym samym przebiegu - wybór dotyczy tylko odczytu.
+ */
+public enum Aggregate {
+    COUNT,
+    SUM,
+    AVG,
+    MIN,
+    MAX,
+    /** Pracownik z najwyższą pensją */
+    ARGMAX
+}
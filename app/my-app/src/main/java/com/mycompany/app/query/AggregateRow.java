@@ -0,0 +1,83 @@
+package com.mycompany.app.query;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Agregaty wynagrodzeń jednej grupy wyniku zapytania.
+ */
+public class AggregateRow {
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+    private final Employee argMax;
+
+    AggregateRow(long count, double sum, double min, double max, Employee argMax) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.argMax = argMax;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return średnia pensja lub 0.0 dla pustej grupy
+     */
+    public double getAverage() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return pracownik z najwyższą pensją lub null dla pustej grupy
+     */
+    public Employee getArgMax() {
+        return argMax;
+    }
+
+    /**
+     * @return wartość agregatu: Long (COUNT), Double (SUM, AVG, MIN, MAX) lub Employee (ARGMAX)
+     */
+    public Object get(Aggregate aggregate) {
+        switch (aggregate) {
+            case COUNT:
+                return count;
+            case SUM:
+                return sum;
+            case AVG:
+                return getAverage();
+            case MIN:
+                return min;
+            case MAX:
+                return max;
+            default:
+                return argMax;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AggregateRow{" +
+                "count=" + count +
+                ", sum=" + sum +
+                ", min=" + min +
+                ", max=" + max +
+                ", argMax=" + (argMax != null ? argMax.getEmail() : null) +
+                '}';
+    }
+}
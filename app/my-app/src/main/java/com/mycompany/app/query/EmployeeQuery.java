@@ -0,0 +1,102 @@
+package com.mycompany.app.query;
+
+import java.util.function.Predicate;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Opis zapytania analitycznego: filtry, klucz grupowania i agregaty wynagrodzeń.
+ * Obiekt jest niemutowalny - metody zwracają zmienioną kopię, np.
+ * <pre>
+ * EmployeeQuery.all().company("TechCorp").salaryBetween(5000, 15000).groupBy(GroupBy.POSITION)
+ * </pre>
+ */
+public class EmployeeQuery {
+    private final String companyName;
+    private final Position position;
+    private final double minSalary;
+    private final double maxSalary;
+    private final Predicate<Employee> filter;
+    private final GroupBy groupBy;
+
+    private EmployeeQuery(String companyName, Position position, double minSalary, double maxSalary,
+                          Predicate<Employee> filter, GroupBy groupBy) {
+        this.companyName = companyName;
+        this.position = position;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.filter = filter;
+        this.groupBy = groupBy;
+    }
+
+    /**
+     * @return zapytanie o wszystkich pracowników, bez grupowania
+     */
+    public static EmployeeQuery all() {
+        return new EmployeeQuery(null, null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null, GroupBy.NONE);
+    }
+
+    /**
+     * Tylko pracownicy firmy - zapytanie może przeszukać indeks firmy zamiast wszystkich
+     */
+    public EmployeeQuery company(String companyName) {
+        return new EmployeeQuery(companyName, position, minSalary, maxSalary, filter, groupBy);
+    }
+
+    /**
+     * Tylko pracownicy na stanowisku - zapytanie może przeszukać indeks stanowiska zamiast wszystkich
+     */
+    public EmployeeQuery position(Position position) {
+        return new EmployeeQuery(companyName, position, minSalary, maxSalary, filter, groupBy);
+    }
+
+    /**
+     * Tylko pensje z przedziału [min, max] (włącznie)
+     */
+    public EmployeeQuery salaryBetween(double min, double max) {
+        return new EmployeeQuery(companyName, position, min, max, filter, groupBy);
+    }
+
+    /**
+     * Dodatkowy warunek (łączony przez AND z poprzednimi)
+     */
+    public EmployeeQuery where(Predicate<Employee> condition) {
+        Predicate<Employee> combined = filter == null ? condition : filter.and(condition);
+        return new EmployeeQuery(companyName, position, minSalary, maxSalary, combined, groupBy);
+    }
+
+    public EmployeeQuery groupBy(GroupBy groupBy) {
+        return new EmployeeQuery(companyName, position, minSalary, maxSalary, filter, groupBy);
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public double getMinSalary() {
+        return minSalary;
+    }
+
+    public double getMaxSalary() {
+        return maxSalary;
+    }
+
+    public GroupBy getGroupBy() {
+        return groupBy;
+    }
+
+    /**
+     * Sprawdza wszystkie filtry; pensja jest przekazana, żeby czytać ją raz na pracownika
+     */
+    boolean matches(Employee employee, double salary) {
+        return (companyName == null || companyName.equals(employee.getCompanyName()))
+                && (position == null || position == employee.getPosition())
+                && salary >= minSalary && salary <= maxSalary
+                && (filter == null || filter.test(employee));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mycompany.app.query;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Klucz grupowania wyników zapytania.
+ */
+public enum GroupBy {
+    /** Jedna grupa dla wszystkich pasujących pracowników (klucz null) */
+    NONE,
+    /** Nazwa firmy (String) */
+    COMPANY,
+    /** Stanowisko (Position) */
+    POSITION;
+
+    Object keyOf(Employee employee) {
+        switch (this) {
+            case COMPANY:
+                return employee.getCompanyName();
+            case POSITION:
+                return employee.getPosition();
+            default:
+                return null;
+        }
+    }
+}
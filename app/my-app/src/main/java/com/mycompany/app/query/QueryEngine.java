@@ -0,0 +1,93 @@
+package com.mycompany.app.query;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.store.EmployeeStore;
+
+/**
+ * Wykonuje zapytania EmployeeQuery nad magazynem w jednym przebiegu.
+ *
+ * Filtry, grupowanie i wszystkie agregaty są liczone razem, dla każdego pracownika raz.
+ * Gdy zapytanie ogranicza firmę lub stanowisko, przeszukiwany jest mniejszy z pasujących
+ * indeksów zamiast całego magazynu. Duże zbiory są dzielone na wątki fork-join (parallel stream),
+ * a częściowe akumulatory - scalane.
+ */
+public class QueryEngine {
+    // Poniżej tego rozmiaru podział na wątki kosztuje więcej, niż daje
+    private static final int PARALLEL_THRESHOLD = 20_000;
+
+    private final EmployeeStore store;
+
+    public QueryEngine(EmployeeStore store) {
+        this.store = store;
+    }
+
+    public QueryResult execute(EmployeeQuery query) {
+        Collection<Employee> candidates = candidates(query);
+        Stream<Employee> stream = candidates.size() >= PARALLEL_THRESHOLD
+                ? candidates.parallelStream() : candidates.stream();
+        GroupBy groupBy = query.getGroupBy();
+
+        GroupAccumulator result = stream.collect(GroupAccumulator::new, (accumulator, employee) -> {
+            double salary = employee.getSalary();
+            if (query.matches(employee, salary)) {
+                accumulator.add(groupBy.keyOf(employee), employee, salary);
+            }
+        }, GroupAccumulator::merge);
+
+        Map<Object, AggregateRow> groups = new HashMap<>();
+        if (groupBy != GroupBy.NONE) {
+            result.groups.forEach((key, accumulator) -> groups.put(key, accumulator.toRow()));
+        }
+        return new QueryResult(groups, result.total.toRow());
+    }
+
+    /**
+     * Pracownicy pasujący do filtrów zapytania, wyliczani leniwie wprost z magazynu lub indeksu -
+     * bez kopiowania do listy. Grupowanie zapytania jest pomijane.
+     * Strumień jest słabo spójny: zmiany w trakcie przeglądania mogą, ale nie muszą być widoczne.
+     */
+    public Stream<Employee> stream(EmployeeQuery query) {
+        return candidates(query).stream().filter(employee -> query.matches(employee, employee.getSalary()));
+    }
+
+    /**
+     * Wybór indeksu: mniejszy z indeksów firmy i stanowiska, jeśli zapytanie je ogranicza
+     */
+    private Collection<Employee> candidates(EmployeeQuery query) {
+        Set<Employee> byCompany = query.getCompanyName() != null ? store.byCompany(query.getCompanyName()) : null;
+        Set<Employee> byPosition = query.getPosition() != null ? store.byPosition(query.getPosition()) : null;
+        if (byCompany == null && byPosition == null) {
+            return store.all();
+        }
+        if (byCompany == null) {
+            return byPosition;
+        }
+        return byPosition == null || byCompany.size() <= byPosition.size() ? byCompany : byPosition;
+    }
+
+    private static final class GroupAccumulator {
+        final SalaryAccumulator total = new SalaryAccumulator();
+        final Map<Object, SalaryAccumulator> groups = new HashMap<>();
+
+        void add(Object key, Employee employee, double salary) {
+            total.add(employee, salary);
+            if (key != null) {
+                groups.computeIfAbsent(key, k -> new SalaryAccumulator()).add(employee, salary);
+            }
+        }
+
+        void merge(GroupAccumulator other) {
+            total.merge(other.total);
+            other.groups.forEach((key, accumulator) -> groups.merge(key, accumulator, (mine, theirs) -> {
+                mine.merge(theirs);
+                return mine;
+            }));
+        }
+    }
+}
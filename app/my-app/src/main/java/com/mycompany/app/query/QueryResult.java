@@ -0,0 +1,39 @@
+package com.mycompany.app.query;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Wynik zapytania: agregaty dla każdej grupy oraz dla wszystkich pasujących pracowników.
+ */
+public class QueryResult {
+    private final Map<Object, AggregateRow> groups;
+    private final AggregateRow total;
+
+    QueryResult(Map<Object, AggregateRow> groups, AggregateRow total) {
+        this.groups = Collections.unmodifiableMap(groups);
+        this.total = total;
+    }
+
+    /**
+     * @return mapa: klucz grupy (String dla firmy, Position dla stanowiska) -> agregaty;
+     *         przy GroupBy.NONE pusta
+     */
+    public Map<Object, AggregateRow> getGroups() {
+        return groups;
+    }
+
+    /**
+     * @return agregaty jednej grupy lub null, jeśli żaden pracownik do niej nie pasował
+     */
+    public AggregateRow getGroup(Object key) {
+        return groups.get(key);
+    }
+
+    /**
+     * @return agregaty wszystkich pasujących pracowników
+     */
+    public AggregateRow getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,41 @@
+package com.mycompany.app.query;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Akumulator agregatów wynagrodzeń, który można scalać - częściowe wyniki
+ * z wątków fork-join łączy merge(), więc przebieg nie wymaga żadnej synchronizacji.
+ */
+final class SalaryAccumulator {
+    long count;
+    double sum;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    Employee argMax;
+
+    void add(Employee employee, double salary) {
+        count++;
+        sum += salary;
+        if (salary < min) {
+            min = salary;
+        }
+        if (argMax == null || salary > max) {
+            max = salary;
+            argMax = employee;
+        }
+    }
+
+    void merge(SalaryAccumulator other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        if (other.argMax != null && (argMax == null || other.max > max)) {
+            max = other.max;
+            argMax = other.argMax;
+        }
+    }
+
+    AggregateRow toRow() {
+        return new AggregateRow(count, sum, count == 0 ? 0.0 : min, count == 0 ? 0.0 : max, argMax);
+    }
+}
@@ -4,12 +4,30 @@ package com.mycompany.app.service;
  * Wyjątek reprezentujący błędy podczas integracji z API.
  */
 public class ApiException extends Exception {
+    private final int statusCode;
 
     public ApiException(String message) {
+        this(message, -1);
+    }
+
+    /**
+     * @param message opis błędu
+     * @param statusCode kod odpowiedzi HTTP, który spowodował błąd
+     */
+    public ApiException(String message, int statusCode) {
         super(message);
+        this.statusCode = statusCode;
     }
 
     public ApiException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = -1;
+    }
+
+    /**
+     * @return kod odpowiedzi HTTP lub -1, jeśli błąd nie wynika z odpowiedzi serwera
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.mycompany.app.service;
+
+import java.time.Duration;
+
+/**
+ * Ustawienia pobierania stronicowanego API: limit równoległych zapytań,
+ * timeout pojedynczego zapytania i ponowienia z losowym opóźnieniem.
+ * Obiekt jest niemutowalny - metody with...() zwracają zmienioną kopię.
+ */
+public class ApiFetchOptions {
+    private final int concurrency;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxPages;
+
+    public ApiFetchOptions(int concurrency, Duration requestTimeout, int maxRetries,
+                           Duration initialBackoff, Duration maxBackoff, int maxPages) {
+        if (concurrency < 1 || maxRetries < 0 || maxPages < 1) {
+            throw new IllegalArgumentException("Nieprawidłowe ustawienia pobierania: concurrency=" + concurrency
+                    + ", maxRetries=" + maxRetries + ", maxPages=" + maxPages);
+        }
+        this.concurrency = concurrency;
+        this.requestTimeout = requestTimeout;
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Domyślnie: 8 równoległych zapytań, timeout 30 s, 3 ponowienia (200 ms - 5 s), do 10 000 stron
+     */
+    public static ApiFetchOptions defaults() {
+        return new ApiFetchOptions(8, Duration.ofSeconds(30), 3,
+                Duration.ofMillis(200), Duration.ofSeconds(5), 10_000);
+    }
+
+    public ApiFetchOptions withConcurrency(int concurrency) {
+        return new ApiFetchOptions(concurrency, requestTimeout, maxRetries, initialBackoff, maxBackoff, maxPages);
+    }
+
+    public ApiFetchOptions withRequestTimeout(Duration requestTimeout) {
+        return new ApiFetchOptions(concurrency, requestTimeout, maxRetries, initialBackoff, maxBackoff, maxPages);
+    }
+
+    public ApiFetchOptions withRetries(int maxRetries, Duration initialBackoff, Duration maxBackoff) {
+        return new ApiFetchOptions(concurrency, requestTimeout, maxRetries, initialBackoff, maxBackoff, maxPages);
+    }
+
+    public ApiFetchOptions withMaxPages(int maxPages) {
+        return new ApiFetchOptions(concurrency, requestTimeout, maxRetries, initialBackoff, maxBackoff, maxPages);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mycompany.app.service;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Źródło potoku pobierające pracowników z API.
+ * Odpowiedź jest parsowana strumieniowo, więc blokujący submit() wstrzymuje też czytanie
+ * ciała odpowiedzi - nadawca zwalnia do tempa magazynu (kontrola przepływu TCP).
+ */
+public class ApiIngestSource extends IngestSource {
+    private final ApiService apiService;
+    private final String apiUrl;
+
+    public ApiIngestSource(ApiService apiService, String apiUrl, Executor executor, int bufferSize) {
+        super(executor, bufferSize);
+        this.apiService = apiService;
+        this.apiUrl = apiUrl;
+    }
+
+    @Override
+    protected void produce(Consumer<IngestRecord> sink) throws Exception {
+        int[] index = {0};
+        apiService.streamEmployeesFromApi(apiUrl,
+                employee -> {
+                    int record = ++index[0];
+                    sink.accept(IngestRecord.of(record, "Rekord", employee));
+                });
+    }
+}
@@ -0,0 +1,326 @@
+package com.mycompany.app.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Pamięć podręczna odpowiedzi API kluczowana adresem URL.
+ *
+ * Dla każdego adresu przechowuje walidatory HTTP (ETag, Last-Modified) oraz już
+ * sparsowane dane pracowników. Wpis młodszy niż TTL od ostatniego potwierdzenia przez serwer
+ * jest zwracany przez ApiService bez żadnego zapytania. Starszy wpis jest nieaktualny, ale nie
+ * jest usuwany: jego walidatory trafiają do zapytania warunkowego (If-None-Match /
+ * If-Modified-Since), a odpowiedź 304 jest obsługiwana z pamięci - bez pobierania i parsowania ciała.
+ *
+ * Przy przekroczeniu limitu liczby pracowników usuwane są najpierw wpisy nieaktualne,
+ * potem najdawniej używane (LRU).
+ * Opcjonalnie wpisy są zapisywane w katalogu na dysku, więc przetrwają restart aplikacji;
+ * odpowiedź 304 zapisuje plik ponownie tylko wtedy, gdy serwer zmienił walidatory.
+ * Odczyt i serializacja pliku odbywają się poza blokadą - pod nią są tylko operacje na nazwach
+ * plików (podmiana gotowego pliku i usuwanie), żeby starszy zapis nie nadpisał nowszego.
+ */
+public class ApiResponseCache {
+    private static final Gson gson = new Gson();
+
+    private final Duration ttl;
+    private final long maxEmployees;
+    private final Path directory;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedEmployees;
+
+    /**
+     * Tworzy pamięć podręczną tylko w pamięci operacyjnej
+     * @param ttl czas od potwierdzenia przez serwer, przez który wpis jest zwracany bez zapytania;
+     *            potem wpis jest potwierdzany zapytaniem warunkowym i jako pierwszy usuwany
+     * @param maxEmployees łączny limit pracowników we wszystkich wpisach
+     */
+    public ApiResponseCache(Duration ttl, long maxEmployees) {
+        this(ttl, maxEmployees, null);
+    }
+
+    /**
+     * Tworzy pamięć podręczną z zapisem wpisów na dysku
+     * @param ttl jak w ApiResponseCache(Duration, long)
+     * @param maxEmployees łączny limit pracowników we wszystkich wpisach
+     * @param directory katalog na pliki wpisów lub null (bez zapisu na dysku)
+     */
+    public ApiResponseCache(Duration ttl, long maxEmployees, Path directory) {
+        this.ttl = ttl;
+        this.maxEmployees = maxEmployees;
+        this.directory = directory;
+    }
+
+    long maxEmployees() {
+        return maxEmployees;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Usuwa wszystkie wpisy (także z dysku)
+     */
+    public synchronized void clear() {
+        for (String url : new ArrayList<>(entries.keySet())) {
+            deleteFile(url);
+        }
+        entries.clear();
+        cachedEmployees = 0;
+    }
+
+    /**
+     * @return wpis dla adresu (także nieaktualny - do zapytania warunkowego) lub null;
+     *         przy braku w pamięci sprawdzany jest dysk
+     */
+    Entry get(String url) {
+        synchronized (this) {
+            Entry entry = entries.get(url);
+            if (entry != null || directory == null) {
+                return entry;
+            }
+        }
+        Entry loaded = load(url);
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            // Inny wątek mógł w międzyczasie wczytać lub zapisać wpis - wygrywa ten w pamięci
+            Entry entry = entries.get(url);
+            if (entry == null) {
+                insert(url, loaded);
+                entry = loaded;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * @return true, jeśli wpis można zwrócić bez pytania serwera (nie minął TTL)
+     */
+    boolean isFresh(Entry entry) {
+        return !isStale(entry);
+    }
+
+    /**
+     * Zapamiętuje odpowiedź 200 z walidatorami
+     */
+    void put(String url, Entry entry) {
+        synchronized (this) {
+            remove(url);
+            if (entry.size() > maxEmployees) {
+                return; // Odpowiedź większa niż cały limit - nie da się jej przechować
+            }
+            insert(url, entry);
+        }
+        store(url, entry);
+    }
+
+    /**
+     * Odnawia wpis po odpowiedzi 304. Sam czas potwierdzenia nie jest zapisywany na dysk -
+     * po restarcie wpis jest nieaktualny, ale i tak zostanie potwierdzony zapytaniem warunkowym.
+     *
+     * @param etag ETag z odpowiedzi 304 lub null (bez zmiany)
+     * @param lastModified Last-Modified z odpowiedzi 304 lub null (bez zmiany)
+     */
+    void revalidated(String url, Entry entry, String etag, String lastModified) {
+        boolean changed = false;
+        synchronized (this) {
+            entry.validatedAt = System.currentTimeMillis();
+            if (etag != null && !etag.equals(entry.etag)) {
+                entry.etag = etag;
+                changed = true;
+            }
+            if (lastModified != null && !lastModified.equals(entry.lastModified)) {
+                entry.lastModified = lastModified;
+                changed = true;
+            }
+        }
+        if (changed) {
+            store(url, entry);
+        }
+    }
+
+    private boolean isStale(Entry entry) {
+        return System.currentTimeMillis() - entry.validatedAt >= ttl.toMillis();
+    }
+
+    private void insert(String url, Entry entry) {
+        entries.put(url, entry);
+        cachedEmployees += entry.size();
+        if (cachedEmployees > maxEmployees) {
+            // Najpierw nieaktualne wpisy, potem najdawniej używane
+            evict(entry, true);
+            evict(entry, false);
+        }
+    }
+
+    private void evict(Entry kept, boolean staleOnly) {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (cachedEmployees > maxEmployees && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            if (evicted.getValue() == kept || (staleOnly && !isStale(evicted.getValue()))) {
+                continue;
+            }
+            cachedEmployees -= evicted.getValue().size();
+            eldest.remove();
+            deleteFile(evicted.getKey());
+        }
+    }
+
+    private void remove(String url) {
+        Entry removed = entries.remove(url);
+        if (removed != null) {
+            cachedEmployees -= removed.size();
+        }
+        deleteFile(url);
+    }
+
+    // ===== Zapis na dysku: jeden plik JSON na adres URL =====
+
+    private Entry load(String url) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileFor(url);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Entry entry = gson.fromJson(reader, Entry.class);
+            // Plik mógł należeć do innego adresu o tym samym skrócie lub być uszkodzony
+            return entry != null && url.equals(entry.url) && entry.isComplete() ? entry : null;
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    // Wołane bez blokady: plik tymczasowy jest pisany równolegle z odczytami,
+    // a podmieniany pod blokadą tylko wtedy, gdy wpis jest nadal aktualny dla adresu
+    private void store(String url, Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "entry", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            synchronized (this) {
+                if (entries.get(url) == entry) {
+                    Path file = fileFor(url);
+                    try {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    temp = null;
+                }
+            }
+        } catch (IOException e) {
+            // Zapis na dysk jest tylko optymalizacją - wpis w pamięci nadal działa
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // Pozostały plik tymczasowy nie jest nigdy czytany
+                }
+            }
+        }
+    }
+
+    private void deleteFile(String url) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileFor(url));
+        } catch (IOException e) {
+            // Nieaktualny plik zostanie odrzucony przy odczycie (TTL)
+        }
+    }
+
+    private Path fileFor(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", hash[i]));
+            }
+            return directory.resolve(name.append(".json").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+
+    /**
+     * Wpis pamięci podręcznej: walidatory i dane pracowników w postaci kolumn
+     * (nowe obiekty Employee są tworzone przy każdym odczycie, bo są mutowalne).
+     */
+    static class Entry {
+        String url;
+        // Czytane przez ApiService bez blokady, zmieniane w revalidated()
+        volatile String etag;
+        volatile String lastModified;
+        volatile long validatedAt;
+        List<String> names = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        List<String> companies = new ArrayList<>();
+
+        Entry(String url, String etag, String lastModified) {
+            this.url = url;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validatedAt = System.currentTimeMillis();
+        }
+
+        void add(Employee employee) {
+            names.add(employee.getFullName());
+            emails.add(employee.getEmail());
+            companies.add(employee.getCompanyName());
+        }
+
+        int size() {
+            return names.size();
+        }
+
+        /**
+         * @return true, jeśli wszystkie kolumny istnieją, mają tę samą długość i nie zawierają null
+         */
+        boolean isComplete() {
+            return names != null && emails != null && companies != null
+                    && names.size() == emails.size() && names.size() == companies.size()
+                    && !names.contains(null) && !emails.contains(null) && !companies.contains(null);
+        }
+
+        int replay(Consumer<Employee> consumer) {
+            for (int i = 0; i < names.size(); i++) {
+                consumer.accept(new Employee(names.get(i), emails.get(i), companies.get(i), Position.PROGRAMISTA));
+            }
+            return names.size();
+        }
+    }
+}
@@ -1,30 +1,75 @@
 package com.mycompany.app.service;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.mycompany.app.metrics.Metrics;
+import com.mycompany.app.metrics.Timer;
 import com.mycompany.app.model.Employee;
 import com.mycompany.app.model.Position;
 
-import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  * Klasa odpowiedzialna za integrację z REST API.
+ *
+ * Odpowiedzi są parsowane strumieniowo (Gson JsonReader) prosto z InputStream,
+ * bez budowania Stringa z całym ciałem ani drzewa JsonArray. Wszystkie instancje
+ * domyślnie współdzielą jeden HttpClient, a więc i jego pulę połączeń.
+ *
+ * Z opcjonalną ApiResponseCache wpis młodszy niż TTL jest zwracany bez zapytania, a dla
+ * starszego zapytanie jest warunkowe (If-None-Match / If-Modified-Since) i odpowiedź 304
+ * jest obsługiwana z pamięci podręcznej.
  */
 public class ApiService {
 
-    private static final Gson gson = new Gson();
+    private static final HttpClient SHARED_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final HttpClient client;
+    private final ApiResponseCache cache;
+
+    public ApiService() {
+        this(SHARED_CLIENT, null);
+    }
+
+    /**
+     * @param cache pamięć podręczna odpowiedzi
+     */
+    public ApiService(ApiResponseCache cache) {
+        this(SHARED_CLIENT, cache);
+    }
+
+    /**
+     * @param client klient HTTP używany do wszystkich zapytań tego serwisu
+     */
+    public ApiService(HttpClient client) {
+        this(client, null);
+    }
+
+    /**
+     * @param client klient HTTP używany do wszystkich zapytań tego serwisu
+     * @param cache pamięć podręczna odpowiedzi lub null
+     */
+    public ApiService(HttpClient client, ApiResponseCache cache) {
+        this.client = client;
+        this.cache = cache;
+    }
 
     /**
      * Wykonuje zapytanie GET do podanego API, parsuje odpowiedź JSON i zwraca listę obiektów Employee.
@@ -35,46 +80,195 @@ public class ApiService {
      */
     public List<Employee> fetchEmployeesFromApi(String apiUrl) throws ApiException {
         List<Employee> employees = new ArrayList<>();
+        streamEmployeesFromApi(apiUrl, employees::add);
+        return employees;
+    }
+
+    /**
+     * Wykonuje zapytanie GET do podanego API i przekazuje pracowników do konsumenta
+     * pojedynczo, w miarę czytania odpowiedzi - zużycie pamięci nie zależy od rozmiaru odpowiedzi.
+     *
+     * @param apiUrl URL API do pobrania danych.
+     * @param consumer odbiorca kolejnych pracowników
+     * @return liczba przekazanych pracowników
+     * @throws ApiException W przypadku błędów HTTP lub problemów z parsowaniem JSON.
+     */
+    public int streamEmployeesFromApi(String apiUrl, Consumer<Employee> consumer) throws ApiException {
+        return streamEmployees(apiUrl, null, consumer);
+    }
+
+    /**
+     * Pobiera wszystkie strony stronicowanego API równolegle i dodaje pracowników do serwisu.
+     * Kolejne numery stron są pobierane aż do pierwszej pustej strony (albo strony, której
+     * nie udało się pobrać mimo ponowień) lub do limitu stron z ustawień.
+     *
+     * @param pageUrl funkcja budująca URL strony z jej numeru (strony liczone od 1)
+     * @param target serwis, do którego trafiają pobrani pracownicy
+     * @param options limit równoległości, timeouty i ponowienia
+     * @return podsumowanie: liczba dodanych pracowników i błędy (w kolejności stron)
+     */
+    public ImportSummary fetchAllPages(IntFunction<String> pageUrl, EmployeeService target,
+                                       ApiFetchOptions options) {
+        return new PagedApiFetcher(this, options).fetchAll(pageUrl, target);
+    }
 
+    /**
+     * Wykonuje jedno zapytanie GET i przekazuje pracowników do konsumenta.
+     *
+     * @param timeout limit czasu na odpowiedź lub null (bez limitu)
+     */
+    int streamEmployees(String apiUrl, Duration timeout, Consumer<Employee> consumer) throws ApiException {
+        ApiResponseCache.Entry cached = cache != null ? cache.get(apiUrl) : null;
+        if (cached != null && cache.isFresh(cached)) {
+            return cached.replay(consumer); // Potwierdzony przez serwer przed upływem TTL - bez zapytania
+        }
         try {
             // Wykonanie zapytania HTTP GET
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
                     .uri(URI.create(apiUrl))
-                    .GET()
-                    .build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    .GET();
+            if (timeout != null) {
+                builder.timeout(timeout);
+            }
+            if (cached != null) {
+                // Zapytanie warunkowe - serwer odpowie 304, jeśli dane się nie zmieniły
+                if (cached.etag != null) {
+                    builder.header("If-None-Match", cached.etag);
+                }
+                if (cached.lastModified != null) {
+                    builder.header("If-Modified-Since", cached.lastModified);
+                }
+            }
+            Metrics metrics = Metrics.global();
+            Timer start = metrics.startTimer();
+            HttpResponse<InputStream> response;
+            try {
+                response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            } catch (IOException | InterruptedException e) {
+                metrics.recordHttp(-1, start);
+                throw e;
+            }
+            // Czas do nagłówków odpowiedzi - czytanie ciała zależy już od konsumenta
+            metrics.recordHttp(response.statusCode(), start);
+
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 304 && cached != null) {
+                    cache.revalidated(apiUrl, cached, response.headers().firstValue("ETag").orElse(null),
+                            response.headers().firstValue("Last-Modified").orElse(null));
+                    return cached.replay(consumer);
+                }
+                if (response.statusCode() != 200) {
+                    throw new ApiException("HTTP error: " + response.statusCode(), response.statusCode());
+                }
+                InputStreamReader json = new InputStreamReader(body, StandardCharsets.UTF_8);
+                String etag = response.headers().firstValue("ETag").orElse(null);
+                String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+                if (cache == null || (etag == null && lastModified == null)) {
+                    return readEmployees(json, consumer);
+                }
 
-            if (response.statusCode() != 200) {
-                throw new ApiException("HTTP error: " + response.statusCode());
+                // Zapamiętujemy dane w trakcie strumieniowania - do limitu rozmiaru pamięci podręcznej
+                ApiResponseCache.Entry entry = new ApiResponseCache.Entry(apiUrl, etag, lastModified);
+                boolean[] fits = {true};
+                int count = readEmployees(json, employee -> {
+                    if (fits[0] && entry.size() < cache.maxEmployees()) {
+                        entry.add(employee);
+                    } else {
+                        fits[0] = false;
+                    }
+                    consumer.accept(employee);
+                });
+                if (fits[0]) {
+                    cache.put(apiUrl, entry);
+                }
+                return count;
             }
 
-            // Odczyt odpowiedzi
-            String responseContent = response.body();
+        } catch (ApiException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Przerwano pobieranie danych z API", e);
+        } catch (Exception e) {
+            throw new ApiException("Błąd podczas pobierania danych z API: " + e.getMessage(), e);
+        }
+    }
 
-            // Parsowanie JSON
-            JsonArray jsonArray = gson.fromJson(responseContent.toString(), JsonArray.class);
-            for (JsonElement element : jsonArray) {
-                String fullName = element.getAsJsonObject().get("name").getAsString();
-                String email = element.getAsJsonObject().get("email").getAsString();
-                String companyName = element.getAsJsonObject().get("company").getAsJsonObject().get("name").getAsString();
+    /**
+     * Czyta tablicę użytkowników w formacie JSON token po tokenie.
+     * Z każdego obiektu brane są pola name, email i company.name - pozostałe są pomijane.
+     *
+     * @param json źródło JSON
+     * @param consumer odbiorca kolejnych pracowników
+     * @return liczba przeczytanych pracowników
+     * @throws ApiException gdy JSON jest niepoprawny lub brakuje wymaganego pola
+     */
+    static int readEmployees(Reader json, Consumer<Employee> consumer) throws ApiException {
+        int count = 0;
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                consumer.accept(readEmployee(reader));
+                count++;
+            }
+            reader.endArray();
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            throw new ApiException("Błąd parsowania JSON: " + e.getMessage(), e);
+        }
+        return count;
+    }
 
-                // Rozdzielenie pełnego imienia na firstName i lastName
-                String[] nameParts = fullName.split(" ", 2);
-                String firstName = nameParts[0];
-                String lastName = nameParts.length > 1 ? nameParts[1] : "";
+    private static Employee readEmployee(JsonReader reader) throws IOException, ApiException {
+        String fullName = null;
+        String email = null;
+        String companyName = null;
 
-                // Tworzenie obiektu Employee
-                Employee employee = new Employee(firstName + " " + lastName, email, companyName, Position.PROGRAMISTA);
-                employees.add(employee);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    fullName = reader.nextString();
+                    break;
+                case "email":
+                    email = reader.nextString();
+                    break;
+                case "company":
+                    companyName = readCompanyName(reader);
+                    break;
+                default:
+                    reader.skipValue();
             }
+        }
+        reader.endObject();
 
-        } catch (JsonSyntaxException e) {
-            throw new ApiException("Błąd parsowania JSON: " + e.getMessage(), e);
-        } catch (Exception e) {
-            throw new ApiException("Błąd podczas pobierania danych z API: " + e.getMessage(), e);
+        if (fullName == null || email == null || companyName == null) {
+            throw new ApiException("Błąd parsowania JSON: brak pola name, email lub company.name przy "
+                    + reader.getPath());
         }
 
-        return employees;
+        // Samo imię dostaje spację na końcu - jak przy dawnym składaniu firstName + " " + lastName
+        int space = fullName.indexOf(' ');
+        String normalizedName = space >= 0 ? fullName : fullName + " ";
+
+        // Tworzenie obiektu Employee
+        return new Employee(normalizedName, email, companyName, Position.PROGRAMISTA);
+    }
+
+    private static String readCompanyName(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        String name = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("name".equals(reader.nextName())) {
+                name = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return name;
     }
 }
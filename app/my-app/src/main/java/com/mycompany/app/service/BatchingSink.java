@@ -0,0 +1,112 @@
+package com.mycompany.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Ostatni etap potoku: zbiera pracowników w paczki i dodaje je do EmployeeService.
+ * Kolejną paczkę rekordów zamawia dopiero po zapisaniu poprzedniej, więc w pamięci
+ * jest najwyżej jedna paczka plus bufory etapów.
+ */
+class BatchingSink implements Flow.Subscriber<IngestRecord> {
+    private final EmployeeService target;
+    private final int batchSize;
+    private final List<Employee> batch;
+    private final List<IngestRecord> batchRecords;
+    private final ImportErrorCollector errors;
+    private final CompletableFuture<ImportSummary> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private int received;
+    private int importedCount;
+
+    BatchingSink(EmployeeService target, int batchSize, ErrorReportOptions errorOptions) {
+        this.target = target;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+        this.batchRecords = new ArrayList<>(batchSize);
+        this.errors = new ImportErrorCollector(errorOptions);
+    }
+
+    CompletableFuture<ImportSummary> result() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(IngestRecord record) {
+        if (record.isError()) {
+            // Błędy muszą trafić po duplikatach wcześniejszych rekordów - zapisujemy zebraną paczkę
+            flush();
+            errors.add(record.getError());
+        } else {
+            batch.add(record.getEmployee());
+            batchRecords.add(record);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+        if (++received == batchSize) {
+            received = 0;
+            subscription.request(batchSize);
+        }
+    }
+
+    // Wynik jest uzupełniany w finally - inaczej wyjątek z zapisu zawiesiłby IngestionPipeline.run() na join()
+    @Override
+    public void onError(Throwable throwable) {
+        try {
+            flushReportingFailure();
+        } finally {
+            errors.add(ImportError.withMessage(0, ImportErrorCode.IO_ERROR, "Błąd źródła danych: " + throwable.getMessage()));
+            result.complete(errors.summary(importedCount));
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            flushReportingFailure();
+        } finally {
+            result.complete(errors.summary(importedCount));
+        }
+    }
+
+    private void flushReportingFailure() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            errors.add(ImportError.withMessage(0, ImportErrorCode.OTHER, "Błąd zapisu paczki: " + e.getMessage()));
+        }
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            boolean[] added = target.addEmployees(batch);
+            for (int i = 0; i < added.length; i++) {
+                if (added[i]) {
+                    importedCount++;
+                } else {
+                    IngestRecord record = batchRecords.get(i);
+                    errors.add(ImportError.at(record.getUnit(), record.getLine(), ImportErrorCode.DUPLICATE_EMAIL,
+                            batch.get(i).getEmail()));
+                }
+            }
+        } finally {
+            // Nieudana paczka nie jest ponawiana przez onError()
+            batch.clear();
+            batchRecords.clear();
+        }
+    }
+}
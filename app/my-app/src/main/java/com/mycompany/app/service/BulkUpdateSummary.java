@@ -0,0 +1,46 @@
+package com.mycompany.app.service;
+
+/**
+ * Klasa przechowująca podsumowanie operacji grupowej (podwyżka, awans).
+ */
+public class BulkUpdateSummary {
+    private final long matchedCount;
+    private final long updatedCount;
+    private final double salaryDelta;
+
+    public BulkUpdateSummary(long matchedCount, long updatedCount, double salaryDelta) {
+        this.matchedCount = matchedCount;
+        this.updatedCount = updatedCount;
+        this.salaryDelta = salaryDelta;
+    }
+
+    /**
+     * @return liczba pracowników spełniających warunek
+     */
+    public long getMatchedCount() {
+        return matchedCount;
+    }
+
+    /**
+     * @return liczba pracowników, których dane faktycznie się zmieniły
+     */
+    public long getUpdatedCount() {
+        return updatedCount;
+    }
+
+    /**
+     * @return łączna zmiana sumy wynagrodzeń
+     */
+    public double getSalaryDelta() {
+        return salaryDelta;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkUpdateSummary{" +
+                "matchedCount=" + matchedCount +
+                ", updatedCount=" + updatedCount +
+                ", salaryDelta=" + salaryDelta +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.mycompany.app.service;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Źródło potoku czytające plik CSV (ten sam format i te same komunikaty błędów co ImportService).
+ * Tokenizer pracuje bezpośrednio na buforze odczytu, więc parsowanie wiersza odbywa się
+ * w tym samym kroku co czytanie; walidacja i zapis to kolejne etapy potoku.
+ */
+public class CsvIngestSource extends IngestSource {
+    private final Path file;
+
+    public CsvIngestSource(Path file, Executor executor, int bufferSize) {
+        super(executor, bufferSize);
+        this.file = file;
+    }
+
+    @Override
+    protected void produce(Consumer<IngestRecord> sink) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvTokenizer tokenizer = new CsvTokenizer(ImportService.FIELD_COUNT);
+            CsvRecordReader reader = new CsvRecordReader(channel, tokenizer);
+            Consumer<ImportError> errors = error -> sink.accept(IngestRecord.error(error));
+
+            // Pomijamy nagłówek
+            reader.next();
+            while (reader.next()) {
+                int lineNumber = reader.lineNumber();
+                Employee employee = ImportService.parseRecord(tokenizer, lineNumber, errors);
+                if (employee != null) {
+                    sink.accept(IngestRecord.of(lineNumber, "Linia", employee));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mycompany.app.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Czyta kolejne rekordy CSV z kanału dużymi blokami i przekazuje je do CsvTokenizer.
+ * Bufor jest wielokrotnego użytku - rośnie tylko wtedy, gdy pojedynczy rekord się w nim nie mieści.
+ */
+class CsvRecordReader {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final CsvTokenizer tokenizer;
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private int nextLineNumber;
+    private int lineNumber;
+
+    CsvRecordReader(ReadableByteChannel channel, CsvTokenizer tokenizer) {
+        this(channel, tokenizer, 1);
+    }
+
+    /**
+     * @param firstLineNumber numer linii pierwszego rekordu (gdy kanał nie zaczyna się od początku pliku)
+     */
+    CsvRecordReader(ReadableByteChannel channel, CsvTokenizer tokenizer, int firstLineNumber) {
+        this.nextLineNumber = firstLineNumber;
+        this.channel = channel;
+        this.tokenizer = tokenizer;
+        this.array = new byte[DEFAULT_BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(array);
+    }
+
+    /**
+     * Rozpoznaje kolejny rekord - jego pola są dostępne przez tokenizer
+     * @return false, jeśli dane się skończyły
+     */
+    boolean next() throws IOException {
+        while (true) {
+            if (position >= limit && endOfInput) {
+                return false;
+            }
+            int end = position < limit || endOfInput
+                    ? tokenizer.next(buffer, position, limit, endOfInput)
+                    : CsvTokenizer.INCOMPLETE;
+            if (end != CsvTokenizer.INCOMPLETE) {
+                lineNumber = nextLineNumber;
+                nextLineNumber += Math.max(1, tokenizer.linesConsumed());
+                position = end;
+                return true;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * @return numer linii (od 1), w której zaczyna się bieżący rekord
+     */
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    private void fill() throws IOException {
+        // Przesuwamy niedokończony rekord na początek bufora
+        int remaining = limit - position;
+        if (position > 0) {
+            System.arraycopy(array, position, array, 0, remaining);
+        }
+        position = 0;
+        limit = remaining;
+        if (limit == array.length) {
+            byte[] grown = new byte[array.length * 2];
+            System.arraycopy(array, 0, grown, 0, limit);
+            array = grown;
+            buffer = ByteBuffer.wrap(array);
+        }
+        buffer.limit(array.length).position(limit);
+        int read = channel.read(buffer);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.mycompany.app.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tokenizer CSV działający bezpośrednio na bajtach (UTF-8) - bez split(), trim() i
+ * tymczasowych Stringów.
+ *
+ * Jedno wywołanie next() rozpoznaje jeden rekord i zapamiętuje jedynie granice pól
+ * (pozycje w buforze). Wartości są czytane dopiero na żądanie: liczby i enumy są
+ * parsowane wprost z bajtów, a String powstaje tylko dla pól, które naprawdę go potrzebują.
+ *
+ * Obsługuje pola w cudzysłowach zgodnie z RFC 4180 (przecinki, znaki nowej linii
+ * i podwojone cudzysłowy wewnątrz pola). Pola bez cudzysłowów są przycinane z białych
+ * znaków - tak jak w dotychczasowym imporcie opartym na trim() (znaki ASCII do spacji;
+ * białe znaki spoza ASCII, np. twarda spacja, zostają w polu). Tekst między zamykającym
+ * cudzysłowem a separatorem (np. "a"b) nie jest gubiony - rekord jest oznaczany jako błędny.
+ *
+ * Obiekt jest wielokrotnego użytku, ale nie jest bezpieczny wątkowo -
+ * każdy wątek parsujący powinien mieć własną instancję.
+ */
+public class CsvTokenizer {
+    /** Wynik next(): rekord nie mieści się w dostępnych danych */
+    public static final int INCOMPLETE = -1;
+
+    private static final int INTERN_TABLE_SIZE = 1024;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private ByteBuffer data;
+    private int[] starts;
+    private int[] ends;
+    private boolean[] escaped;
+    private int fieldCount;
+    private int newlines;
+    private int malformedField;
+    private boolean unterminated;
+    private byte[] scratch = new byte[256];
+
+    // Mała tablica internowania (np. nazwy firm powtarzają się w milionach wierszy)
+    private final byte[][] internKeys = new byte[INTERN_TABLE_SIZE][];
+    private final String[] internValues = new String[INTERN_TABLE_SIZE];
+
+    public CsvTokenizer() {
+        this(8);
+    }
+
+    /**
+     * @param expectedFields spodziewana liczba pól - tablice rosną automatycznie
+     */
+    public CsvTokenizer(int expectedFields) {
+        this.starts = new int[expectedFields];
+        this.ends = new int[expectedFields];
+        this.escaped = new boolean[expectedFields];
+    }
+
+    /**
+     * Rozpoznaje jeden rekord zaczynający się na pozycji from.
+     *
+     * @param buffer dane (czytane bezwzględnie, pozycja bufora nie jest zmieniana)
+     * @param from pozycja początku rekordu
+     * @param limit koniec dostępnych danych
+     * @param endOfInput true, jeśli po limit nie będzie już danych
+     * @return pozycja za rekordem (za znakiem nowej linii) lub INCOMPLETE,
+     *         jeśli rekord urywa się na limit, a dane jeszcze nie są kompletne
+     */
+    public int next(ByteBuffer buffer, int from, int limit, boolean endOfInput) {
+        data = buffer;
+        fieldCount = 0;
+        newlines = 0;
+        malformedField = -1;
+        unterminated = false;
+        int i = from;
+
+        while (true) {
+            while (i < limit && isBlank(buffer.get(i))) {
+                i++;
+            }
+            int start;
+            int end;
+            boolean hasEscapes = false;
+
+            if (i < limit && buffer.get(i) == '"') {
+                start = ++i;
+                while (true) {
+                    if (i >= limit) {
+                        return endOfInput ? finishUnterminated(start, limit) : INCOMPLETE;
+                    }
+                    byte b = buffer.get(i);
+                    if (b == '"') {
+                        if (i + 1 < limit && buffer.get(i + 1) == '"') {
+                            hasEscapes = true;
+                            i += 2;
+                            continue;
+                        }
+                        if (i + 1 >= limit && !endOfInput) {
+                            return INCOMPLETE; // Nie wiadomo jeszcze, czy to "" czy koniec pola
+                        }
+                        break;
+                    }
+                    if (b == '\n') {
+                        newlines++;
+                    }
+                    i++;
+                }
+                end = i++;
+                // Po zamykającym cudzysłowie dopuszczamy tylko białe znaki przed separatorem
+                while (i < limit && buffer.get(i) != ',' && buffer.get(i) != '\n') {
+                    if (!isBlank(buffer.get(i)) && malformedField < 0) {
+                        malformedField = fieldCount;
+                    }
+                    i++;
+                }
+            } else {
+                start = i;
+                while (i < limit && buffer.get(i) != ',' && buffer.get(i) != '\n') {
+                    i++;
+                }
+                end = i;
+                while (end > start && isBlank(buffer.get(end - 1))) {
+                    end--;
+                }
+            }
+
+            if (i >= limit && !endOfInput) {
+                return INCOMPLETE;
+            }
+            addField(start, end, hasEscapes);
+
+            if (i >= limit) {
+                return limit;
+            }
+            if (buffer.get(i) == '\n') {
+                newlines++;
+                return i + 1;
+            }
+            i++; // przecinek - kolejne pole
+        }
+    }
+
+    private int finishUnterminated(int start, int limit) {
+        // Niezamknięty cudzysłów na końcu danych - traktujemy resztę jako treść pola
+        unterminated = true;
+        addField(start, limit, false);
+        return limit;
+    }
+
+    private void addField(int start, int end, boolean hasEscapes) {
+        if (fieldCount == starts.length) {
+            int size = fieldCount * 2;
+            starts = Arrays.copyOf(starts, size);
+            ends = Arrays.copyOf(ends, size);
+            escaped = Arrays.copyOf(escaped, size);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+
+    /**
+     * @return liczba pól w ostatnio rozpoznanym rekordzie
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return liczba znaków nowej linii zużytych przez ostatni rekord
+     *         (więcej niż 1, jeśli pole w cudzysłowie zawiera nowe linie)
+     */
+    public int linesConsumed() {
+        return newlines;
+    }
+
+    /**
+     * @return numer pierwszego pola ostatniego rekordu z tekstem po zamykającym cudzysłowie
+     *         (np. "a"b - odczytane zostaje samo a) lub -1, jeśli wszystkie pola są poprawne
+     */
+    public int malformedField() {
+        return malformedField;
+    }
+
+    /**
+     * @return true, jeśli ostatni rekord urwał się w polu w cudzysłowie (koniec danych przed
+     *         zamykającym cudzysłowem) - np. gdy dane ucięto w środku pola z nową linią
+     */
+    public boolean endedInsideQuotes() {
+        return unterminated;
+    }
+
+    /**
+     * @return true, jeśli ostatni rekord to pusta linia (lub same białe znaki)
+     */
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && starts[0] == ends[0] && !isQuoted(0);
+    }
+
+    /**
+     * @return długość pola w bajtach (dla pól w cudzysłowie - bez cudzysłowów)
+     */
+    public int fieldLength(int field) {
+        return ends[field] - starts[field];
+    }
+
+    /**
+     * Parsuje liczbę zmiennoprzecinkową bez tworzenia Stringa.
+     * Obsługuje format [-+]cyfry[.cyfry]; inne zapisy (np. wykładnik) przechodzą
+     * przez Double.parseDouble.
+     *
+     * @return wartość lub NaN, jeśli pole nie jest poprawną skończoną liczbą
+     *         (także "Infinity" i wykładniki poza zakresem double, np. 1e400)
+     */
+    public double parseDouble(int field) {
+        int i = starts[field];
+        int end = ends[field];
+        if (i == end || escaped[field]) {
+            return i == end ? Double.NaN : slowParseDouble(field);
+        }
+        boolean negative = false;
+        byte first = data.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean anyDigit = false;
+        boolean seenDot = false;
+        for (; i < end; i++) {
+            byte b = data.get(i);
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    if (++significantDigits > 15) {
+                        return slowParseDouble(field);
+                    }
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenDot) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                return slowParseDouble(field);
+            }
+        }
+        if (!anyDigit || fractionDigits >= POWERS_OF_TEN.length) {
+            return slowParseDouble(field);
+        }
+        // Mantysa < 2^53 i dzielnik <= 10^22 są dokładne, więc dzielenie daje poprawnie zaokrąglony wynik
+        double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private double slowParseDouble(int field) {
+        try {
+            double value = Double.parseDouble(string(field));
+            return Double.isFinite(value) ? value : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Dopasowuje pole do nazwy stałej enuma (bez rozróżniania wielkości liter ASCII),
+     * bez tworzenia Stringa i bez wyjątków.
+     *
+     * @param values wynik Enum.values() - przekazywany, by nie kopiować tablicy przy każdym wierszu
+     * @return dopasowana stała lub null
+     */
+    public <E extends Enum<E>> E matchEnum(int field, E[] values) {
+        int start = starts[field];
+        int length = ends[field] - start;
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() != length) {
+                continue;
+            }
+            int j = 0;
+            while (j < length && toUpperAscii(data.get(start + j)) == name.charAt(j)) {
+                j++;
+            }
+            if (j == length) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 64-bitowy skrót (FNV-1a) surowych bajtów wszystkich pól rekordu, bez tworzenia Stringów.
+     * Ten sam rekord daje zawsze ten sam skrót - służy do wykrywania zmienionych wierszy.
+     */
+    public long recordHash() {
+        long hash = 0xcbf29ce484222325L;
+        for (int field = 0; field < fieldCount; field++) {
+            for (int i = starts[field]; i < ends[field]; i++) {
+                hash = (hash ^ (data.get(i) & 0xff)) * 0x100000001b3L;
+            }
+            // Granica pola - "ab","c" i "a","bc" mają różne skróty
+            hash = (hash ^ 0x100) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Tworzy String z pola (jedyna alokacja dla tego pola)
+     */
+    public String string(int field) {
+        int length = copyField(field, 0);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tworzy jeden String z dwóch pól połączonych separatorem - np. imię i nazwisko -
+     * bez pośrednich Stringów
+     */
+    public String join(int first, int second, char separator) {
+        int length = copyField(first, 0);
+        ensureScratch(length + 1);
+        scratch[length++] = (byte) separator;
+        length = copyField(second, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Zwraca String z pola, współdzieląc instancje dla powtarzających się wartości
+     * (np. nazwy firm). Przy trafieniu w tablicę nic nie jest alokowane.
+     */
+    public String internedString(int field) {
+        int length = copyField(field, 0);
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + scratch[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (INTERN_TABLE_SIZE - 1);
+        byte[] key = internKeys[slot];
+        if (key != null && key.length == length && Arrays.equals(key, 0, length, scratch, 0, length)) {
+            return internValues[slot];
+        }
+        String value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        internKeys[slot] = Arrays.copyOf(scratch, length);
+        internValues[slot] = value;
+        return value;
+    }
+
+    /**
+     * Kopiuje bajty pola do bufora roboczego od pozycji offset,
+     * zamieniając podwojone cudzysłowy na pojedyncze.
+     *
+     * @return pozycja za skopiowanymi bajtami
+     */
+    private int copyField(int field, int offset) {
+        int start = starts[field];
+        int length = ends[field] - start;
+        ensureScratch(offset + length);
+        if (!escaped[field]) {
+            data.get(start, scratch, offset, length);
+            return offset + length;
+        }
+        int out = offset;
+        for (int i = start; i < start + length; i++) {
+            byte b = data.get(i);
+            scratch[out++] = b;
+            if (b == '"') {
+                i++; // pomijamy drugi cudzysłów z pary ""
+            }
+        }
+        return out;
+    }
+
+    private void ensureScratch(int size) {
+        if (size > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(size, scratch.length * 2));
+        }
+    }
+
+    private boolean isQuoted(int field) {
+        int start = starts[field];
+        return start > 0 && data.get(start - 1) == '"';
+    }
+
+    // Jak String.trim(): znaki o kodzie do spacji włącznie (poza końcem rekordu); bajty UTF-8 spoza ASCII są ujemne
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ' && b != '\n';
+    }
+
+    private static int toUpperAscii(byte b) {
+        return b >= 'a' && b <= 'z' ? b - ('a' - 'A') : b;
+    }
+}
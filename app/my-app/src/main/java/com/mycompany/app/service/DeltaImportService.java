@@ -0,0 +1,266 @@
+package com.mycompany.app.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.mycompany.app.metrics.Metrics;
+import com.mycompany.app.metrics.Timer;
+import com.mycompany.app.model.Employee;
+
+/**
+ * Import przyrostowy pliku CSV: przy kolejnych importach tego samego źródła do EmployeeService
+ * trafiają tylko zmiany - nowi pracownicy, zmienione wiersze i usunięcia.
+ *
+ * Dla każdego emaila zapamiętywany jest 64-bitowy skrót surowego wiersza (CsvTokenizer.recordHash).
+ * Wiersz z niezmienionym skrótem jest pomijany bez walidacji i tworzenia obiektu Employee.
+ * Pracownicy, których wiersze zniknęły z pliku, są usuwani - ale tylko ci, którzy trafili
+ * do serwisu lub zostali zaktualizowani przez ten import; pracowników z innych źródeł
+ * import nie usuwa.
+ *
+ * W odróżnieniu od ImportService pensja jest brana z pliku (a nie ze stawki bazowej stanowiska) -
+ * import przyrostowy synchronizuje serwis z plikiem, więc zmiana pensji w wierszu jest zmianą pracownika.
+ *
+ * Niepoprawny wiersz nie zmienia pracownika i nie powoduje jego usunięcia (jeśli da się z niego
+ * odczytać email). Gdy pliku nie da się przeczytać do końca, usunięcia są pomijane.
+ *
+ * Opcjonalnie watch() obserwuje katalog pliku (WatchService) i uruchamia import po każdej zmianie.
+ */
+public class DeltaImportService {
+    private static final int EMAIL_FIELD = 2;
+
+    private final EmployeeService employeeService;
+    private final ErrorReportOptions errorOptions;
+    // Email -> skrót wiersza z ostatniego importu; dostęp tylko w importDelta (synchronized)
+    private final Map<String, Long> rowHashes = new HashMap<>();
+
+    public DeltaImportService(EmployeeService employeeService) {
+        this(employeeService, ErrorReportOptions.defaults());
+    }
+
+    /**
+     * @param employeeService serwis, do którego trafiają zmiany
+     * @param errorOptions limit szczegółów błędów, rozmiar próbki i opcjonalny plik błędów
+     */
+    public DeltaImportService(EmployeeService employeeService, ErrorReportOptions errorOptions) {
+        this.employeeService = employeeService;
+        this.errorOptions = errorOptions;
+    }
+
+    /**
+     * Wczytuje plik i stosuje zmiany od poprzedniego importu. Pierwszy import dodaje wszystkich.
+     *
+     * @param file plik CSV w formacie ImportService
+     * @return liczba dodanych, zmienionych, usuniętych i niezmienionych pracowników oraz błędy
+     */
+    public synchronized DeltaImportSummary importDelta(Path file) {
+        ImportErrorCollector errors = new ImportErrorCollector(errorOptions);
+        Metrics metrics = Metrics.global();
+        Timer start = metrics.startTimer();
+        long rows = 0;
+        long bytes = 0;
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        Set<String> seen = new HashSet<>();
+        boolean complete = false;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            bytes = channel.size();
+            CsvTokenizer tokenizer = new CsvTokenizer(ImportService.FIELD_COUNT);
+            CsvRecordReader reader = new CsvRecordReader(channel, tokenizer);
+
+            // Pomijamy nagłówek
+            reader.next();
+
+            while (reader.next()) {
+                int lineNumber = reader.lineNumber();
+                rows++;
+                if (tokenizer.isBlankRecord()) {
+                    continue;
+                }
+                String email = tokenizer.fieldCount() > EMAIL_FIELD ? tokenizer.string(EMAIL_FIELD) : null;
+                if (email != null && !seen.add(email)) {
+                    errors.add(ImportError.of(lineNumber, ImportErrorCode.DUPLICATE_EMAIL, email));
+                    continue;
+                }
+
+                long hash = tokenizer.recordHash();
+                Long previousHash = rowHashes.get(email);
+                Employee current = email != null ? employeeService.findEmployeeByEmail(email).orElse(null) : null;
+                if (previousHash != null && previousHash == hash && current != null) {
+                    unchanged++;
+                    continue;
+                }
+
+                Employee parsed = ImportService.parseRecord(tokenizer, lineNumber, errors::add);
+                if (parsed == null) {
+                    continue; // Błąd już zgłoszony - pracownik zostaje w poprzednim stanie
+                }
+                parsed.setSalary(tokenizer.parseDouble(ImportService.SALARY_FIELD));
+                if (current == null) {
+                    if (employeeService.addEmployee(parsed)) {
+                        inserted++;
+                    } else {
+                        errors.add(ImportService.duplicateError(lineNumber, parsed));
+                        continue;
+                    }
+                } else if (apply(current, parsed)) {
+                    updated++;
+                } else {
+                    unchanged++;
+                }
+                rowHashes.put(email, hash);
+            }
+            complete = true;
+        } catch (IOException e) {
+            errors.add(ImportError.of(0, ImportErrorCode.IO_ERROR, e.getMessage()));
+        }
+
+        int deleted = 0;
+        if (complete) {
+            Iterator<String> previous = rowHashes.keySet().iterator();
+            while (previous.hasNext()) {
+                String email = previous.next();
+                if (!seen.contains(email)) {
+                    previous.remove();
+                    if (employeeService.removeEmployee(email)) {
+                        deleted++;
+                    }
+                }
+            }
+        }
+
+        metrics.recordImport(rows, bytes, start);
+        return new DeltaImportSummary(inserted, updated, deleted, unchanged, errors.summary(inserted + updated));
+    }
+
+    /**
+     * Przepisuje dane z wiersza do istniejącego pracownika - pod jego monitorem,
+     * więc równoległy setter nie wejdzie pomiędzy zmiany pól
+     *
+     * @return true, jeśli coś się zmieniło
+     */
+    private static boolean apply(Employee target, Employee source) {
+        synchronized (target) {
+            boolean changed = false;
+            if (!Objects.equals(target.getFullName(), source.getFullName())) {
+                target.setFullName(source.getFullName());
+                changed = true;
+            }
+            if (!Objects.equals(target.getCompanyName(), source.getCompanyName())) {
+                target.setCompanyName(source.getCompanyName());
+                changed = true;
+            }
+            if (target.getPosition() != source.getPosition()) {
+                target.setPosition(source.getPosition()); // Ustawia pensję bazową - nadpisujemy ją niżej
+                changed = true;
+            }
+            if (target.getSalary() != source.getSalary()) {
+                target.setSalary(source.getSalary());
+                changed = true;
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Importuje plik od razu, a potem po każdej jego zmianie. Zdarzenia są grupowane:
+     * import startuje, gdy przez quietPeriod nie było kolejnych zmian, więc zapis pliku
+     * kawałkami nie uruchamia wielu importów. Najbezpieczniej podmieniać plik atomowo
+     * (zapis obok i przeniesienie).
+     *
+     * @param file obserwowany plik CSV
+     * @param quietPeriod czas bez zmian, po którym startuje import
+     * @param listener odbiorca podsumowań kolejnych importów (wywoływany na wątku obserwatora)
+     * @return obserwator - close() kończy obserwację
+     * @throws IOException gdy nie da się zarejestrować katalogu w WatchService
+     */
+    public Watch watch(Path file, Duration quietPeriod, Consumer<DeltaImportSummary> listener) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        WatchService watchService = absolute.getFileSystem().newWatchService();
+        try {
+            absolute.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        listener.accept(importDelta(absolute));
+
+        Watch watch = new Watch(watchService, absolute, quietPeriod, listener);
+        Thread thread = new Thread(watch::run, "delta-import-watch");
+        thread.setDaemon(true);
+        thread.start();
+        return watch;
+    }
+
+    /**
+     * Obserwacja pliku uruchomiona przez watch()
+     */
+    public final class Watch implements Closeable {
+        private final WatchService watchService;
+        private final Path file;
+        private final long quietNanos;
+        private final Consumer<DeltaImportSummary> listener;
+
+        private Watch(WatchService watchService, Path file, Duration quietPeriod,
+                      Consumer<DeltaImportSummary> listener) {
+            this.watchService = watchService;
+            this.file = file;
+            this.quietNanos = quietPeriod.toNanos();
+            this.listener = listener;
+        }
+
+        private void run() {
+            long lastChange = 0;
+            boolean pending = false;
+            try {
+                while (true) {
+                    long waitNanos = pending ? Math.max(0, lastChange + quietNanos - System.nanoTime()) : quietNanos;
+                    WatchKey key = watchService.poll(Math.max(1, waitNanos), TimeUnit.NANOSECONDS);
+                    if (key != null) {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            // OVERFLOW (utracone zdarzenia) też traktujemy jako możliwą zmianę pliku
+                            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                                    || file.getFileName().equals(event.context())) {
+                                pending = true;
+                                lastChange = System.nanoTime();
+                            }
+                        }
+                        key.reset();
+                    }
+                    if (pending && System.nanoTime() - lastChange >= quietNanos) {
+                        pending = false;
+                        listener.accept(importDelta(file));
+                    }
+                }
+            } catch (ClosedWatchServiceException e) {
+                // close() - koniec obserwacji
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.mycompany.app.service;
+
+/**
+ * Klasa przechowująca podsumowanie importu przyrostowego (DeltaImportService).
+ */
+public class DeltaImportSummary {
+    private final int insertedCount;
+    private final int updatedCount;
+    private final int deletedCount;
+    private final int unchangedCount;
+    private final ImportSummary importSummary;
+
+    public DeltaImportSummary(int insertedCount, int updatedCount, int deletedCount, int unchangedCount,
+                              ImportSummary importSummary) {
+        this.insertedCount = insertedCount;
+        this.updatedCount = updatedCount;
+        this.deletedCount = deletedCount;
+        this.unchangedCount = unchangedCount;
+        this.importSummary = importSummary;
+    }
+
+    /**
+     * @return liczba nowych pracowników
+     */
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * @return liczba pracowników, których wiersz się zmienił
+     */
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    /**
+     * @return liczba pracowników usuniętych, bo ich wiersz zniknął z pliku
+     */
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * @return liczba wierszy bez zmian od poprzedniego importu (pominiętych bez parsowania)
+     */
+    public int getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    /**
+     * @return błędy wierszy; liczba zaimportowanych to nowi i zmienieni pracownicy
+     */
+    public ImportSummary getImportSummary() {
+        return importSummary;
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaImportSummary{" +
+                "insertedCount=" + insertedCount +
+                ", updatedCount=" + updatedCount +
+                ", deletedCount=" + deletedCount +
+                ", unchangedCount=" + unchangedCount +
+                ", errorCount=" + importSummary.getErrorCount() +
+                '}';
+    }
+}
@@ -0,0 +1,104 @@
+package com.mycompany.app.service;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Zdarzenie zmiany pracownika ze strumienia EmployeeEventBus.
+ *
+ * Niesie stan pracownika po zmianie (jak rekordy MutationJournal), więc konsument
+ * nie musi czytać obiektu Employee, który mógł się w międzyczasie zmienić.
+ *
+ * Obiekty są wielokrotnie używane przez szynę - są ważne tylko w trakcie wywołania
+ * EmployeeEventHandler.onEvents(); dane potrzebne później trzeba skopiować.
+ */
+public class EmployeeEvent {
+
+    public enum Type {
+        ADDED,
+        /** Zmiana imienia, firmy, stanowiska lub pensji */
+        UPDATED,
+        REMOVED
+    }
+
+    private long sequence;
+    private Type type;
+    private Employee employee;
+    private String email;
+    private String fullName;
+    private String companyName;
+    private Position position;
+    private double salary;
+
+    EmployeeEvent() {
+    }
+
+    void set(Type type, Employee employee) {
+        this.type = type;
+        this.employee = employee;
+        this.email = employee.getEmail();
+        this.fullName = employee.getFullName();
+        this.companyName = employee.getCompanyName();
+        this.position = employee.getPosition();
+        this.salary = employee.getSalary();
+    }
+
+    void copyFrom(EmployeeEvent other, long sequence) {
+        this.sequence = sequence;
+        this.type = other.type;
+        this.employee = other.employee;
+        this.email = other.email;
+        this.fullName = other.fullName;
+        this.companyName = other.companyName;
+        this.position = other.position;
+        this.salary = other.salary;
+    }
+
+    /**
+     * @return numer zdarzenia - kolejne zdarzenia mają kolejne numery, od 1
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public double getSalary() {
+        return salary;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", email='" + email + '\'' +
+                ", fullName='" + fullName + '\'' +
+                ", companyName='" + companyName + '\'' +
+                ", position=" + position +
+                ", salary=" + salary +
+                '}';
+    }
+}
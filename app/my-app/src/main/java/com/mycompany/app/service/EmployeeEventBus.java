@@ -0,0 +1,345 @@
+package com.mycompany.app.service;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.EmployeeChangeListener;
+import com.mycompany.app.model.Position;
+
+/**
+ * Strumień zdarzeń o dodaniu, zmianie i usunięciu pracowników (podpinany przez
+ * EmployeeService.attachEventBus).
+ *
+ * Zdarzenia trafiają do bufora cyklicznego z zaalokowanymi z góry slotami, więc publikacja
+ * nie alokuje: producent zajmuje numer (AtomicLong), kopiuje stan pracownika do slotu
+ * i oznacza slot jako opublikowany. Każda subskrypcja ma własny wątek, własny numer
+ * ostatnio przetworzonego zdarzenia i odbiera zdarzenia paczkami.
+ *
+ * Gdy konsument nie nadąża, decyduje OverflowPolicy:
+ * OVERWRITE - producent nie czeka, a konsument dostaje onEventsLost() i przeskakuje
+ * do najstarszego dostępnego zdarzenia; BLOCK - producent czeka na najwolniejszego konsumenta.
+ *
+ * Publikacja odbywa się pod monitorem pracownika (z settera), więc zdarzenia jednego
+ * pracownika mają numery w kolejności zmian.
+ */
+public class EmployeeEventBus implements EmployeeChangeListener, AutoCloseable {
+
+    /**
+     * Zachowanie, gdy bufor jest pełny, bo któryś konsument nie nadąża
+     */
+    public enum OverflowPolicy {
+        /** Najstarsze zdarzenia są nadpisywane; zmiany nigdy nie czekają na konsumentów */
+        OVERWRITE,
+        /**
+         * Zmiana czeka, aż najwolniejszy konsument zwolni slot. Konsument nie może wtedy
+         * wywoływać metod EmployeeService, które czekają na blokadę (np. statystyk
+         * w trakcie podwyżki grupowej) ani setterów - grozi zakleszczenie.
+         */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final EmployeeEvent[] slots;
+    // Numer zdarzenia zapisanego w slocie; -numer w trakcie zapisu, 0 - slot jeszcze pusty
+    private final AtomicLongArray published;
+    // Ostatni zajęty numer zdarzenia
+    private final AtomicLong cursor = new AtomicLong();
+    // Tablica kopiowana przy zapisie - przejście po niej przy publikacji nie alokuje
+    private volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+    // Ostatnio odczytane minimum numerów konsumentów - w trybie BLOCK liczone od nowa tylko przy braku miejsca
+    private volatile long gatingSequence;
+
+    public EmployeeEventBus() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.OVERWRITE);
+    }
+
+    /**
+     * @param capacity liczba slotów (zaokrąglana w górę do potęgi dwójki)
+     * @param policy zachowanie, gdy konsument nie nadąża
+     */
+    public EmployeeEventBus(int capacity, OverflowPolicy policy) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Nieprawidłowy rozmiar bufora: " + capacity);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.policy = policy;
+        this.slots = new EmployeeEvent[this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            slots[i] = new EmployeeEvent();
+        }
+        this.published = new AtomicLongArray(this.capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return numer ostatniego zajętego zdarzenia (0, jeśli nic nie opublikowano)
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Subskrybuje zdarzenia publikowane od tej chwili
+     * @see #subscribe(String, EmployeeEventHandler, int, long)
+     */
+    public Subscription subscribe(String name, EmployeeEventHandler handler) {
+        return subscribe(name, handler, DEFAULT_BATCH_SIZE, cursor.get() + 1);
+    }
+
+    /**
+     * Subskrybuje zdarzenia od podanego numeru - np. od numeru zapamiętanego przez konsumenta
+     * przed restartem. Zdarzenia, które zostały już nadpisane, są zgłaszane przez onEventsLost().
+     *
+     * @param name nazwa wątku konsumenta
+     * @param handler konsument
+     * @param batchSize maksymalna liczba zdarzeń w jednym wywołaniu onEvents()
+     * @param fromSequence numer pierwszego zdarzenia do odebrania (od 1)
+     * @return subskrypcja - close() zatrzymuje wątek konsumenta
+     */
+    public synchronized Subscription subscribe(String name, EmployeeEventHandler handler,
+                                               int batchSize, long fromSequence) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Rozmiar paczki musi być dodatni: " + batchSize);
+        }
+        Subscription subscription = new Subscription(handler, batchSize, Math.max(1, fromSequence));
+        Subscription[] current = subscriptions;
+        Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = subscription;
+        subscriptions = updated;
+        gatingSequence = Math.min(gatingSequence, subscription.sequence);
+
+        Thread thread = new Thread(subscription::run, name);
+        thread.setDaemon(true);
+        subscription.thread = thread;
+        thread.start();
+        return subscription;
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] updated = new Subscription[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                subscriptions = updated;
+                return;
+            }
+        }
+    }
+
+    void employeeAdded(Employee employee) {
+        publish(EmployeeEvent.Type.ADDED, employee);
+    }
+
+    void employeeRemoved(Employee employee) {
+        publish(EmployeeEvent.Type.REMOVED, employee);
+    }
+
+    @Override
+    public void nameChanged(Employee employee, String oldFullName) {
+        publish(EmployeeEvent.Type.UPDATED, employee);
+    }
+
+    @Override
+    public void companyChanged(Employee employee, String oldCompanyName) {
+        publish(EmployeeEvent.Type.UPDATED, employee);
+    }
+
+    @Override
+    public void positionChanged(Employee employee, Position oldPosition, double oldSalary) {
+        publish(EmployeeEvent.Type.UPDATED, employee);
+    }
+
+    @Override
+    public void salaryChanged(Employee employee, double oldSalary) {
+        publish(EmployeeEvent.Type.UPDATED, employee);
+    }
+
+    private void publish(EmployeeEvent.Type type, Employee employee) {
+        long sequence = cursor.incrementAndGet();
+        long wrapPoint = sequence - capacity;
+        if (policy == OverflowPolicy.BLOCK && wrapPoint > gatingSequence) {
+            awaitConsumers(wrapPoint);
+        }
+        int index = (int) (sequence - 1) & mask;
+        // Poprzedni zapis tego slotu (numer o capacity mniejszy) musi się zakończyć
+        long previous = Math.max(wrapPoint, 0);
+        int spins = 0;
+        while (published.get(index) != previous) {
+            spins = idle(spins);
+        }
+        published.set(index, -sequence);
+        VarHandle.storeStoreFence(); // Pola slotu nie mogą zostać zapisane przed oznaczeniem zapisu
+        slots[index].set(type, employee);
+        published.set(index, sequence);
+    }
+
+    private void awaitConsumers(long wrapPoint) {
+        int spins = 0;
+        while (true) {
+            long minimum = Long.MAX_VALUE;
+            for (Subscription subscription : subscriptions) {
+                minimum = Math.min(minimum, subscription.sequence);
+            }
+            if (minimum == Long.MAX_VALUE) {
+                minimum = wrapPoint; // Brak konsumentów - nie ma na kogo czekać
+            }
+            gatingSequence = minimum;
+            if (wrapPoint <= minimum) {
+                return;
+            }
+            spins = idle(spins);
+        }
+    }
+
+    private static int idle(int spins) {
+        if (spins < SPINS_BEFORE_PARK) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return spins;
+    }
+
+    /**
+     * Zatrzymuje wszystkie subskrypcje
+     */
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Subskrypcja jednego konsumenta - własny wątek i własny numer zdarzenia
+     */
+    public final class Subscription implements AutoCloseable {
+        private final EmployeeEventHandler handler;
+        private final EmployeeEvent[] batch;
+        // Numer ostatniego przetworzonego zdarzenia
+        private volatile long sequence;
+        private final AtomicLong lostEvents = new AtomicLong();
+        private volatile boolean running = true;
+        private volatile RuntimeException failure;
+        private Thread thread;
+
+        private Subscription(EmployeeEventHandler handler, int batchSize, long fromSequence) {
+            this.handler = handler;
+            this.batch = new EmployeeEvent[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                batch[i] = new EmployeeEvent();
+            }
+            this.sequence = fromSequence - 1;
+        }
+
+        /**
+         * @return numer ostatniego przetworzonego zdarzenia - do zapamiętania i wznowienia subskrypcji
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * @return łączna liczba zdarzeń nadpisanych, zanim konsument je odebrał
+         */
+        public long getLostEvents() {
+            return lostEvents.get();
+        }
+
+        /**
+         * @return wyjątek rzucony przez konsumenta (subskrypcja jest wtedy zatrzymana) lub null
+         */
+        public RuntimeException getFailure() {
+            return failure;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        private void run() {
+            long next = sequence + 1;
+            int spins = 0;
+            try {
+                while (running) {
+                    int count = 0;
+                    boolean lapped = false;
+                    while (count < batch.length) {
+                        int index = (int) (next - 1) & mask;
+                        long state = published.get(index);
+                        if (state == next) {
+                            batch[count].copyFrom(slots[index], next);
+                            VarHandle.loadLoadFence(); // Ponowny odczyt stanu po skopiowaniu pól
+                            if (published.get(index) == next) {
+                                count++;
+                                next++;
+                                continue;
+                            }
+                            lapped = true;
+                        } else {
+                            // Slot zawiera (lub zapisuje) późniejsze zdarzenie - nasze zostało nadpisane
+                            lapped = Math.abs(state) > next;
+                        }
+                        break;
+                    }
+
+                    if (count > 0) {
+                        handler.onEvents(batch, count);
+                        sequence = next - 1;
+                        spins = 0;
+                    }
+                    if (lapped) {
+                        long oldest = Math.max(next + 1, cursor.get() - capacity + 1);
+                        lostEvents.addAndGet(oldest - next);
+                        handler.onEventsLost(next, oldest - next);
+                        next = oldest;
+                        sequence = next - 1;
+                    } else if (count == 0) {
+                        spins = idle(spins);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+                running = false;
+            } finally {
+                unsubscribe(this);
+            }
+        }
+
+        /**
+         * Zatrzymuje konsumenta i czeka na zakończenie bieżącej paczki
+         */
+        @Override
+        public void close() {
+            running = false;
+            Thread current = thread;
+            if (current != null && current != Thread.currentThread()) {
+                LockSupport.unpark(current);
+                try {
+                    current.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mycompany.app.service;
+
+/**
+ * Konsument zdarzeń z EmployeeEventBus. Wywoływany na wątku swojej subskrypcji.
+ */
+@FunctionalInterface
+public interface EmployeeEventHandler {
+
+    /**
+     * Odbiera paczkę kolejnych zdarzeń
+     * @param events tablica zdarzeń - ważne są pozycje od 0 do count - 1, tylko w trakcie wywołania
+     * @param count liczba zdarzeń w paczce (co najmniej 1)
+     */
+    void onEvents(EmployeeEvent[] events, int count);
+
+    /**
+     * Wywoływane w trybie OVERWRITE, gdy konsument nie nadążył i zdarzenia zostały nadpisane.
+     * Konsument, który utrzymuje kopię danych, powinien ją wtedy odbudować (np. z getAllEmployees()).
+     *
+     * @param fromSequence numer pierwszego utraconego zdarzenia
+     * @param count liczba utraconych zdarzeń
+     */
+    default void onEventsLost(long fromSequence, long count) {
+    }
+}
@@ -1,22 +1,67 @@
 package com.mycompany.app.service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import com.mycompany.app.metrics.Metrics;
+import com.mycompany.app.metrics.Timer;
 import com.mycompany.app.model.Employee;
 import com.mycompany.app.model.Position;
 import com.mycompany.app.model.CompanyStatistics;
+import com.mycompany.app.query.EmployeeQuery;
+import com.mycompany.app.query.QueryEngine;
+import com.mycompany.app.query.QueryResult;
+import com.mycompany.app.store.EmployeeColumns;
+import com.mycompany.app.store.EmployeePage;
+import com.mycompany.app.store.EmployeeStore;
+import com.mycompany.app.store.GroupStatistics;
+import com.mycompany.app.store.SalaryRanking;
+import com.mycompany.app.store.SalarySketch;
 
 /**
  * Serwis zawierający logikę biznesową zarządzania pracownikami.
  * Wykorzystuje Stream API do operacji analitycznych.
+ * Jest bezpieczny wątkowo - import i zapytania mogą działać jednocześnie.
+ *
+ * Zapytania statystyczne biorą blokadę odczytu, a operacje grupowe (podwyżki, awanse) -
+ * blokadę zapisu, więc statystyki widzą stan sprzed albo po całej operacji, nigdy w połowie.
+ * Pojedyncze dodania, usunięcia i settery nie biorą żadnej blokady.
  */
 public class EmployeeService {
-    // HashSet zapewnia unikalność emaili (wykorzystuje equals/hashCode)
-    private final Set<Employee> employees;
+    // Magazyn kluczowany emailem (zapewnia unikalność) z indeksami po firmie i stanowisku
+    private final EmployeeStore store;
+    private final Collection<Employee> employees;
+    private final Metrics metrics = Metrics.global();
+    // Odczyt: zapytania statystyczne; zapis: operacje grupowe
+    private final ReadWriteLock bulkLock = new ReentrantReadWriteLock();
+    // Opcjonalny dziennik zmian - null, dopóki nie zostanie podpięty
+    private volatile MutationJournal journal;
+    // Opcjonalny strumień zdarzeń - null, dopóki nie zostanie podpięty
+    private volatile EmployeeEventBus eventBus;
+    // Ostatnia migawka kolumnowa i wersja magazynu, z której powstała
+    private volatile ColumnarSnapshot columnarSnapshot;
+    private final QueryEngine queryEngine;
 
     public EmployeeService() {
-        this.employees = new HashSet<>();
+        this(SalarySketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param sketchAccuracy błąd względny percentyli pensji (np. 0.01 = 1%) - mniejszy błąd
+     *                       to więcej pamięci na każdą firmę i stanowisko
+     */
+    public EmployeeService(double sketchAccuracy) {
+        this.store = new EmployeeStore(sketchAccuracy);
+        this.employees = store.all();
+        this.queryEngine = new QueryEngine(store);
     }
 
     /**
@@ -25,9 +70,164 @@ public class EmployeeService {
      * @return true jeśli dodano, false jeśli email już istnieje
      */
     public boolean addEmployee(Employee employee) {
-        // HashSet.add() zwraca false jeśli element już istnieje
-        // Sprawdza to używając equals() - w naszym przypadku po emailu
-        return employees.add(employee);
+        MutationJournal currentJournal = journal;
+        EmployeeEventBus currentBus = eventBus;
+        if (currentJournal == null && currentBus == null) {
+            // putIfAbsent() w ConcurrentHashMap - bez globalnej blokady
+            return store.add(employee);
+        }
+        long sequence = addTracked(employee, currentJournal, currentBus);
+        if (sequence < 0) {
+            return false;
+        }
+        if (currentJournal != null) {
+            currentJournal.awaitDurable(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * Dodaje paczkę pracowników (np. z importu) z walidacją unikalności emaila
+     * @param batch pracownicy do dodania
+     * @return tablica wyników - true na pozycji i, jeśli dodano i-tego pracownika
+     */
+    public boolean[] addEmployees(List<Employee> batch) {
+        boolean[] added = new boolean[batch.size()];
+        MutationJournal currentJournal = journal;
+        EmployeeEventBus currentBus = eventBus;
+        long lastSequence = 0;
+        for (int i = 0; i < added.length; i++) {
+            if (currentJournal == null && currentBus == null) {
+                added[i] = store.add(batch.get(i));
+            } else {
+                long sequence = addTracked(batch.get(i), currentJournal, currentBus);
+                added[i] = sequence >= 0;
+                lastSequence = Math.max(lastSequence, sequence);
+            }
+        }
+        if (currentJournal != null) {
+            currentJournal.awaitDurable(lastSequence); // Jedno czekanie na całą paczkę
+        }
+        return added;
+    }
+
+    /**
+     * Podpina dziennik zmian: każde kolejne dodanie pracownika i każda zmiana przez setter
+     * jest w nim zapisywana. Dotychczasowi pracownicy też zaczynają być śledzeni.
+     * Dziennik należy podpiąć po odtworzeniu migawki i dziennika, przed dalszymi zmianami.
+     *
+     * @param journal otwarty dziennik
+     */
+    public void attachJournal(MutationJournal journal) {
+        this.journal = journal;
+        for (Employee employee : employees) {
+            synchronized (employee) {
+                employee.addChangeListener(journal);
+            }
+        }
+    }
+
+    /**
+     * Podpina strumień zdarzeń: każde kolejne dodanie, zmiana przez setter i usunięcie
+     * pracownika jest publikowane w szynie. Dotychczasowi pracownicy nie generują zdarzeń ADDED,
+     * ale ich późniejsze zmiany tak - konsument powinien zacząć od getAllEmployees().
+     *
+     * @param eventBus szyna zdarzeń
+     */
+    public void attachEventBus(EmployeeEventBus eventBus) {
+        this.eventBus = eventBus;
+        for (Employee employee : employees) {
+            synchronized (employee) {
+                employee.addChangeListener(eventBus);
+            }
+        }
+    }
+
+    /**
+     * Usuwa pracownika (razem z indeksami i agregatami)
+     * @param email email pracownika
+     * @return true jeśli usunięto, false jeśli pracownika nie ma
+     */
+    public boolean removeEmployee(String email) {
+        Employee employee = store.get(email);
+        if (employee == null) {
+            return false;
+        }
+        MutationJournal currentJournal = journal;
+        EmployeeEventBus currentBus = eventBus;
+        long sequence;
+        // Usunięcie, zapis w dzienniku i zdarzenie pod monitorem - setter nie wejdzie pomiędzy
+        synchronized (employee) {
+            if (!store.remove(employee)) {
+                return false;
+            }
+            sequence = 0;
+            if (currentJournal != null) {
+                employee.removeChangeListener(currentJournal);
+                sequence = currentJournal.employeeRemoved(employee);
+            }
+            if (currentBus != null) {
+                employee.removeChangeListener(currentBus);
+                currentBus.employeeRemoved(employee);
+            }
+        }
+        if (currentJournal != null) {
+            currentJournal.awaitDurable(sequence);
+        }
+        return true;
+    }
+
+    // Dodanie, zapis w dzienniku i zdarzenie pod monitorem pracownika - setter nie wejdzie pomiędzy.
+    // Zwraca numer rekordu dziennika (0 bez dziennika) lub -1, jeśli email już istnieje
+    private long addTracked(Employee employee, MutationJournal currentJournal, EmployeeEventBus currentBus) {
+        synchronized (employee) {
+            if (!store.add(employee)) {
+                return -1;
+            }
+            long sequence = 0;
+            if (currentJournal != null) {
+                sequence = currentJournal.employeeAdded(employee);
+                employee.addChangeListener(currentJournal);
+            }
+            if (currentBus != null) {
+                currentBus.employeeAdded(employee);
+                employee.addChangeListener(currentBus);
+            }
+            return sequence;
+        }
+    }
+
+    /**
+     * Zwraca pracownika o podanym emailu
+     * @param email email pracownika
+     * @return Optional z pracownikiem lub pusty Optional
+     */
+    public Optional<Employee> findEmployeeByEmail(String email) {
+        return Optional.ofNullable(store.get(email));
+    }
+
+    /**
+     * Wyszukiwanie "w trakcie pisania": pracownicy, których imię, nazwisko lub email
+     * zaczyna się od podanego tekstu (bez rozróżniania wielkości liter) - O(log n + limit)
+     *
+     * @param prefix początek imienia, nazwiska lub emaila
+     * @param limit maksymalna liczba wyników
+     * @return pasujący pracownicy
+     */
+    public List<Employee> searchByPrefix(String prefix, int limit) {
+        return readLocked("searchByPrefix", () -> store.searchIndex().searchByPrefix(prefix, limit));
+    }
+
+    /**
+     * Pracownicy, których imię i nazwisko lub email zawiera podany fragment
+     * (bez rozróżniania wielkości liter). Kandydatów wskazuje indeks trigramów.
+     *
+     * @param fragment szukany fragment
+     * @param limit maksymalna liczba wyników
+     * @return pasujący pracownicy
+     */
+    public List<Employee> searchContaining(String fragment, int limit) {
+        return readLocked("searchContaining", () -> store.searchIndex().searchContaining(fragment, limit));
     }
 
     /**
@@ -38,29 +238,84 @@ public class EmployeeService {
         return new ArrayList<>(employees);
     }
 
+    /**
+     * Widok (tylko do odczytu) na wszystkich pracowników - bez kopiowania, dla serwisów pakietu
+     */
+    Collection<Employee> employeeView() {
+        return employees;
+    }
+
     /**
      * Wyszukuje pracowników z konkretnej firmy
-     * Wykorzystuje Stream API do filtrowania
+     * Korzysta z indeksu po firmie - koszt zależy od rozmiaru wyniku
      * 
      * @param companyName nazwa firmy
      * @return lista pracowników z danej firmy
      */
     public List<Employee> findEmployeesByCompany(String companyName) {
-        return employees.stream() // Tworzy strumień z kolekcji
-                .filter(emp -> emp.getCompanyName().equals(companyName)) // Filtruje po nazwie firmy
-                .collect(Collectors.toList()); // Zbiera wyniki do listy
+        return store.copyOfCompany(companyName);
+    }
+
+    /**
+     * Strona pracowników firmy w kolejności emaili - O(log n + limit)
+     *
+     * @param companyName nazwa firmy
+     * @param afterEmail email ostatniego pracownika poprzedniej strony (getNextCursor())
+     *                   lub null dla pierwszej strony
+     * @param limit rozmiar strony
+     * @return strona z kursorem do następnej
+     */
+    public EmployeePage findEmployeesByCompany(String companyName, String afterEmail, int limit) {
+        return readLocked("findEmployeesByCompany",
+                () -> store.orderIndex().pageByCompany(companyName, afterEmail, limit));
     }
 
     /**
      * Sortuje pracowników alfabetycznie według nazwiska
-     * Wykorzystuje Comparator do definiowania porządku sortowania
+     * Korzysta z indeksu posortowanego po nazwisku - kopia kosztuje O(n), bez sortowania
      * 
      * @return posortowana lista pracowników
      */
     public List<Employee> getEmployeesSortedByLastName() {
-        return employees.stream()
-                .sorted(Comparator.comparing(Employee::getLastName)) // Sortuje po nazwisku
-                .collect(Collectors.toList());
+        // Indeks jest już posortowany po nazwisku (przy równych - po emailu), więc wystarczy kopia
+        return new ArrayList<>(store.orderIndex().byLastName(null));
+    }
+
+    /**
+     * Strona pracowników posortowanych po nazwisku (przy równych nazwiskach - po emailu).
+     * Koszt to O(log n + limit) - bez kopiowania i sortowania wszystkich pracowników.
+     *
+     * @param afterCursor getNextCursor() z poprzedniej strony, samo nazwisko (strona zaczyna się
+     *                    od następnego nazwiska) lub null dla pierwszej strony
+     * @param limit rozmiar strony
+     * @return strona z kursorem do następnej
+     */
+    public EmployeePage getEmployeesSortedByLastName(String afterCursor, int limit) {
+        return readLocked("getEmployeesSortedByLastName", () -> store.orderIndex().pageByLastName(afterCursor, limit));
+    }
+
+    /**
+     * Leniwy widok pracowników posortowanych po nazwisku - kolejni pracownicy są czytani
+     * z indeksu dopiero przy przeglądaniu (np. stream().limit(50)).
+     * Widok jest słabo spójny i nie trzyma blokady serwisu.
+     *
+     * @param afterCursor jak w getEmployeesSortedByLastName(String, int); null - od początku
+     * @return widok tylko do odczytu
+     */
+    public Collection<Employee> employeesSortedByLastName(String afterCursor) {
+        return store.orderIndex().byLastName(afterCursor);
+    }
+
+    /**
+     * Strona wszystkich pracowników w kolejności emaili - O(log n + limit)
+     *
+     * @param afterEmail email ostatniego pracownika poprzedniej strony (getNextCursor())
+     *                   lub null dla pierwszej strony
+     * @param limit rozmiar strony
+     * @return strona z kursorem do następnej
+     */
+    public EmployeePage getEmployeesPage(String afterEmail, int limit) {
+        return readLocked("getEmployeesPage", () -> store.orderIndex().pageByEmail(afterEmail, limit));
     }
 
     /**
@@ -70,34 +325,45 @@ public class EmployeeService {
      * @return mapa: stanowisko -> lista pracowników na tym stanowisku
      */
     public Map<Position, List<Employee>> groupEmployeesByPosition() {
-        return employees.stream()
-                .collect(Collectors.groupingBy(Employee::getPosition)); // Grupuje po stanowisku
+        return readLocked("groupEmployeesByPosition", () -> {
+            Map<Position, List<Employee>> result = new EnumMap<>(Position.class);
+            for (Position position : Position.values()) {
+                Set<Employee> group = store.byPosition(position); // Gotowa grupa z indeksu
+                if (!group.isEmpty()) {
+                    result.put(position, new ArrayList<>(group));
+                }
+            }
+            return result;
+        });
     }
 
     /**
      * Zlicza liczbę pracowników na każdym stanowisku
-     * Zwraca Map<Position, Long>
+     * Zwraca Map<Position, Long> - odczyt z agregatów, O(liczba stanowisk)
      * 
      * @return mapa: stanowisko -> liczba pracowników
      */
     public Map<Position, Long> countEmployeesByPosition() {
-        return employees.stream()
-                .collect(Collectors.groupingBy(
-                    Employee::getPosition,    // Grupuje po stanowisku
-                    Collectors.counting()     // Zlicza elementy w każdej grupie
-                ));
+        return readLocked("countEmployeesByPosition", () -> {
+            Map<Position, Long> result = new EnumMap<>(Position.class);
+            for (Position position : Position.values()) {
+                long count = store.positionStatistics(position).getCount();
+                if (count > 0) {
+                    result.put(position, count);
+                }
+            }
+            return result;
+        });
     }
 
     /**
      * Oblicza średnie wynagrodzenie wszystkich pracowników
+     * Korzysta z bieżącej sumy i liczby pracowników - bez skanowania
      * 
      * @return średnia pensja lub 0.0 jeśli brak pracowników
      */
     public double calculateAverageSalary() {
-        return employees.stream()
-                .mapToDouble(Employee::getSalary)  // Mapuje do strumienia liczb double
-                .average()                          // Oblicza średnią
-                .orElse(0.0);                      // Wartość domyślna jeśli pusty strumień
+        return readLocked("calculateAverageSalary", () -> store.totalStatistics().getAverageSalary());
     }
 
     /**
@@ -107,51 +373,325 @@ public class EmployeeService {
      * @return Optional z pracownikiem lub pusty Optional
      */
     public Optional<Employee> findHighestPaidEmployee() {
-        return employees.stream()
-                .max(Comparator.comparingDouble(Employee::getSalary)); // Znajduje max po pensji
+        return readLocked("findHighestPaidEmployee", () -> Optional.ofNullable(store.totalStatistics().getHighestPaid()));
+    }
+
+    /**
+     * Zwraca k najlepiej zarabiających pracowników - kopiec ograniczony do k, O(n log k)
+     * @param k maksymalna liczba wyników
+     * @return lista od najwyższej pensji
+     */
+    public List<Employee> findHighestPaidEmployees(int k) {
+        return readLocked("findHighestPaidEmployees", () -> SalaryRanking.highest(employees, k));
+    }
+
+    /**
+     * Zwraca k najlepiej zarabiających pracowników firmy (przeszukuje tylko indeks firmy)
+     */
+    public List<Employee> findHighestPaidEmployees(String companyName, int k) {
+        return readLocked("findHighestPaidEmployees", () -> SalaryRanking.highest(store.byCompany(companyName), k));
+    }
+
+    /**
+     * Zwraca k najlepiej zarabiających pracowników na stanowisku (przeszukuje tylko indeks stanowiska)
+     */
+    public List<Employee> findHighestPaidEmployees(Position position, int k) {
+        return readLocked("findHighestPaidEmployees", () -> SalaryRanking.highest(store.byPosition(position), k));
+    }
+
+    /**
+     * Zwraca k najgorzej zarabiających pracowników - kopiec ograniczony do k, O(n log k)
+     * @param k maksymalna liczba wyników
+     * @return lista od najniższej pensji
+     */
+    public List<Employee> findLowestPaidEmployees(int k) {
+        return readLocked("findLowestPaidEmployees", () -> SalaryRanking.lowest(employees, k));
+    }
+
+    /**
+     * Zwraca k najgorzej zarabiających pracowników firmy
+     */
+    public List<Employee> findLowestPaidEmployees(String companyName, int k) {
+        return readLocked("findLowestPaidEmployees", () -> SalaryRanking.lowest(store.byCompany(companyName), k));
+    }
+
+    /**
+     * Zwraca k najgorzej zarabiających pracowników na stanowisku
+     */
+    public List<Employee> findLowestPaidEmployees(Position position, int k) {
+        return readLocked("findLowestPaidEmployees", () -> SalaryRanking.lowest(store.byPosition(position), k));
     }
 
     /**
      * Zwraca liczbę wszystkich pracowników
      */
     public int getEmployeeCount() {
-        return employees.size();
+        return store.size();
     }
 
     /**
      * Zwraca listę pracowników z wynagrodzeniem niższym niż bazowa stawka ich stanowiska.
+     * Sprawdzenie to pętla po kolumnach pensji i stanowisk utrzymywanych przez magazyn
+     * przy każdej zmianie - bez budowania ani kopiowania migawki.
      *
      * @return Lista pracowników z niespójnością wynagrodzenia.
      */
     public List<Employee> validateSalaryConsistency() {
-        return employees.stream()
-                .filter(employee -> employee.getSalary() < employee.getPosition().getBaseSalary())
-                .collect(Collectors.toList());
+        return readLocked("validateSalaryConsistency", () -> store.belowBaseSalary());
+    }
+
+    /**
+     * Zwraca kolumnową migawkę pracowników do zapytań analitycznych.
+     * Migawka to kopia kolumn utrzymywanych na bieżąco, używana ponownie, dopóki nic się nie zmieni.
+     *
+     * @return aktualna migawka kolumnowa
+     */
+    public EmployeeColumns getColumnarSnapshot() {
+        return readLocked("getColumnarSnapshot", () -> {
+            ColumnarSnapshot snapshot = columnarSnapshot;
+            long version = store.version();
+            if (snapshot == null || snapshot.version != version) {
+                // Wersję czytamy przed kopią - zmiana w trakcie wymusi kolejną kopię
+                snapshot = new ColumnarSnapshot(version, store.columns());
+                columnarSnapshot = snapshot;
+            }
+            return snapshot.columns;
+        });
     }
 
     /**
      * Zwraca mapę, gdzie kluczem jest nazwa firmy, a wartością obiekt CompanyStatistics.
+     * Statystyki pochodzą z agregatów utrzymywanych przy każdej zmianie - O(liczba firm).
      *
      * @return Mapa statystyk firmowych.
      */
     public Map<String, CompanyStatistics> getCompanyStatistics() {
-        return employees.stream()
-                .collect(Collectors.groupingBy(Employee::getCompanyName,
-                        Collectors.collectingAndThen(Collectors.toList(), employeeList -> {
-                            double averageSalary = employeeList.stream()
-                                    .mapToDouble(Employee::getSalary)
-                                    .average()
-                                    .orElse(0.0);
-
-                            Employee highestPaid = employeeList.stream()
-                                    .max(Comparator.comparingDouble(Employee::getSalary))
-                                    .orElse(null);
-
-                            return new CompanyStatistics(
-                                    employeeList.size(),
-                                    averageSalary,
-                                    highestPaid != null ? highestPaid.getFullName() : "N/A"
-                            );
-                        })));
-    }
-}
\ No newline at end of file
+        return readLocked("getCompanyStatistics", () -> toCompanyStatistics(store.allCompanyStatistics()));
+    }
+
+    /**
+     * Surowe agregaty firm (do scalania wyników częściowych między shardami)
+     */
+    Map<String, GroupStatistics> companyGroupStatistics() {
+        return readLocked("getCompanyStatistics", store::allCompanyStatistics);
+    }
+
+    /**
+     * Surowe agregaty wszystkich pracowników (do scalania wyników częściowych między shardami)
+     */
+    GroupStatistics totalGroupStatistics() {
+        return readLocked("calculateAverageSalary", store::totalStatistics);
+    }
+
+    static Map<String, CompanyStatistics> toCompanyStatistics(Map<String, GroupStatistics> groups) {
+        Map<String, CompanyStatistics> result = new HashMap<>();
+        groups.forEach((companyName, statistics) -> {
+            Employee highestPaid = statistics.getHighestPaid();
+            result.put(companyName, new CompanyStatistics(
+                    (int) statistics.getCount(),
+                    statistics.getAverageSalary(),
+                    highestPaid != null ? highestPaid.getFullName() : "N/A"
+            ));
+        });
+        return result;
+    }
+
+    /**
+     * Rozkład pensji wszystkich pracowników do percentyli (quantile) i histogramów.
+     * Szkice są utrzymywane przy każdej zmianie, więc raport nie sortuje pracowników.
+     *
+     * @return kopia szkicu - późniejsze zmiany nie są w niej widoczne
+     */
+    public SalarySketch getSalaryDistribution() {
+        return readLocked("getSalaryDistribution", store::totalSalaryDistribution);
+    }
+
+    /**
+     * Rozkład pensji w firmie
+     * @param companyName nazwa firmy
+     * @return kopia szkicu (pusty, gdy firma nie ma pracowników)
+     */
+    public SalarySketch getCompanySalaryDistribution(String companyName) {
+        return readLocked("getSalaryDistribution", () -> store.companySalaryDistribution(companyName));
+    }
+
+    /**
+     * Rozkład pensji na stanowisku
+     * @param position stanowisko
+     * @return kopia szkicu
+     */
+    public SalarySketch getPositionSalaryDistribution(Position position) {
+        return readLocked("getSalaryDistribution", () -> store.positionSalaryDistribution(position));
+    }
+
+    /**
+     * Wykonuje zapytanie analityczne (filtry, grupowanie, agregaty) w jednym przebiegu.
+     * Filtr firmy lub stanowiska zawęża przebieg do odpowiedniego indeksu.
+     *
+     * @param query opis zapytania
+     * @return agregaty dla grup i dla wszystkich pasujących pracowników
+     */
+    public QueryResult query(EmployeeQuery query) {
+        return readLocked("query", () -> queryEngine.execute(query));
+    }
+
+    /**
+     * Leniwy strumień pracowników pasujących do zapytania - bez kopiowania do listy,
+     * więc nadaje się do przeglądania milionów pracowników (np. eksportu).
+     * Strumień nie trzyma blokady serwisu: jest słabo spójny, a zmiany wprowadzone
+     * w trakcie przeglądania mogą, ale nie muszą być widoczne.
+     *
+     * @param query filtry (grupowanie jest pomijane)
+     * @return strumień pasujących pracowników
+     */
+    public Stream<Employee> streamEmployees(EmployeeQuery query) {
+        return queryEngine.stream(query);
+    }
+
+    /**
+     * Podnosi pensje o podany procent pracownikom firmy na danym stanowisku.
+     * Przeszukiwany jest tylko mniejszy z dwóch indeksów (firma lub stanowisko).
+     *
+     * @param companyName nazwa firmy lub null (wszystkie firmy)
+     * @param position stanowisko lub null (wszystkie stanowiska)
+     * @param percent procent podwyżki (ujemny oznacza obniżkę), skończony i nie mniejszy niż -100
+     * @return podsumowanie: dopasowani, zmienieni, łączna zmiana sumy pensji
+     * @throws IllegalArgumentException dla niepoprawnego procentu lub gdy któraś nowa pensja
+     *                                  nie byłaby skończona - wtedy żaden pracownik nie jest zmieniany
+     */
+    public BulkUpdateSummary raiseSalaries(String companyName, Position position, double percent) {
+        Collection<Employee> candidates = candidates(companyName, position);
+        return raiseSalaries(candidates, employee -> (companyName == null || companyName.equals(employee.getCompanyName()))
+                && (position == null || position == employee.getPosition()), percent);
+    }
+
+    /**
+     * Podnosi pensje o podany procent wszystkim pracownikom spełniającym warunek
+     *
+     * @param filter warunek wyboru pracowników
+     * @param percent procent podwyżki (ujemny oznacza obniżkę), skończony i nie mniejszy niż -100
+     * @return podsumowanie: dopasowani, zmienieni, łączna zmiana sumy pensji
+     * @throws IllegalArgumentException jak w raiseSalaries(String, Position, double)
+     */
+    public BulkUpdateSummary raiseSalaries(Predicate<Employee> filter, double percent) {
+        return raiseSalaries(employees, filter, percent);
+    }
+
+    /**
+     * Przenosi na nowe stanowisko wszystkich pracowników spełniających warunek.
+     * Jak przy setPosition() pensja zmienia się na stawkę bazową nowego stanowiska.
+     *
+     * @param filter warunek wyboru pracowników
+     * @param newPosition nowe stanowisko
+     * @return podsumowanie: dopasowani, zmienieni, łączna zmiana sumy pensji
+     */
+    public BulkUpdateSummary promote(Predicate<Employee> filter, Position newPosition) {
+        return bulkUpdate(employees, filter, employee -> true, employee -> employee.setPosition(newPosition));
+    }
+
+    private BulkUpdateSummary raiseSalaries(Collection<Employee> candidates, Predicate<Employee> filter, double percent) {
+        if (!Double.isFinite(percent) || percent < -100) {
+            throw new IllegalArgumentException("Procent podwyżki musi być liczbą skończoną nie mniejszą niż -100: "
+                    + percent);
+        }
+        double factor = 1.0 + percent / 100.0;
+        // Pensja zmieniona przez równoległy setter po sprawdzeniu, której nie da się podnieść, zostaje bez zmian
+        return bulkUpdate(candidates, filter, employee -> Double.isFinite(employee.getSalary() * factor), employee -> {
+            double raised = employee.getSalary() * factor;
+            if (Double.isFinite(raised)) {
+                employee.setSalary(raised);
+            }
+        });
+    }
+
+    /**
+     * Wspólny szkielet operacji grupowych: blokada zapisu (statystyki czekają na koniec),
+     * sprawdzenie wszystkich dopasowanych pracowników przed pierwszą zmianą, a potem
+     * równoległe przetwarzanie kandydatów i zmiana każdego pracownika pod jego monitorem,
+     * żeby równoległy setter nie nadpisał wyniku w połowie odczyt-zmiana-zapis.
+     * Na fsync dziennika czekamy raz, już po zdjęciu blokady.
+     *
+     * @param allowed czy zmiana pracownika da poprawny wynik; jeden odrzucony odrzuca całą operację
+     */
+    private BulkUpdateSummary bulkUpdate(Collection<Employee> candidates, Predicate<Employee> filter,
+                                         Predicate<Employee> allowed, Consumer<Employee> update) {
+        LongAdder matched = new LongAdder();
+        LongAdder updated = new LongAdder();
+        DoubleAdder salaryDelta = new DoubleAdder();
+        LongAccumulator lastSequence = new LongAccumulator(Math::max, 0);
+        MutationJournal currentJournal = journal;
+        Timer start = metrics.startTimer();
+        bulkLock.writeLock().lock();
+        try {
+            Employee rejected = candidates.parallelStream().filter(employee -> {
+                synchronized (employee) {
+                    return filter.test(employee) && !allowed.test(employee);
+                }
+            }).findAny().orElse(null);
+            if (rejected != null) {
+                throw new IllegalArgumentException("Operacja grupowa odrzucona - niepoprawna pensja po zmianie dla "
+                        + rejected.getEmail());
+            }
+            candidates.parallelStream().forEach(employee -> {
+                synchronized (employee) {
+                    if (!filter.test(employee)) {
+                        return;
+                    }
+                    matched.increment();
+                    Position oldPosition = employee.getPosition();
+                    double oldSalary = employee.getSalary();
+                    if (currentJournal != null) {
+                        lastSequence.accumulate(currentJournal.awaitLater(() -> update.accept(employee)));
+                    } else {
+                        update.accept(employee);
+                    }
+                    if (employee.getPosition() != oldPosition || employee.getSalary() != oldSalary) {
+                        updated.increment();
+                        salaryDelta.add(employee.getSalary() - oldSalary);
+                    }
+                }
+            });
+        } finally {
+            bulkLock.writeLock().unlock();
+            metrics.recordQuery("bulkUpdate", start);
+        }
+        if (currentJournal != null) {
+            currentJournal.awaitDurable(lastSequence.get());
+        }
+        return new BulkUpdateSummary(matched.sum(), updated.sum(), salaryDelta.sum());
+    }
+
+    // Kopia mniejszego z indeksów - awans zmienia przynależność do grup w trakcie przetwarzania
+    private Collection<Employee> candidates(String companyName, Position position) {
+        if (companyName == null && position == null) {
+            return employees;
+        }
+        Set<Employee> byCompany = companyName != null ? store.byCompany(companyName) : null;
+        Set<Employee> byPosition = position != null ? store.byPosition(position) : null;
+        Set<Employee> smaller = byCompany == null ? byPosition
+                : byPosition == null || byCompany.size() <= byPosition.size() ? byCompany : byPosition;
+        return new ArrayList<>(smaller);
+    }
+
+    // Zapytanie pod blokadą odczytu, z pomiarem czasu (łącznie z czekaniem na blokadę)
+    private <T> T readLocked(String queryName, Supplier<T> query) {
+        Timer start = metrics.startTimer();
+        bulkLock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            bulkLock.readLock().unlock();
+            metrics.recordQuery(queryName, start);
+        }
+    }
+
+    private static final class ColumnarSnapshot {
+        final long version;
+        final EmployeeColumns columns;
+
+        ColumnarSnapshot(long version, EmployeeColumns columns) {
+            this.version = version;
+            this.columns = columns;
+        }
+    }
+}
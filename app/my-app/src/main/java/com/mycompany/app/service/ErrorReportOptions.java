@@ -0,0 +1,58 @@
+package com.mycompany.app.service;
+
+import java.nio.file.Path;
+
+/**
+ * Ustawienia raportowania błędów importu: ile błędów zachować ze szczegółami,
+ * ile przykładów wylosować spośród pozostałych i czy zapisywać wszystkie błędy do pliku.
+ * Obiekt jest niemutowalny - metody with...() zwracają zmienioną kopię.
+ */
+public class ErrorReportOptions {
+    private final int maxRetainedErrors;
+    private final int sampleSize;
+    private final Path errorFile;
+
+    public ErrorReportOptions(int maxRetainedErrors, int sampleSize, Path errorFile) {
+        if (maxRetainedErrors < 0 || sampleSize < 0) {
+            throw new IllegalArgumentException("Nieprawidłowe ustawienia raportu błędów: maxRetainedErrors="
+                    + maxRetainedErrors + ", sampleSize=" + sampleSize);
+        }
+        this.maxRetainedErrors = maxRetainedErrors;
+        this.sampleSize = sampleSize;
+        this.errorFile = errorFile;
+    }
+
+    /**
+     * Domyślnie: pierwsze 10 000 błędów ze szczegółami, 100 losowych przykładów z reszty, bez pliku
+     */
+    public static ErrorReportOptions defaults() {
+        return new ErrorReportOptions(10_000, 100, null);
+    }
+
+    public ErrorReportOptions withMaxRetainedErrors(int maxRetainedErrors) {
+        return new ErrorReportOptions(maxRetainedErrors, sampleSize, errorFile);
+    }
+
+    public ErrorReportOptions withSampleSize(int sampleSize) {
+        return new ErrorReportOptions(maxRetainedErrors, sampleSize, errorFile);
+    }
+
+    /**
+     * @param errorFile plik, do którego trafiają wszystkie błędy (po jednym w linii), lub null
+     */
+    public ErrorReportOptions withErrorFile(Path errorFile) {
+        return new ErrorReportOptions(maxRetainedErrors, sampleSize, errorFile);
+    }
+
+    public int getMaxRetainedErrors() {
+        return maxRetainedErrors;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public Path getErrorFile() {
+        return errorFile;
+    }
+}
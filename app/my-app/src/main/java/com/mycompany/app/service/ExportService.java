@@ -0,0 +1,269 @@
+package com.mycompany.app.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+import com.mycompany.app.query.EmployeeQuery;
+
+/**
+ * Eksport pracowników pasujących do zapytania do CSV lub JSON.
+ *
+ * Pracownicy są pobierani leniwie (EmployeeService.streamEmployees) i od razu zapisywani -
+ * nic nie jest kopiowane do listy. Każdy rekord jest składany w jednym StringBuilderze,
+ * kodowany do UTF-8 jednym CharsetEncoderem i trafia do bufora bezpośredniego, który jest
+ * zapisywany do kanału po zapełnieniu. Wszystkie bufory są używane ponownie, więc zużycie
+ * pamięci nie zależy od liczby eksportowanych pracowników.
+ *
+ * CSV ma format ImportService (nagłówek i kolumny firstName, lastName, email, company,
+ * position, salary), więc eksport można zaimportować z powrotem. Imię i nazwisko jest dzielone
+ * na pierwszej spacji - po imporcie są łączone tą samą spacją.
+ *
+ * JSON to tablica obiektów z polami fullName, email, companyName, position i salary.
+ *
+ * Eksport nie blokuje serwisu - jest słabo spójny jak strumień, z którego czyta;
+ * stan pojedynczego pracownika jest odczytywany pod jego monitorem.
+ */
+public class ExportService {
+
+    /**
+     * Format pliku eksportu
+     */
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    static final String CSV_HEADER = "firstName,lastName,email,company,position,salary";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final EmployeeService employeeService;
+
+    public ExportService(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    /**
+     * Eksportuje pracowników do pliku (istniejący plik jest nadpisywany)
+     *
+     * @param query filtry eksportowanych pracowników (np. EmployeeQuery.all())
+     * @param format format pliku
+     * @param file plik docelowy
+     * @return liczba zapisanych pracowników
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    public long export(EmployeeQuery query, Format format, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(query, format, channel);
+        }
+    }
+
+    /**
+     * Eksportuje pracowników do strumienia. Strumień nie jest zamykany.
+     *
+     * @param query filtry eksportowanych pracowników
+     * @param format format danych
+     * @param out strumień docelowy
+     * @return liczba zapisanych pracowników
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    public long export(EmployeeQuery query, Format format, OutputStream out) throws IOException {
+        long count = export(query, format, Channels.newChannel(out));
+        out.flush();
+        return count;
+    }
+
+    private long export(EmployeeQuery query, Format format, WritableByteChannel channel) throws IOException {
+        RecordWriter writer = new RecordWriter(channel);
+        StringBuilder line = writer.line;
+        long count = 0;
+
+        if (format == Format.CSV) {
+            line.append(CSV_HEADER).append('\n');
+        } else {
+            line.append('[');
+        }
+        writer.endRecord();
+
+        Iterator<Employee> employees = employeeService.streamEmployees(query).iterator();
+        while (employees.hasNext()) {
+            Employee employee = employees.next();
+            String fullName;
+            String companyName;
+            Position position;
+            double salary;
+            synchronized (employee) { // Settery są synchronizowane - czytamy spójny stan
+                fullName = employee.getFullName();
+                companyName = employee.getCompanyName();
+                position = employee.getPosition();
+                salary = employee.getSalary();
+            }
+            if (format == Format.CSV) {
+                appendCsv(line, fullName, employee.getEmail(), companyName, position, salary);
+            } else {
+                line.append(count == 0 ? "\n" : ",\n");
+                appendJson(line, fullName, employee.getEmail(), companyName, position, salary);
+            }
+            writer.endRecord();
+            count++;
+        }
+
+        if (format == Format.JSON) {
+            line.append(count == 0 ? "]\n" : "\n]\n");
+            writer.endRecord();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void appendCsv(StringBuilder line, String fullName, String email, String companyName,
+                                  Position position, double salary) {
+        int space = fullName.indexOf(' ');
+        if (space < 0) {
+            appendCsvField(line, fullName, 0, fullName.length());
+            line.append(',');
+        } else {
+            appendCsvField(line, fullName, 0, space);
+            line.append(',');
+            appendCsvField(line, fullName, space + 1, fullName.length());
+        }
+        line.append(',');
+        appendCsvField(line, email, 0, email.length());
+        line.append(',');
+        appendCsvField(line, companyName, 0, companyName.length());
+        line.append(',').append(position.name()).append(',').append(salary).append('\n');
+    }
+
+    /**
+     * Pole w cudzysłowach (RFC 4180), jeśli zawiera przecinek, cudzysłów lub znak nowej linii
+     */
+    private static void appendCsvField(StringBuilder line, String value, int start, int end) {
+        boolean quote = false;
+        for (int i = start; i < end && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value, start, end);
+            return;
+        }
+        line.append('"');
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendJson(StringBuilder line, String fullName, String email, String companyName,
+                                   Position position, double salary) {
+        line.append("{\"fullName\":");
+        appendJsonString(line, fullName);
+        line.append(",\"email\":");
+        appendJsonString(line, email);
+        line.append(",\"companyName\":");
+        appendJsonString(line, companyName);
+        line.append(",\"position\":\"").append(position.name()).append("\",\"salary\":").append(salary).append('}');
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * Koduje kolejne rekordy do UTF-8 i zapisuje je do kanału przez bufor wielokrotnego użytku
+     */
+    private static final class RecordWriter {
+        final StringBuilder line = new StringBuilder(256);
+        private final WritableByteChannel channel;
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        // Niesparowane surogaty zamieniamy na '?' zamiast przerywać eksport
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private char[] chars = new char[256];
+        private CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+        RecordWriter(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Koduje zawartość line do bufora (zapisując pełny bufor do kanału) i czyści line
+         */
+        void endRecord() throws IOException {
+            int length = line.length();
+            if (length > chars.length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+                charBuffer = CharBuffer.wrap(chars);
+            }
+            line.getChars(0, length, chars, 0);
+            charBuffer.clear().limit(length);
+            while (true) {
+                CoderResult result = encoder.encode(charBuffer, bytes, true);
+                if (result.isOverflow()) {
+                    flush();
+                } else if (result.isError()) {
+                    throw new CharacterCodingException();
+                } else {
+                    break;
+                }
+            }
+            encoder.reset();
+            line.setLength(0);
+        }
+
+        void flush() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+}
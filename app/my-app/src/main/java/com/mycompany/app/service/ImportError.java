@@ -0,0 +1,133 @@
+package com.mycompany.app.service;
+
+/**
+ * Pojedynczy błąd importu: numer linii, kod i błędna wartość, a przy imporcie wielu plików
+ * także plik, którego dotyczy.
+ *
+ * Komunikat tekstowy jest składany dopiero przy odczycie - błędy, które tylko zliczamy
+ * (ponad limit szczegółów), nie kosztują konkatenacji Stringów.
+ */
+public class ImportError {
+    private final long line;
+    private final ImportErrorCode code;
+    private final String value;
+    private final String message;
+    private final String source;
+    // Jednostka numeru w komunikacie ("Rekord", "Strona"); null - linia pliku CSV
+    private final String unit;
+
+    private ImportError(long line, ImportErrorCode code, String value, String message, String source, String unit) {
+        this.line = line;
+        this.code = code;
+        this.value = value;
+        this.message = message;
+        this.source = source;
+        this.unit = unit;
+    }
+
+    /**
+     * Błąd wiersza pliku CSV - komunikat według kodu
+     * @param line numer linii (od 1)
+     * @param code kod błędu
+     * @param value błędna wartość pola lub null
+     */
+    public static ImportError of(long line, ImportErrorCode code, String value) {
+        return new ImportError(line, code, value, null, null, null);
+    }
+
+    /**
+     * Błąd rekordu źródła innego niż plik CSV (migawka, dziennik, strona API) - komunikat według kodu
+     * @param unit jednostka numeru w komunikacie, np. "Rekord" lub "Strona"
+     * @param number numer rekordu lub strony (od 1)
+     * @param code kod błędu
+     * @param value błędna wartość lub null
+     */
+    public static ImportError at(String unit, long number, ImportErrorCode code, String value) {
+        return new ImportError(number, code, value, null, null, unit);
+    }
+
+    /**
+     * Błąd z gotowym komunikatem (źródła inne niż wiersz pliku CSV)
+     * @param line numer rekordu lub 0, jeśli błąd dotyczy całego źródła
+     * @param code kod błędu
+     * @param message pełny komunikat
+     */
+    public static ImportError withMessage(long line, ImportErrorCode code, String message) {
+        return new ImportError(line, code, null, message, null, null);
+    }
+
+    /**
+     * Ten sam błąd przypisany do pliku (import wielu plików)
+     * @param source nazwa pliku
+     */
+    public ImportError withSource(String source) {
+        return new ImportError(line, code, value, message, source, unit);
+    }
+
+    /**
+     * @return nazwa pliku, którego dotyczy błąd, lub null przy imporcie jednego źródła
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public ImportErrorCode getCode() {
+        return code;
+    }
+
+    /**
+     * @return nazwa pola, którego dotyczy błąd, lub null
+     */
+    public String getField() {
+        return code.getField();
+    }
+
+    /**
+     * @return błędna wartość pola lub null
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public String getMessage() {
+        return source != null ? source + ": " + describe() : describe();
+    }
+
+    private String describe() {
+        if (message != null) {
+            return message;
+        }
+        String where = (unit != null ? unit : "Linia") + " " + line;
+        switch (code) {
+            case FIELD_COUNT:
+                return where + ": Nieprawidłowa liczba pól";
+            case MALFORMED_FIELD:
+                return where + ": Tekst po zamykającym cudzysłowie pola - " + value;
+            case INVALID_SALARY:
+                return where + ": Błąd parsowania - nieprawidłowe wynagrodzenie: " + value;
+            case INVALID_POSITION:
+                return "Invalid position at line " + line + ": " + value;
+            case NON_POSITIVE_SALARY:
+                return where + ": Wynagrodzenie musi być dodatnie - " + value;
+            case DUPLICATE_EMAIL:
+                return where + ": Pracownik z emailem " + value + " już istnieje";
+            case MISSING_EMPLOYEE:
+                return where + ": Brak pracownika z emailem " + value;
+            case IO_ERROR:
+                return "Błąd odczytu pliku: " + value;
+            case INTERRUPTED:
+                return "Import przerwany";
+            default:
+                return where + ": " + code + (value != null ? " - " + value : "");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
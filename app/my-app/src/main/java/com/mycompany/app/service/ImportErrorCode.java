@@ -0,0 +1,31 @@
+package com.mycompany.app.service;
+
+/**
+ * Kategorie błędów importu razem z polem rekordu, którego dotyczą.
+ */
+public enum ImportErrorCode {
+    FIELD_COUNT(null),
+    MALFORMED_FIELD(null),
+    INVALID_SALARY("salary"),
+    INVALID_POSITION("position"),
+    NON_POSITIVE_SALARY("salary"),
+    DUPLICATE_EMAIL("email"),
+    MISSING_EMPLOYEE("email"),
+    INVALID_RECORD(null),
+    IO_ERROR(null),
+    INTERRUPTED(null),
+    OTHER(null);
+
+    private final String field;
+
+    ImportErrorCode(String field) {
+        this.field = field;
+    }
+
+    /**
+     * @return nazwa pola, którego dotyczy błąd, lub null (błąd całego rekordu lub pliku)
+     */
+    public String getField() {
+        return field;
+    }
+}
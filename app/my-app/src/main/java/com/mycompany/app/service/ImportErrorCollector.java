@@ -0,0 +1,197 @@
+package com.mycompany.app.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.mycompany.app.metrics.Metrics;
+
+/**
+ * Zbiera błędy importu w ograniczonej pamięci.
+ *
+ * Każdy błąd jest zliczany według kodu, ale szczegóły zachowywane są tylko dla pierwszych
+ * maxRetainedErrors błędów; z pozostałych losowana jest próbka o stałym rozmiarze
+ * (reservoir sampling - każdy nadmiarowy błąd ma tę samą szansę trafienia do próbki).
+ * Próbka jest ważona (A-Res: klucz u^(1/waga), zostaje k największych kluczy), dzięki czemu
+ * przy scalaniu przykład z próbki pliku reprezentuje wszystkie nadmiarowe błędy tego pliku.
+ * Opcjonalnie wszystkie błędy są dopisywane do pliku.
+ *
+ * Klasa nie jest bezpieczna wątkowo - błędy zgłasza jeden wątek, w kolejności linii.
+ * Przy imporcie wielu plików każdy plik ma własny kolektor (z nazwą pliku jako źródłem
+ * i wspólnym plikiem błędów), a wyniki są scalane przez merge().
+ */
+class ImportErrorCollector {
+    private final ErrorReportOptions options;
+    private final long[] counts = new long[ImportErrorCode.values().length];
+    private final List<ImportError> retained = new ArrayList<>();
+    private final List<ImportError> samples = new ArrayList<>();
+    // Klucze losowania elementów próbki (log u / waga) i pozycja najmniejszego z nich
+    private final double[] sampleKeys;
+    private int minKeySlot;
+    private final SplittableRandom random = new SplittableRandom();
+    private final Metrics metrics = Metrics.global();
+    private long total;
+    private final String source;
+    // Plik błędów współdzielony przez kolektory kilku plików - zamyka go właściciel
+    private final Writer sharedWriter;
+    private Writer errorWriter;
+    private String errorFileProblem;
+
+    ImportErrorCollector(ErrorReportOptions options) {
+        this(options, null, null);
+    }
+
+    /**
+     * @param source nazwa pliku dopisywana do błędów lub null
+     * @param sharedWriter wspólny plik błędów (zapisy synchronizowane na nim) lub null,
+     *                     jeśli kolektor sam otwiera plik z opcji
+     */
+    ImportErrorCollector(ErrorReportOptions options, String source, Writer sharedWriter) {
+        this.options = options;
+        this.source = source;
+        this.sharedWriter = sharedWriter;
+        this.sampleKeys = new double[Math.max(options.getSampleSize(), 0)];
+    }
+
+    void add(ImportError error) {
+        if (source != null) {
+            error = error.withSource(source);
+        }
+        counts[error.getCode().ordinal()]++;
+        total++;
+        metrics.recordImportError(error.getCode().name());
+        retain(error);
+        writeToFile(error);
+    }
+
+    /**
+     * Dołącza błędy z podsumowania innego kolektora (np. jednego pliku z wielu).
+     * Liczniki są sumowane; błędy były już zapisane w pliku i w metrykach.
+     * Każdy przykład z próbki części waży tyle, ile nadmiarowych błędów części reprezentuje.
+     */
+    void merge(ImportSummary part) {
+        part.getErrorCounts().forEach((code, count) -> counts[code.ordinal()] += count);
+        total += part.getErrorCount();
+        for (ImportError error : part.getErrorDetails()) {
+            retain(error);
+        }
+        List<ImportError> partSamples = part.getErrorSamples();
+        if (!partSamples.isEmpty()) {
+            long partOverflow = Math.max(part.getErrorCount() - part.getErrorDetails().size(), partSamples.size());
+            double weight = (double) partOverflow / partSamples.size();
+            for (ImportError error : partSamples) {
+                sample(error, weight);
+            }
+        }
+    }
+
+    /**
+     * Zapisuje problem z samym plikiem błędów (np. nieudane zamknięcie wspólnego pliku) -
+     * trafia do podsumowania, bez ponownej próby zapisu do pliku
+     */
+    void errorFileFailed(String problem) {
+        errorFileProblem = problem;
+    }
+
+    private void retain(ImportError error) {
+        if (retained.size() < options.getMaxRetainedErrors()) {
+            retained.add(error);
+        } else {
+            sample(error, 1.0);
+        }
+    }
+
+    private void sample(ImportError error, double weight) {
+        int size = sampleKeys.length;
+        if (size == 0) {
+            return;
+        }
+        double key = Math.log(random.nextDouble()) / weight;
+        if (samples.size() < size) {
+            sampleKeys[samples.size()] = key;
+            samples.add(error);
+            if (samples.size() == size) {
+                updateMinKeySlot();
+            }
+        } else if (key > sampleKeys[minKeySlot]) {
+            samples.set(minKeySlot, error);
+            sampleKeys[minKeySlot] = key;
+            updateMinKeySlot();
+        }
+    }
+
+    private void updateMinKeySlot() {
+        int min = 0;
+        for (int i = 1; i < sampleKeys.length; i++) {
+            if (sampleKeys[i] < sampleKeys[min]) {
+                min = i;
+            }
+        }
+        minKeySlot = min;
+    }
+
+    void addAll(List<ImportError> errors) {
+        for (ImportError error : errors) {
+            add(error);
+        }
+    }
+
+    /**
+     * Zamyka plik błędów i tworzy podsumowanie
+     */
+    ImportSummary summary(int importedCount) {
+        if (errorWriter != null) {
+            try {
+                errorWriter.close();
+            } catch (IOException e) {
+                errorFileProblem = e.getMessage();
+            }
+            errorWriter = null;
+        }
+        if (errorFileProblem != null && retained.size() < options.getMaxRetainedErrors()) {
+            retained.add(ImportError.withMessage(0, ImportErrorCode.IO_ERROR,
+                    "Błąd zapisu pliku błędów: " + errorFileProblem));
+        }
+        Map<ImportErrorCode, Long> countsByCode = new EnumMap<>(ImportErrorCode.class);
+        for (ImportErrorCode code : ImportErrorCode.values()) {
+            if (counts[code.ordinal()] > 0) {
+                countsByCode.put(code, counts[code.ordinal()]);
+            }
+        }
+        samples.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+        return new ImportSummary(importedCount, retained, samples, countsByCode, total, options.getErrorFile());
+    }
+
+    private void writeToFile(ImportError error) {
+        if (sharedWriter != null) {
+            try {
+                synchronized (sharedWriter) {
+                    sharedWriter.write(error.getMessage());
+                    sharedWriter.write('\n');
+                }
+            } catch (IOException e) {
+                errorFileProblem = e.getMessage();
+            }
+            return;
+        }
+        if (options.getErrorFile() == null || errorFileProblem != null) {
+            return;
+        }
+        try {
+            if (errorWriter == null) {
+                errorWriter = Files.newBufferedWriter(options.getErrorFile(), StandardCharsets.UTF_8);
+            }
+            errorWriter.write(error.getMessage());
+            errorWriter.write('\n');
+        } catch (IOException e) {
+            // Import trwa dalej - problem z plikiem trafia do podsumowania
+            errorFileProblem = e.getMessage();
+        }
+    }
+}
@@ -1,99 +1,369 @@
 package com.mycompany.app.service;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import com.mycompany.app.metrics.Metrics;
+import com.mycompany.app.metrics.Timer;
 import com.mycompany.app.model.Employee;
 import com.mycompany.app.model.Position;
 
 /**
  * Klasa odpowiedzialna za importowanie danych pracowników z pliku CSV.
+ * Plik jest czytany jako UTF-8 i rozbijany na pola przez CsvTokenizer.
+ * Pliki .gz są rozpakowywane w locie, bez zapisu na dysk.
  */
 public class ImportService {
+    static final int FIELD_COUNT = 6;
+    static final int SALARY_FIELD = 5;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    private static final String DEFAULT_FILE_PATTERN = "*.{csv,gz}";
+    private static final Position[] POSITIONS = Position.values();
 
     private final EmployeeService employeeService;
+    private final ErrorReportOptions errorOptions;
 
     public ImportService(EmployeeService employeeService) {
+        this(employeeService, ErrorReportOptions.defaults());
+    }
+
+    /**
+     * @param employeeService serwis, do którego trafiają pracownicy
+     * @param errorOptions limit szczegółów błędów, rozmiar próbki i opcjonalny plik błędów
+     */
+    public ImportService(EmployeeService employeeService, ErrorReportOptions errorOptions) {
         this.employeeService = employeeService;
+        this.errorOptions = errorOptions;
     }
 
     /**
      * Importuje dane pracowników z pliku CSV.
+     * Pola w cudzysłowach (RFC 4180) mogą zawierać przecinki i znaki nowej linii.
      *
      * @param filePath Ścieżka do pliku CSV.
      * @return Obiekt ImportSummary zawierający liczbę zaimportowanych pracowników i listę błędów.
      */
     public ImportSummary importFromCsv(String filePath) {
-        List<String> errors = new ArrayList<>();
-        int importedCount = 0;
+        ImportErrorCollector errors = new ImportErrorCollector(errorOptions);
+        AtomicInteger imported = new AtomicInteger();
+        importFile(Path.of(filePath), errors, imported);
+        return errors.summary(imported.get());
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int lineNumber = 0;
+    /**
+     * Importuje wiele plików CSV (np. paczki eksportu), także skompresowanych gzipem.
+     * @see #importFromCsvFiles(String, int)
+     */
+    public ImportSummary importFromCsvFiles(String pathOrGlob) {
+        return importFromCsvFiles(pathOrGlob, Runtime.getRuntime().availableProcessors());
+    }
 
-            // Pomijamy nagłówek
-            reader.readLine();
-            lineNumber++;
+    /**
+     * Importuje wiele plików CSV równolegle - każdy plik na jednym wątku z puli o stałym rozmiarze.
+     * Pliki z końcówką .gz są rozpakowywane strumieniowo.
+     *
+     * Źródłem może być katalog (importowane są jego pliki *.csv i *.gz), pojedynczy plik
+     * albo wzorzec glob w nazwie pliku, np. "eksport/pracownicy-*.csv.gz".
+     * Pliki są importowane niezależnie, więc gdy ten sam email występuje w dwóch plikach,
+     * nie wiadomo z góry, który z nich doda pracownika - drugi zgłosi duplikat.
+     *
+     * @param pathOrGlob katalog, plik lub wzorzec glob
+     * @param parallelism maksymalna liczba plików importowanych jednocześnie
+     * @return scalone podsumowanie; błędy mają nazwę pliku, a getFileSummaries()
+     *         zawiera podsumowanie każdego pliku
+     */
+    public ImportSummary importFromCsvFiles(String pathOrGlob, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism musi być dodatnie: " + parallelism);
+        }
+        List<Path> files;
+        try {
+            files = resolveFiles(pathOrGlob);
+        } catch (IOException e) {
+            ImportErrorCollector failed = new ImportErrorCollector(errorOptions);
+            failed.add(ImportError.of(0, ImportErrorCode.IO_ERROR, e.getMessage()));
+            return failed.summary(0);
+        }
+        if (files.isEmpty()) {
+            ImportErrorCollector failed = new ImportErrorCollector(errorOptions);
+            failed.add(ImportError.withMessage(0, ImportErrorCode.IO_ERROR, "Brak plików do importu: " + pathOrGlob));
+            return failed.summary(0);
+        }
 
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
+        // Jeden plik błędów dla wszystkich plików - kolektory (także scalający) piszą do niego na zmianę.
+        // Gdy nie da się go otworzyć, żaden kolektor nie próbuje go tworzyć sam.
+        ErrorReportOptions fileOptions = errorOptions;
+        Writer errorFile = null;
+        String errorFileProblem = null;
+        if (errorOptions.getErrorFile() != null) {
+            try {
+                errorFile = Files.newBufferedWriter(errorOptions.getErrorFile(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                errorFileProblem = e.getMessage();
+                fileOptions = errorOptions.withErrorFile(null);
+            }
+        }
+        ImportErrorCollector merged = new ImportErrorCollector(fileOptions, null, errorFile);
+        if (errorFileProblem != null) {
+            merged.errorFileFailed(errorFileProblem);
+        }
 
-                // Pomijamy puste linie
-                if (line.trim().isEmpty()) {
-                    continue;
+        Map<String, ImportSummary> fileSummaries = new LinkedHashMap<>();
+        int importedCount = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, files.size()), runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-file");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<ImportErrorCollector> collectors = new ArrayList<>(files.size());
+            List<AtomicInteger> imported = new ArrayList<>(files.size());
+            List<Future<?>> results = new ArrayList<>(files.size());
+            for (Path file : files) {
+                ImportErrorCollector errors = new ImportErrorCollector(fileOptions, sourceName(file), errorFile);
+                AtomicInteger count = new AtomicInteger();
+                collectors.add(errors);
+                imported.add(count);
+                results.add(pool.submit(() -> importFile(file, errors, count)));
+            }
+            // Scalamy w kolejności nazw plików, niezależnie od kolejności zakończenia.
+            // Nieudany plik nie przerywa scalania pozostałych - błąd trafia do jego podsumowania.
+            for (int i = 0; i < files.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    collectors.get(i).add(ImportError.withMessage(0, ImportErrorCode.OTHER,
+                            "Import pliku przerwany: " + e.getCause()));
+                }
+                ImportSummary part = collectors.get(i).summary(imported.get(i).get());
+                fileSummaries.put(sourceName(files.get(i)), part);
+                merged.merge(part);
+                importedCount += part.getImportedCount();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            merged.add(ImportError.of(0, ImportErrorCode.INTERRUPTED, null));
+        } finally {
+            pool.shutdownNow();
+            if (errorFile != null) {
+                try {
+                    errorFile.close();
+                } catch (IOException e) {
+                    merged.errorFileFailed(e.getMessage());
                 }
+            }
+        }
+        return merged.summary(importedCount).withFileSummaries(fileSummaries);
+    }
+
+    /**
+     * Importuje jeden plik sekwencyjnie, zgłaszając błędy do podanego kolektora
+     * @param imported licznik dodanych pracowników - aktualny także wtedy, gdy import przerwie wyjątek
+     */
+    private void importFile(Path file, ImportErrorCollector errors, AtomicInteger imported) {
+        int importedCount = 0;
+        Metrics metrics = Metrics.global();
+        Timer start = metrics.startTimer();
+        long rows = 0;
+        long bytes = 0;
+
+        try (ReadableByteChannel channel = openCsv(file)) {
+            bytes = Files.size(file);
+            CsvTokenizer tokenizer = new CsvTokenizer(FIELD_COUNT);
+            CsvRecordReader reader = new CsvRecordReader(channel, tokenizer);
 
-                String[] fields = line.split(",");
+            // Pomijamy nagłówek
+            reader.next();
+
+            while (reader.next()) {
+                int lineNumber = reader.lineNumber();
+                rows++;
 
-                // Walidacja liczby pól
-                if (fields.length != 6) {
-                    errors.add("Linia " + lineNumber + ": Nieprawidłowa liczba pól");
+                Employee employee = parseRecord(tokenizer, lineNumber, errors::add);
+                if (employee == null) {
                     continue;
                 }
 
-                try {
-                    String firstName = fields[0].trim();
-                    String lastName = fields[1].trim();
-                    String email = fields[2].trim();
-                    String company = fields[3].trim();
-                    double salary = Double.parseDouble(fields[5].trim());
-
-                    // Walidacja stanowiska
-                    Position position;
-                    try {
-                        position = Position.valueOf(fields[4].trim().toUpperCase());
-                    } catch (IllegalArgumentException e) {
-                        errors.add("Invalid position at line " + lineNumber + ": " + fields[4]);
-                        continue;
-                    }
-
-                    // Walidacja wynagrodzenia
-                    if (salary <= 0) {
-                        errors.add("Linia " + lineNumber + ": Wynagrodzenie musi być dodatnie - " + salary);
-                        continue;
-                    }
-
-                    // Tworzenie obiektu Employee
-                    Employee employee = new Employee(firstName + " " + lastName, email, company, position);
-
-                    // Dodanie pracownika do EmployeeService
-                    if (employeeService.addEmployee(employee)) {
-                        importedCount++;
-                    } else {
-                        errors.add("Linia " + lineNumber + ": Pracownik z emailem " + email + " już istnieje");
-                    }
-
-                } catch (Exception e) {
-                    errors.add("Linia " + lineNumber + ": Błąd parsowania - " + e.getMessage());
+                // Dodanie pracownika do EmployeeService
+                if (employeeService.addEmployee(employee)) {
+                    importedCount++;
+                } else {
+                    errors.add(duplicateError(lineNumber, employee));
                 }
             }
         } catch (IOException e) {
-            errors.add("Błąd odczytu pliku: " + e.getMessage());
+            errors.add(ImportError.of(0, ImportErrorCode.IO_ERROR, e.getMessage()));
+        } finally {
+            imported.addAndGet(importedCount);
+        }
+
+        metrics.recordImport(rows, bytes, start);
+    }
+
+    /**
+     * Otwiera plik do odczytu; plik .gz jest rozpakowywany w locie
+     */
+    static ReadableByteChannel openCsv(Path file) throws IOException {
+        if (!file.getFileName().toString().endsWith(".gz")) {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        }
+        InputStream input = Files.newInputStream(file);
+        try {
+            return Channels.newChannel(new GZIPInputStream(input, GZIP_BUFFER_SIZE));
+        } catch (IOException e) {
+            input.close(); // Uszkodzony nagłówek gzip - nie zostawiamy otwartego pliku
+            throw e;
         }
+    }
+
+    /**
+     * Pliki do importu, posortowane po nazwie: zawartość katalogu, pojedynczy plik
+     * lub pliki pasujące do wzorca glob w ostatnim członie ścieżki
+     */
+    static List<Path> resolveFiles(String pathOrGlob) throws IOException {
+        Path directory;
+        String pattern;
+        if (isGlob(pathOrGlob)) {
+            int separator = Math.max(pathOrGlob.lastIndexOf('/'), pathOrGlob.lastIndexOf(File.separatorChar));
+            directory = Path.of(separator < 0 ? "." : separator == 0 ? "/" : pathOrGlob.substring(0, separator));
+            pattern = pathOrGlob.substring(separator + 1);
+        } else {
+            Path path = Path.of(pathOrGlob);
+            if (!Files.isDirectory(path)) {
+                return Files.exists(path) ? List.of(path) : List.of();
+            }
+            directory = path;
+            pattern = DEFAULT_FILE_PATTERN;
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, pattern)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static boolean isGlob(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sourceName(Path file) {
+        return file.getFileName().toString();
+    }
+
+    /**
+     * Importuje dane pracowników z pliku CSV równolegle, używając wszystkich rdzeni.
+     *
+     * @param filePath Ścieżka do pliku CSV.
+     * @return Obiekt ImportSummary zawierający liczbę zaimportowanych pracowników i listę błędów.
+     * @see #importFromCsvParallel(String, int)
+     */
+    public ImportSummary importFromCsvParallel(String filePath) {
+        return importFromCsvParallel(filePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Importuje dane pracowników z pliku CSV równolegle.
+     * Plik jest mapowany do pamięci fragmentami (FileChannel.map), dzielony na granicach linii,
+     * a fragmenty są parsowane na osobnych wątkach. Pracownicy trafiają do EmployeeService
+     * paczkami, w kolejności z pliku - wynik (łącznie z duplikatami i numerami linii w błędach)
+     * jest taki sam jak w importFromCsv().
+     *
+     * Pola w cudzysłowach nie mogą tu zawierać znaków nowej linii.
+     *
+     * @param filePath Ścieżka do pliku CSV.
+     * @param parallelism Liczba wątków parsujących.
+     * @return Obiekt ImportSummary zawierający liczbę zaimportowanych pracowników i listę błędów.
+     */
+    public ImportSummary importFromCsvParallel(String filePath, int parallelism) {
+        return new ParallelCsvImporter(employeeService, parallelism, errorOptions).importFile(filePath);
+    }
+
+    /**
+     * Waliduje rekord rozpoznany przez tokenizer i tworzy z niego pracownika.
+     * Wynagrodzenie i stanowisko są parsowane wprost z bajtów - bez wyjątków
+     * i tymczasowych Stringów; Stringi powstają tylko dla pól zapisywanych w Employee.
+     *
+     * @param tokenizer tokenizer z bieżącym rekordem
+     * @param lineNumber numer linii w pliku (od 1, nagłówek to linia 1)
+     * @param errors odbiorca ewentualnego błędu
+     * @return pracownik lub null, jeśli rekord jest pusty albo niepoprawny
+     */
+    static Employee parseRecord(CsvTokenizer tokenizer, int lineNumber, Consumer<ImportError> errors) {
+        // Pomijamy puste linie
+        if (tokenizer.isBlankRecord()) {
+            return null;
+        }
+
+        // Walidacja liczby pól
+        if (tokenizer.fieldCount() != FIELD_COUNT) {
+            errors.accept(ImportError.of(lineNumber, ImportErrorCode.FIELD_COUNT, null));
+            return null;
+        }
+        if (tokenizer.malformedField() >= 0) {
+            errors.accept(ImportError.of(lineNumber, ImportErrorCode.MALFORMED_FIELD,
+                    tokenizer.string(tokenizer.malformedField())));
+            return null;
+        }
+
+        double salary = tokenizer.parseDouble(SALARY_FIELD);
+        if (!Double.isFinite(salary)) {
+            errors.accept(ImportError.of(lineNumber, ImportErrorCode.INVALID_SALARY, tokenizer.string(SALARY_FIELD)));
+            return null;
+        }
+
+        // Walidacja stanowiska
+        Position position = tokenizer.matchEnum(4, POSITIONS);
+        if (position == null) {
+            errors.accept(ImportError.of(lineNumber, ImportErrorCode.INVALID_POSITION, tokenizer.string(4)));
+            return null;
+        }
+
+        // Walidacja wynagrodzenia
+        if (salary <= 0) {
+            errors.accept(ImportError.of(lineNumber, ImportErrorCode.NON_POSITIVE_SALARY, Double.toString(salary)));
+            return null;
+        }
+
+        // Tworzenie obiektu Employee - nazwy firm powtarzają się, więc współdzielimy ich Stringi.
+        // Jak dotąd pensja z pliku jest tylko walidowana - pracownik dostaje stawkę bazową stanowiska.
+        return new Employee(tokenizer.join(0, 1, ' '), tokenizer.string(2),
+                tokenizer.internedString(3), position);
+    }
 
-        return new ImportSummary(importedCount, errors);
+    static ImportError duplicateError(int lineNumber, Employee employee) {
+        return ImportError.of(lineNumber, ImportErrorCode.DUPLICATE_EMAIL, employee.getEmail());
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,138 @@
 package com.mycompany.app.service;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Klasa przechowująca podsumowanie importu pracowników.
+ *
+ * Liczniki obejmują wszystkie błędy, ale szczegóły (getErrors(), getErrorDetails())
+ * tylko pierwsze z nich - do limitu z ErrorReportOptions; z pozostałych dostępna jest
+ * losowa próbka, a pełna lista - w pliku błędów, jeśli był włączony.
+ * Przy imporcie wielu plików dostępne są też podsumowania poszczególnych plików.
  */
 public class ImportSummary {
     private final int importedCount;
-    private final List<String> errors;
+    private final List<ImportError> errors;
+    private final List<ImportError> errorSamples;
+    private final Map<ImportErrorCode, Long> errorCounts;
+    private final long errorCount;
+    private final Path errorFile;
+    private final Map<String, ImportSummary> fileSummaries;
 
+    /**
+     * Podsumowanie z gotowymi komunikatami błędów (bez limitu i podziału na kody)
+     */
     public ImportSummary(int importedCount, List<String> errors) {
+        this(importedCount, toErrors(errors), Collections.emptyList(),
+                errors.isEmpty() ? Collections.emptyMap() : Map.of(ImportErrorCode.OTHER, (long) errors.size()),
+                errors.size(), null);
+    }
+
+    public ImportSummary(int importedCount, List<ImportError> errors, List<ImportError> errorSamples,
+                         Map<ImportErrorCode, Long> errorCounts, long errorCount, Path errorFile) {
         this.importedCount = importedCount;
-        this.errors = errors;
+        this.errors = Collections.unmodifiableList(errors);
+        this.errorSamples = Collections.unmodifiableList(errorSamples);
+        this.errorCounts = errorCounts.isEmpty() ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(errorCounts));
+        this.errorCount = errorCount;
+        this.errorFile = errorFile;
+        this.fileSummaries = Collections.emptyMap();
+    }
+
+    private ImportSummary(ImportSummary merged, Map<String, ImportSummary> fileSummaries) {
+        this.importedCount = merged.importedCount;
+        this.errors = merged.errors;
+        this.errorSamples = merged.errorSamples;
+        this.errorCounts = merged.errorCounts;
+        this.errorCount = merged.errorCount;
+        this.errorFile = merged.errorFile;
+        this.fileSummaries = Collections.unmodifiableMap(new LinkedHashMap<>(fileSummaries));
+    }
+
+    /**
+     * Scalone podsumowanie z podsumowaniami poszczególnych plików
+     */
+    ImportSummary withFileSummaries(Map<String, ImportSummary> fileSummaries) {
+        return new ImportSummary(this, fileSummaries);
     }
 
     public int getImportedCount() {
         return importedCount;
     }
 
+    /**
+     * @return komunikaty zachowanych błędów, w kolejności wystąpienia
+     */
     public List<String> getErrors() {
+        List<String> messages = new ArrayList<>(errors.size());
+        for (ImportError error : errors) {
+            messages.add(error.getMessage());
+        }
+        return messages;
+    }
+
+    /**
+     * @return zachowane błędy ze szczegółami (linia, kod, pole, wartość)
+     */
+    public List<ImportError> getErrorDetails() {
+        return errors;
+    }
+
+    /**
+     * @return losowe przykłady spośród błędów ponad limit szczegółów, posortowane po linii
+     */
+    public List<ImportError> getErrorSamples() {
+        return errorSamples;
+    }
+
+    /**
+     * @return liczba wszystkich błędów według kodu
+     */
+    public Map<ImportErrorCode, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    /**
+     * @return liczba wszystkich błędów (także tych bez zachowanych szczegółów)
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return true, jeśli nie wszystkie błędy mają zachowane szczegóły
+     */
+    public boolean isErrorListTruncated() {
+        return errorCount > errors.size();
+    }
+
+    /**
+     * @return plik z pełną listą błędów lub null
+     */
+    public Path getErrorFile() {
+        return errorFile;
+    }
+
+    /**
+     * @return podsumowania poszczególnych plików (nazwa pliku -> podsumowanie) w kolejności
+     *         nazw; puste przy imporcie jednego pliku
+     */
+    public Map<String, ImportSummary> getFileSummaries() {
+        return fileSummaries;
+    }
+
+    private static List<ImportError> toErrors(List<String> messages) {
+        List<ImportError> errors = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            errors.add(ImportError.withMessage(0, ImportErrorCode.OTHER, message));
+        }
         return errors;
     }
 
@@ -26,7 +140,9 @@ public class ImportSummary {
     public String toString() {
         return "ImportSummary{" +
                 "importedCount=" + importedCount +
-                ", errors=" + errors +
+                ", errors=" + getErrors() +
+                (isErrorListTruncated() ? ", errorCount=" + errorCount : "") +
+                (fileSummaries.isEmpty() ? "" : ", files=" + fileSummaries.size()) +
                 '}';
     }
-}
\ No newline at end of file
+}
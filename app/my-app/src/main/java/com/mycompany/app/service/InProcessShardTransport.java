@@ -0,0 +1,64 @@
+package com.mycompany.app.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+import com.mycompany.app.store.GroupStatistics;
+
+/**
+ * Shard działający w tym samym procesie - osobny EmployeeService (własny magazyn i blokady),
+ * wywoływany na wspólnej puli wątków koordynatora.
+ */
+public class InProcessShardTransport implements ShardTransport {
+    private final EmployeeService shard;
+    private final Executor executor;
+
+    /**
+     * @param shard serwis przechowujący pracowników sharda
+     * @param executor pula, na której wykonywane są żądania
+     */
+    public InProcessShardTransport(EmployeeService shard, Executor executor) {
+        this.shard = shard;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addEmployee(Employee employee) {
+        // Dodanie jest tanie (putIfAbsent) - nie warto przełączać wątku
+        return CompletableFuture.completedFuture(shard.addEmployee(employee));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeEmployee(String email) {
+        return CompletableFuture.completedFuture(shard.removeEmployee(email));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Employee>> findEmployeeByEmail(String email) {
+        return CompletableFuture.completedFuture(shard.findEmployeeByEmail(email));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, GroupStatistics>> companyStatistics() {
+        return CompletableFuture.supplyAsync(shard::companyGroupStatistics, executor);
+    }
+
+    @Override
+    public CompletableFuture<GroupStatistics> totalStatistics() {
+        return CompletableFuture.supplyAsync(shard::totalGroupStatistics, executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<Position, Long>> countEmployeesByPosition() {
+        return CompletableFuture.supplyAsync(shard::countEmployeesByPosition, executor);
+    }
+
+    @Override
+    public void close() {
+        // Pula należy do koordynatora - shard nie ma własnych zasobów
+    }
+}
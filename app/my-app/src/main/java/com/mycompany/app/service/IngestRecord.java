@@ -0,0 +1,70 @@
+package com.mycompany.app.service;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Element przepływający przez potok importu: pracownik albo błąd rekordu źródła.
+ */
+public class IngestRecord {
+    private final long line;
+    // Jednostka numeru ("Linia", "Rekord") - tekst położenia powstaje dopiero przy zgłaszaniu błędu
+    private final String unit;
+    private final Employee employee;
+    private final ImportError error;
+
+    private IngestRecord(long line, String unit, Employee employee, ImportError error) {
+        this.line = line;
+        this.unit = unit;
+        this.employee = employee;
+        this.error = error;
+    }
+
+    /**
+     * @param line numer linii lub rekordu w źródle
+     * @param unit jednostka numeru w komunikatach, np. "Linia" lub "Rekord"
+     * @param employee poprawnie sparsowany pracownik
+     */
+    public static IngestRecord of(long line, String unit, Employee employee) {
+        return new IngestRecord(line, unit, employee, null);
+    }
+
+    /**
+     * @param error błąd rekordu
+     */
+    public static IngestRecord error(ImportError error) {
+        return new IngestRecord(error.getLine(), null, null, error);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return położenie rekordu do komunikatów, np. "Linia 5" (składane przy każdym wywołaniu)
+     */
+    public String getLocation() {
+        return unit + " " + line;
+    }
+
+    /**
+     * @return pracownik lub null, jeśli rekord jest błędny
+     */
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    /**
+     * @return błąd lub null
+     */
+    public ImportError getError() {
+        return error;
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mycompany.app.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+/**
+ * Źródło rekordów potoku importu (plik CSV, API) jako Flow.Publisher.
+ *
+ * Rekordy są produkowane na osobnym wątku i przekazywane przez submit(), które blokuje,
+ * gdy bufor odbiorcy jest pełny - szybkie źródło czeka więc na wolniejszy magazyn
+ * zamiast gromadzić rekordy w pamięci.
+ */
+public abstract class IngestSource extends SubmissionPublisher<IngestRecord> {
+
+    protected IngestSource(Executor executor, int bufferSize) {
+        super(executor, bufferSize);
+    }
+
+    /**
+     * Czyta źródło i przekazuje kolejne rekordy do konsumenta.
+     * @throws Exception gdy źródła nie da się odczytać - potok kończy się wtedy błędem
+     */
+    protected abstract void produce(Consumer<IngestRecord> sink) throws Exception;
+
+    /**
+     * Uruchamia produkcję rekordów na podanym wykonawcy; po końcu danych publisher jest zamykany
+     */
+    void start(Executor producer) {
+        producer.execute(() -> {
+            try {
+                produce(this::submit);
+                close();
+            } catch (Throwable e) {
+                // Także Error - inaczej odbiorca nigdy nie dostałby onError() ani onComplete()
+                closeExceptionally(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.mycompany.app.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Function;
+
+/**
+ * Etap potoku: przekształca każdy rekord funkcją na własnym wykonawcy.
+ *
+ * Z góry żąda tylko tylu rekordów, ile mieści jego bufor, a kolejny po przekazaniu
+ * poprzedniego dalej; submit() blokuje przy pełnym buforze następnego etapu,
+ * więc zapotrzebowanie (backpressure) przenosi się aż do źródła.
+ */
+class IngestStage<T, R> extends SubmissionPublisher<R> implements Flow.Processor<T, R> {
+    private final Function<T, R> transform;
+    private final int bufferSize;
+    private Flow.Subscription subscription;
+
+    IngestStage(Function<T, R> transform, Executor executor, int bufferSize) {
+        super(executor, bufferSize);
+        this.transform = transform;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(bufferSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        R result = transform.apply(item);
+        if (result != null) {
+            submit(result);
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        close();
+    }
+}
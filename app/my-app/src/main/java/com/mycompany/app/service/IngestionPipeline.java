@@ -0,0 +1,141 @@
+package com.mycompany.app.service;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Wspólny potok importu dla plików CSV i API, zbudowany na java.util.concurrent.Flow:
+ * <pre>
+ * źródło (odczyt + parsowanie) -> walidacja -> zapis paczkami do EmployeeService
+ * </pre>
+ * Każdy etap działa na własnym wątku, a bufory między etapami mają stały rozmiar.
+ * Gdy magazyn nie nadąża, zapotrzebowanie (Flow.Subscription.request) przestaje rosnąć,
+ * bufory się zapełniają i źródło czeka - zużycie pamięci nie zależy od rozmiaru danych.
+ */
+public class IngestionPipeline {
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final EmployeeService target;
+    private final int bufferSize;
+    private final int batchSize;
+    private final Function<Employee, String> validator;
+    private final ErrorReportOptions errorOptions;
+
+    /**
+     * Potok z domyślnymi buforami i walidacją adresu email
+     */
+    public IngestionPipeline(EmployeeService target) {
+        this(target, DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE, IngestionPipeline::validateEmail);
+    }
+
+    /**
+     * @param target serwis, do którego trafiają pracownicy
+     * @param bufferSize rozmiar bufora między etapami (zaokrąglany przez Flow do potęgi dwójki)
+     * @param batchSize rozmiar paczki zapisywanej do serwisu
+     * @param validator zwraca komunikat błędu albo null, jeśli pracownik jest poprawny
+     */
+    public IngestionPipeline(EmployeeService target, int bufferSize, int batchSize,
+                             Function<Employee, String> validator) {
+        this(target, bufferSize, batchSize, validator, ErrorReportOptions.defaults());
+    }
+
+    /**
+     * @param target serwis, do którego trafiają pracownicy
+     * @param bufferSize rozmiar bufora między etapami (zaokrąglany przez Flow do potęgi dwójki)
+     * @param batchSize rozmiar paczki zapisywanej do serwisu
+     * @param validator zwraca komunikat błędu albo null, jeśli pracownik jest poprawny
+     * @param errorOptions limit szczegółów błędów, rozmiar próbki i opcjonalny plik błędów
+     */
+    public IngestionPipeline(EmployeeService target, int bufferSize, int batchSize,
+                             Function<Employee, String> validator, ErrorReportOptions errorOptions) {
+        if (bufferSize < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Nieprawidłowe ustawienia potoku: bufferSize=" + bufferSize
+                    + ", batchSize=" + batchSize);
+        }
+        this.target = target;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.validator = validator;
+        this.errorOptions = errorOptions;
+    }
+
+    /**
+     * Importuje plik CSV (format jak w ImportService)
+     * @param file ścieżka do pliku CSV
+     * @return podsumowanie importu
+     */
+    public ImportSummary importCsv(Path file) {
+        ExecutorService validation = newStageExecutor("ingest-validate");
+        try {
+            return run(new CsvIngestSource(file, validation, bufferSize));
+        } finally {
+            validation.shutdownNow();
+        }
+    }
+
+    /**
+     * Importuje pracowników z API
+     * @param apiService serwis wykonujący zapytanie
+     * @param apiUrl adres API
+     * @return podsumowanie importu
+     */
+    public ImportSummary importFromApi(ApiService apiService, String apiUrl) {
+        ExecutorService validation = newStageExecutor("ingest-validate");
+        try {
+            return run(new ApiIngestSource(apiService, apiUrl, validation, bufferSize));
+        } finally {
+            validation.shutdownNow();
+        }
+    }
+
+    /**
+     * Przepuszcza rekordy źródła przez walidację i zapisuje je w serwisie.
+     * Wykonawca źródła (podany przy jego tworzeniu) wykonuje etap walidacji.
+     *
+     * @param source źródło rekordów (jeszcze nieuruchomione)
+     * @return podsumowanie importu, błędy w kolejności rekordów źródła
+     */
+    public ImportSummary run(IngestSource source) {
+        ExecutorService producer = newStageExecutor("ingest-source");
+        ExecutorService sinkExecutor = newStageExecutor("ingest-sink");
+        try (IngestStage<IngestRecord, IngestRecord> validation =
+                     new IngestStage<>(this::validate, sinkExecutor, bufferSize)) {
+            BatchingSink sink = new BatchingSink(target, batchSize, errorOptions);
+            validation.subscribe(sink);
+            source.subscribe(validation);
+            source.start(producer);
+            return sink.result().join();
+        } finally {
+            producer.shutdownNow();
+            sinkExecutor.shutdownNow();
+        }
+    }
+
+    private IngestRecord validate(IngestRecord record) {
+        if (record.isError()) {
+            return record;
+        }
+        String error = validator.apply(record.getEmployee());
+        return error == null ? record : IngestRecord.error(ImportError.withMessage(record.getLine(),
+                ImportErrorCode.INVALID_RECORD, record.getLocation() + ": " + error));
+    }
+
+    private static String validateEmail(Employee employee) {
+        String email = employee.getEmail();
+        int at = email.indexOf('@');
+        return at > 0 && at < email.length() - 1 ? null : "Nieprawidłowy email: " + email;
+    }
+
+    private static ExecutorService newStageExecutor(String name) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
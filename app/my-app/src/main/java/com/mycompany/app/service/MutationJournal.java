@@ -0,0 +1,626 @@
+package com.mycompany.app.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.EmployeeChangeListener;
+import com.mycompany.app.model.Position;
+
+/**
+ * Dziennik zmian (write-ahead log) dopisywany na koniec pliku.
+ *
+ * Każda zmiana jest zapisywana jako rekord ze stanem po zmianie (nowa pensja, nowe stanowisko,
+ * nowa firma, nowe imię), a nie jako różnica - ponowne odtworzenie rekordów, które są już w migawce,
+ * niczego nie psuje. Dzięki temu przy starcie wystarczy wczytać ostatnią migawkę
+ * i odtworzyć na niej cały dziennik.
+ *
+ * Rekordy trafiają najpierw do bufora w pamięci; zapis na dysk i fsync wykonuje jeden wątek
+ * w tle, dla całej paczki rekordów naraz (group commit). W trybie ALWAYS wywołujący czeka,
+ * aż jego rekord zostanie utrwalony, ale wiele równoległych zmian dzieli jeden fsync.
+ * Setter dopisuje rekord pod monitorem pracownika, a czeka na fsync dopiero po jego zwolnieniu
+ * (changeCompleted); operacje grupowe czekają raz, po zdjęciu blokady serwisu (awaitLater).
+ *
+ * Format rekordu: długość (int), CRC32 (int), treść. Uszkodzony ogon pliku (przerwany zapis)
+ * jest odcinany przy otwarciu i pomijany przy odtwarzaniu.
+ */
+public class MutationJournal implements EmployeeChangeListener, Closeable {
+
+    /**
+     * Kiedy dziennik wymusza zapis na dysk (fsync)
+     */
+    public enum SyncPolicy {
+        /** Zmiana kończy się po fsync paczki, w której jest jej rekord (group commit) */
+        ALWAYS,
+        /** fsync co zadany interwał - zmiany nie czekają, można stracić ostatni interwał */
+        INTERVAL,
+        /** Bez fsync - zapis trafia do pamięci podręcznej systemu operacyjnego */
+        NEVER
+    }
+
+    static final byte ADD = 1;
+    static final byte SALARY = 2;
+    static final byte POSITION = 3;
+    static final byte COMPANY = 4;
+    static final byte REMOVE = 5;
+    static final byte NAME = 6;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final Position[] POSITIONS = Position.values();
+
+    private final Path file;
+    private final SyncPolicy policy;
+    private final long intervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingAvailable = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread flusher;
+    // Numer ostatniego rekordu dopisanego przez setter w tym wątku, na który jeszcze nie czekano
+    private final ThreadLocal<Deferred> deferred = ThreadLocal.withInitial(Deferred::new);
+
+    private FileChannel channel;
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer writing = ByteBuffer.allocate(64 * 1024);
+    private long appendedSequence;
+    private long writtenSequence;
+    private long durableSequence;
+    private IOException failure;
+    // Nowe rekordy są odrzucane; wątek zapisujący jeszcze opróżnia bufor
+    private boolean closed;
+    // Wątek zapisujący zakończył pracę - rekordy, których nie zapisał, już nie trafią na dysk
+    private boolean stopped;
+    // Wątek zapisujący pisze do kanału poza blokadą - checkpoint nie może go wtedy zamknąć
+    private boolean inFlush;
+    // Punkt kontrolny czeka na zapis rekordów do checkpointTarget - po nich wątek zapisujący
+    // nie zaczyna kolejnej paczki, żeby ciągłe dopisywanie nie odsuwało punktu kontrolnego
+    private boolean checkpointing;
+    private long checkpointTarget;
+
+    private MutationJournal(Path file, FileChannel channel, SyncPolicy policy, Duration interval) {
+        this.file = file;
+        this.channel = channel;
+        this.policy = policy;
+        this.intervalNanos = interval.toNanos();
+        this.flusher = new Thread(this::flushLoop, "mutation-journal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Otwiera dziennik do dopisywania (tworzy plik, jeśli nie istnieje).
+     * Niekompletny ostatni rekord po awarii jest odcinany.
+     *
+     * @param file plik dziennika
+     * @param policy kiedy wymuszać fsync
+     * @param interval co ile wykonywać fsync w trybie INTERVAL (i jak długo zbierać paczkę w pozostałych)
+     * @return otwarty dziennik
+     * @throws IOException gdy pliku nie można otworzyć
+     */
+    public static MutationJournal open(Path file, SyncPolicy policy, Duration interval) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long valid = scan(channel, null);
+            channel.truncate(valid);
+            channel.position(valid);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new MutationJournal(file, channel, policy, interval);
+    }
+
+    /**
+     * Odtwarza dziennik na serwisie (zwykle świeżo wczytanym z migawki).
+     * Odtwarzany jest też dziennik z niedokończonego punktu kontrolnego, jeśli istnieje.
+     *
+     * @param file plik dziennika
+     * @param target serwis, do którego stosowane są zmiany (bez podpiętego dziennika)
+     * @return podsumowanie: liczba zastosowanych rekordów i błędy
+     */
+    public static ImportSummary replay(Path file, EmployeeService target) {
+        ImportErrorCollector errors = new ImportErrorCollector(ErrorReportOptions.defaults());
+        int applied = 0;
+        for (Path segment : List.of(previousSegment(file), file)) {
+            if (!Files.exists(segment)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                // count[0] - numer rekordu w segmencie, count[1] - zastosowane rekordy
+                long[] count = new long[2];
+                long valid = scan(channel, payload -> {
+                    if (apply(payload, ++count[0], target, errors)) {
+                        count[1]++;
+                    }
+                });
+                if (valid < channel.size()) {
+                    errors.add(ImportError.withMessage(0, ImportErrorCode.INVALID_RECORD, "Dziennik "
+                            + segment.getFileName() + ": pominięto uszkodzony koniec pliku ("
+                            + (channel.size() - valid) + " B)"));
+                }
+                applied += (int) count[1];
+            } catch (IOException e) {
+                errors.add(ImportError.withMessage(0, ImportErrorCode.IO_ERROR, "Błąd odczytu dziennika: " + e.getMessage()));
+            }
+        }
+        return errors.summary(applied);
+    }
+
+    /**
+     * Punkt kontrolny: zapisuje migawkę i skraca dziennik.
+     * Bieżący plik jest najpierw odkładany na bok, a nowe zmiany trafiają do pustego pliku;
+     * wszystko z odłożonego pliku jest już w migawce, więc po jej zapisaniu plik jest usuwany.
+     *
+     * @param snapshots serwis migawek tego samego EmployeeService
+     * @param snapshotFile plik migawki
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    public void checkpoint(SnapshotService snapshots, Path snapshotFile) throws IOException {
+        Path previous = previousSegment(file);
+        lock.lock();
+        try {
+            // Czekamy na rekordy dopisane do tej chwili i na koniec bieżącego zapisu lub fsync -
+            // potem wątek zapisujący nie dotyka starego pliku. Późniejsze rekordy trafią już do nowego.
+            checkpointTarget = appendedSequence;
+            checkpointing = true;
+            try {
+                while ((inFlush || writtenSequence < checkpointTarget) && failure == null && !stopped) {
+                    durable.awaitUninterruptibly();
+                }
+            } finally {
+                checkpointing = false;
+                pendingAvailable.signalAll();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (stopped) {
+                throw new IllegalStateException("Dziennik zmian jest zamknięty");
+            }
+            channel.force(true);
+            channel.close();
+            if (Files.exists(previous)) {
+                // Poprzedni punkt kontrolny się nie udał - jego rekordów nie ma jeszcze w migawce
+                try (FileChannel older = FileChannel.open(previous, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                     FileChannel current = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long size = current.size();
+                    for (long copied = 0; copied < size; ) {
+                        copied += current.transferTo(copied, size - copied, older);
+                    }
+                    older.force(true);
+                }
+                Files.delete(file);
+            } else {
+                Files.move(file, previous);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            durableSequence = writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+        snapshots.save(snapshotFile);
+        Files.deleteIfExists(previous);
+    }
+
+    /**
+     * Zapisuje dodanie pracownika
+     * @return numer rekordu do przekazania do awaitDurable
+     */
+    long employeeAdded(Employee employee) {
+        byte[] email = utf8(employee.getEmail());
+        byte[] name = utf8(employee.getFullName());
+        byte[] company = utf8(employee.getCompanyName());
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + email.length + 4 + name.length + 4 + company.length + 1 + 8);
+        record.put(ADD);
+        putBytes(record, email);
+        putBytes(record, name);
+        putBytes(record, company);
+        record.put((byte) employee.getPosition().ordinal());
+        record.putDouble(employee.getSalary());
+        return append(record.array());
+    }
+
+    /**
+     * Zapisuje usunięcie pracownika
+     * @return numer rekordu do przekazania do awaitDurable
+     */
+    long employeeRemoved(Employee employee) {
+        byte[] email = utf8(employee.getEmail());
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + email.length);
+        record.put(REMOVE);
+        putBytes(record, email);
+        return append(record.array());
+    }
+
+    @Override
+    public void nameChanged(Employee employee, String oldFullName) {
+        byte[] email = utf8(employee.getEmail());
+        byte[] name = utf8(employee.getFullName());
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + email.length + 4 + name.length);
+        record.put(NAME);
+        putBytes(record, email);
+        putBytes(record, name);
+        appendDeferred(record.array());
+    }
+
+    @Override
+    public void companyChanged(Employee employee, String oldCompanyName) {
+        byte[] email = utf8(employee.getEmail());
+        byte[] company = utf8(employee.getCompanyName());
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + email.length + 4 + company.length);
+        record.put(COMPANY);
+        putBytes(record, email);
+        putBytes(record, company);
+        appendDeferred(record.array());
+    }
+
+    @Override
+    public void positionChanged(Employee employee, Position oldPosition, double oldSalary) {
+        byte[] email = utf8(employee.getEmail());
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + email.length + 1 + 8);
+        record.put(POSITION);
+        putBytes(record, email);
+        record.put((byte) employee.getPosition().ordinal());
+        record.putDouble(employee.getSalary());
+        appendDeferred(record.array());
+    }
+
+    @Override
+    public void salaryChanged(Employee employee, double oldSalary) {
+        byte[] email = utf8(employee.getEmail());
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + email.length + 8);
+        record.put(SALARY);
+        putBytes(record, email);
+        record.putDouble(employee.getSalary());
+        appendDeferred(record.array());
+    }
+
+    /**
+     * Czeka na rekordy dopisane przez setter w tym wątku - setter woła to już poza monitorem pracownika
+     */
+    @Override
+    public void changeCompleted(Employee employee) {
+        Deferred current = deferred.get();
+        if (current.depth > 0 || current.sequence == 0) {
+            return; // W awaitLater() czeka wywołujący
+        }
+        long sequence = current.sequence;
+        current.sequence = 0;
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Wykonuje zmianę bez czekania na fsync jej rekordów (np. pod blokadą operacji grupowej)
+     * @param action zmiana wykonywana przez settery w bieżącym wątku
+     * @return numer ostatniego dopisanego rekordu (0, jeśli nic nie dopisano) do przekazania do awaitDurable
+     */
+    long awaitLater(Runnable action) {
+        Deferred current = deferred.get();
+        long outer = current.sequence;
+        current.sequence = 0;
+        current.depth++;
+        try {
+            action.run();
+            return current.sequence;
+        } finally {
+            current.depth--;
+            current.sequence = outer;
+        }
+    }
+
+    /**
+     * W trybie ALWAYS czeka, aż rekord o podanym numerze (i wszystkie wcześniejsze) będzie na dysku.
+     * W pozostałych trybach wraca od razu.
+     */
+    void awaitDurable(long sequence) {
+        if (policy != SyncPolicy.ALWAYS) {
+            return;
+        }
+        lock.lock();
+        try {
+            boolean interrupted = false;
+            // Zamknięcie nie przerywa czekania - wątek zapisujący najpierw opróżnia bufor
+            while (durableSequence < sequence && failure == null && !stopped) {
+                try {
+                    durable.await();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Rekord jest już w buforze - dokończymy czekanie
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableSequence < sequence) {
+                throw new IllegalStateException(failure != null ? "Nie udało się zapisać dziennika zmian"
+                        : "Dziennik zmian zamknięty przed zapisem rekordu", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zapisuje pozostałe rekordy, wykonuje fsync i zamyka plik
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            channel.close();
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void appendDeferred(byte[] payload) {
+        long sequence = append(payload);
+        Deferred current = deferred.get();
+        current.sequence = Math.max(current.sequence, sequence);
+    }
+
+    private long append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Dziennik zmian jest zamknięty");
+            }
+            if (pending.remaining() < RECORD_HEADER_SIZE + payload.length) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2,
+                        pending.position() + RECORD_HEADER_SIZE + payload.length));
+                pending.flip();
+                grown.put(pending);
+                pending = grown;
+            }
+            pending.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            long sequence = ++appendedSequence;
+            pendingAvailable.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pętla wątku zapisującego: zabiera cały bufor, zapisuje go jednym wywołaniem
+     * i (zależnie od trybu) wykonuje jeden fsync dla całej paczki.
+     */
+    private void flushLoop() {
+        try {
+            flushBatches();
+        } finally {
+            lock.lock();
+            try {
+                stopped = true;
+                inFlush = false;
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void flushBatches() {
+        long lastSync = System.nanoTime();
+        while (true) {
+            long batchEnd;
+            FileChannel target;
+            lock.lock();
+            try {
+                while ((pending.position() == 0 || checkpointReached()) && !closed) {
+                    boolean unsynced = durableSequence < writtenSequence;
+                    if (!checkpointReached() && unsynced && System.nanoTime() - lastSync >= intervalNanos) {
+                        break; // Tryb INTERVAL: zapisane, ale jeszcze bez fsync - czas na niego
+                    }
+                    pendingAvailable.await(intervalNanos, TimeUnit.NANOSECONDS);
+                }
+                if (closed && pending.position() == 0 && durableSequence == writtenSequence) {
+                    return;
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                batchEnd = appendedSequence;
+                target = channel;
+                inFlush = true;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    target.write(writing);
+                }
+                writing.clear();
+                boolean sync = policy == SyncPolicy.ALWAYS || (policy == SyncPolicy.INTERVAL
+                        && (closed || System.nanoTime() - lastSync >= intervalNanos));
+                if (sync) {
+                    target.force(false);
+                    lastSync = System.nanoTime();
+                }
+                lock.lock();
+                try {
+                    writtenSequence = batchEnd;
+                    if (sync || policy == SyncPolicy.NEVER) {
+                        durableSequence = batchEnd;
+                    }
+                    inFlush = false;
+                    durable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    closed = true;
+                    inFlush = false;
+                    durable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean checkpointReached() {
+        return checkpointing && writtenSequence >= checkpointTarget;
+    }
+
+    private static final class Deferred {
+        int depth;
+        long sequence;
+    }
+
+    // ===== Odczyt =====
+
+    interface RecordConsumer {
+        void accept(ByteBuffer payload);
+    }
+
+    /**
+     * Czyta kolejne poprawne rekordy od początku pliku
+     * @return długość poprawnej części pliku (do pierwszego niekompletnego lub uszkodzonego rekordu)
+     */
+    private static long scan(FileChannel channel, RecordConsumer consumer) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        while (size - position >= RECORD_HEADER_SIZE) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(0);
+            int checksum = header.getInt(4);
+            if (length <= 0 || length > MAX_RECORD_SIZE || size - position - RECORD_HEADER_SIZE < length) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + RECORD_HEADER_SIZE);
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            if (consumer != null) {
+                payload.flip();
+                consumer.accept(payload);
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private static boolean apply(ByteBuffer payload, long record, EmployeeService target,
+                                 ImportErrorCollector errors) {
+        byte type = payload.get();
+        String email = getString(payload);
+        if (type == ADD) {
+            String fullName = getString(payload);
+            String companyName = getString(payload);
+            Position position = POSITIONS[payload.get()];
+            double salary = payload.getDouble();
+            Employee employee = new Employee(fullName, email, companyName, position);
+            employee.setSalary(salary);
+            // Pracownik już w migawce - późniejsze rekordy i tak ustawią jego aktualny stan
+            return target.addEmployee(employee);
+        }
+
+        if (type == REMOVE) {
+            // Pracownika mogło już nie być w migawce - usunięcie jest idempotentne
+            target.removeEmployee(email);
+            return true;
+        }
+
+        Employee employee = target.findEmployeeByEmail(email).orElse(null);
+        if (employee == null) {
+            errors.add(ImportError.at("Rekord dziennika", record, ImportErrorCode.MISSING_EMPLOYEE, email));
+            return false;
+        }
+        switch (type) {
+            case SALARY:
+                employee.setSalary(payload.getDouble());
+                return true;
+            case POSITION:
+                Position position = POSITIONS[payload.get()];
+                double salary = payload.getDouble();
+                synchronized (employee) {
+                    employee.setPosition(position);
+                    employee.setSalary(salary);
+                }
+                return true;
+            case COMPANY:
+                employee.setCompanyName(getString(payload));
+                return true;
+            case NAME:
+                employee.setFullName(getString(payload));
+                return true;
+            default:
+                errors.add(ImportError.withMessage(record, ImportErrorCode.INVALID_RECORD,
+                        "Rekord dziennika " + record + ": nieznany typ rekordu " + type));
+                return false;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("nieoczekiwany koniec pliku dziennika");
+            }
+        }
+    }
+
+    private static Path previousSegment(Path file) {
+        return file.resolveSibling(file.getFileName() + ".old");
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
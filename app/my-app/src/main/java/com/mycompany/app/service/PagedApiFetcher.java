@@ -0,0 +1,319 @@
+package com.mycompany.app.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Równoległe pobieranie stronicowanego API.
+ *
+ * Pula ma dokładnie tyle wątków, ile wynosi limit równoległości - każdy wątek pobiera
+ * kolejny wolny numer strony, więc w locie nigdy nie ma więcej zapytań niż limit.
+ * Wątki platformowe są tu tanią namiastką wątków wirtualnych (projekt jest budowany na Java 17);
+ * zapytania dzielą połączenia współdzielonego HttpClient (HTTP/2, gdy serwer go obsługuje).
+ *
+ * Strona jest najpierw w całości parsowana, a dopiero potem dodawana do serwisu paczką,
+ * dzięki czemu ponowienie po błędzie w połowie odpowiedzi nie tworzy fałszywych duplikatów.
+ * Paczki są dodawane w kolejności stron, więc wynik nie zależy od kolejności odpowiedzi.
+ * Wyjątek przy stronie (parsowanie, adres, zapis) oznacza nieudaną stronę, a nie zawieszony katalog.
+ */
+class PagedApiFetcher {
+    static final int MAX_CONSECUTIVE_FAILED_PAGES = 10;
+    // Znacznik strony, której nie udało się pobrać (porównywany przez ==)
+    private static final List<Employee> FAILED = Collections.unmodifiableList(new ArrayList<>());
+
+    private final ApiService apiService;
+    private final ApiFetchOptions options;
+
+    PagedApiFetcher(ApiService apiService, ApiFetchOptions options) {
+        this.apiService = apiService;
+        this.options = options;
+    }
+
+    ImportSummary fetchAll(IntFunction<String> pageUrl, EmployeeService target) {
+        PageWalk walk = new PageWalk(target);
+
+        ExecutorService pool = Executors.newFixedThreadPool(options.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "api-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < options.getConcurrency(); i++) {
+            pool.execute(() -> {
+                try {
+                    int page;
+                    while ((page = walk.nextPage()) > 0) {
+                        List<ImportError> pageErrors = new ArrayList<>();
+                        List<Employee> employees;
+                        try {
+                            employees = fetchPage(pageUrl.apply(page), page, pageErrors);
+                        } catch (Throwable e) {
+                            // Strona musi zostać zakończona - inaczej okno stoi, a pozostałe wątki czekają bez końca
+                            pageErrors.add(ImportError.withMessage(page, ImportErrorCode.OTHER,
+                                    "Strona " + page + ": " + e));
+                            employees = null;
+                        }
+                        walk.completed(page, employees, pageErrors);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    walk.abort(e);
+                }
+            });
+        }
+        pool.shutdown();
+
+        boolean interrupted = false;
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Czekamy na zakończenie wszystkich stron
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            interrupted = true;
+        }
+        return walk.summary(interrupted);
+    }
+
+    /**
+     * Kolejność stron: strony są pobierane równolegle, ale dodawane do serwisu według numerów.
+     * Tylko pusta odpowiedź kończy katalog - strony za nią (pobrane w międzyczasie) są odrzucane.
+     * Strona, której nie udało się pobrać, jest zgłaszana i pomijana; dopiero seria
+     * MAX_CONSECUTIVE_FAILED_PAGES nieudanych stron z rzędu przerywa pobieranie.
+     * Wątki nie wyprzedzają pierwszej niedodanej strony o więcej niż okno, więc bufor jest ograniczony.
+     * Błędy strony trafiają do kolektora dopiero, gdy strona jest na pewno przed końcem katalogu.
+     *
+     * Strony zdjęte z okna są dodawane do serwisu już poza blokadą (zapis i fsync dziennika
+     * nie blokują pozostałych wątków): dodaje je jeden wątek naraz, w kolejności kolejki,
+     * a pozostałe w tym czasie pobierają dalej.
+     */
+    private final class PageWalk {
+        private final EmployeeService target;
+        private final int window = options.getConcurrency() * 4;
+        // Pobrane strony czekające na wcześniejsze; FAILED - strona nie do pobrania
+        private final Map<Integer, List<Employee>> completed = new HashMap<>();
+        private final Map<Integer, List<ImportError>> pendingErrors = new HashMap<>();
+        // Strony zdjęte z okna, czekające na dodanie do serwisu; dodaje ten, kto ustawił adding
+        private final ArrayDeque<ReadyPage> toAdd = new ArrayDeque<>();
+        private boolean adding;
+        private final ImportErrorCollector errors = new ImportErrorCollector(ErrorReportOptions.defaults());
+        private int next = 1;
+        // Pierwsza strona, która nie została jeszcze dodana ani pominięta
+        private int frontier = 1;
+        // Pierwsza strona poza katalogiem - dalszych nie zlecamy i nie dodajemy
+        private int stopPage = options.getMaxPages() + 1;
+        // Najniższa pusta strona widziana do tej pory (może czekać na wcześniejsze) - za nią nie zlecamy
+        private int firstEmptyPage = Integer.MAX_VALUE;
+        private int consecutiveFailures;
+        private int importedCount;
+
+        PageWalk(EmployeeService target) {
+            this.target = target;
+        }
+
+        /**
+         * @return numer kolejnej strony do pobrania lub -1, jeśli katalog jest zakończony
+         */
+        synchronized int nextPage() throws InterruptedException {
+            while (next < lastPage() && next >= frontier + window) {
+                wait();
+            }
+            return next < lastPage() ? next++ : -1;
+        }
+
+        void completed(int page, List<Employee> employees, List<ImportError> pageErrors) {
+            synchronized (this) {
+                if (page >= stopPage) {
+                    return; // Strona za końcem katalogu - odrzucamy razem z błędami
+                }
+                completed.put(page, employees != null ? employees : FAILED);
+                if (employees != null && employees.isEmpty()) {
+                    firstEmptyPage = Math.min(firstEmptyPage, page);
+                }
+                if (!pageErrors.isEmpty()) {
+                    pendingErrors.put(page, pageErrors);
+                }
+                List<Employee> ready;
+                while (frontier < stopPage && (ready = completed.remove(frontier)) != null) {
+                    List<ImportError> readyErrors = pendingErrors.remove(frontier);
+                    List<Employee> readyEmployees = null;
+                    if (ready == FAILED) {
+                        if (++consecutiveFailures >= MAX_CONSECUTIVE_FAILED_PAGES) {
+                            readyErrors = new ArrayList<>(readyErrors != null ? readyErrors : List.of());
+                            readyErrors.add(ImportError.withMessage(frontier, ImportErrorCode.IO_ERROR,
+                                    "Przerwano pobieranie po " + consecutiveFailures + " nieudanych stronach z rzędu"));
+                            stop(frontier + 1);
+                        }
+                    } else if (ready.isEmpty()) {
+                        stop(frontier);
+                    } else {
+                        consecutiveFailures = 0;
+                        readyEmployees = ready;
+                    }
+                    if (readyErrors != null || readyEmployees != null) {
+                        toAdd.add(new ReadyPage(frontier, readyEmployees, readyErrors));
+                    }
+                    frontier++;
+                }
+                notifyAll();
+                if (adding || toAdd.isEmpty()) {
+                    return;
+                }
+                adding = true;
+            }
+            addReadyPages();
+        }
+
+        /**
+         * Kończy katalog po błędzie wątku poza obsługą strony, żeby pozostałe wątki nie czekały na okno.
+         */
+        synchronized void abort(Throwable cause) {
+            errors.add(ImportError.withMessage(frontier, ImportErrorCode.OTHER, "Przerwano pobieranie: " + cause));
+            stop(frontier);
+            notifyAll();
+        }
+
+        synchronized ImportSummary summary(boolean interrupted) {
+            if (interrupted) {
+                errors.add(ImportError.withMessage(0, ImportErrorCode.INTERRUPTED, "Pobieranie przerwane"));
+            }
+            return errors.summary(importedCount);
+        }
+
+        private int lastPage() {
+            return Math.min(stopPage, firstEmptyPage);
+        }
+
+        private void stop(int page) {
+            stopPage = page;
+            completed.clear();
+            pendingErrors.clear();
+        }
+
+        private void addReadyPages() {
+            try {
+                ReadyPage ready;
+                while ((ready = nextReadyPage()) != null) {
+                    add(ready);
+                }
+            } catch (Throwable e) {
+                synchronized (this) {
+                    adding = false;
+                }
+                throw e;
+            }
+        }
+
+        private synchronized ReadyPage nextReadyPage() {
+            ReadyPage ready = toAdd.poll();
+            if (ready == null) {
+                adding = false;
+            }
+            return ready;
+        }
+
+        private void add(ReadyPage ready) {
+            boolean[] added = null;
+            RuntimeException failure = null;
+            if (ready.employees != null) {
+                try {
+                    added = target.addEmployees(ready.employees);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            synchronized (this) {
+                if (ready.errors != null) {
+                    errors.addAll(ready.errors);
+                }
+                if (failure != null) {
+                    errors.add(ImportError.withMessage(ready.page, ImportErrorCode.OTHER,
+                            "Strona " + ready.page + ": nie udało się dodać pracowników: " + failure));
+                }
+                for (int j = 0; added != null && j < added.length; j++) {
+                    if (added[j]) {
+                        importedCount++;
+                    } else {
+                        errors.add(ImportError.at("Strona", ready.page, ImportErrorCode.DUPLICATE_EMAIL,
+                                ready.employees.get(j).getEmail()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class ReadyPage {
+        final int page;
+        // null - strona bez pracowników do dodania (nieudana)
+        final List<Employee> employees;
+        final List<ImportError> errors;
+
+        ReadyPage(int page, List<Employee> employees, List<ImportError> errors) {
+            this.page = page;
+            this.employees = employees;
+            this.errors = errors;
+        }
+    }
+
+    /**
+     * Pobiera jedną stronę, ponawiając przy błędach przejściowych.
+     * @return pracownicy ze strony lub null, jeśli strony nie udało się pobrać
+     */
+    private List<Employee> fetchPage(String url, int page, List<ImportError> errors) {
+        for (int attempt = 0; ; attempt++) {
+            List<Employee> employees = new ArrayList<>();
+            try {
+                apiService.streamEmployees(url, options.getRequestTimeout(), employees::add);
+                return employees;
+            } catch (ApiException e) {
+                if (attempt >= options.getMaxRetries() || !isRetryable(e)) {
+                    errors.add(ImportError.withMessage(page, ImportErrorCode.IO_ERROR, "Strona " + page + ": "
+                            + e.getMessage() + (attempt > 0 ? " (po " + (attempt + 1) + " próbach)" : "")));
+                    return null;
+                }
+            }
+            if (!sleepBeforeRetry(attempt)) {
+                errors.add(ImportError.withMessage(page, ImportErrorCode.INTERRUPTED, "Strona " + page + ": Pobieranie przerwane"));
+                return null;
+            }
+        }
+    }
+
+    private static boolean isRetryable(ApiException e) {
+        int status = e.getStatusCode();
+        if (status >= 0) {
+            return status == 429 || status >= 500;
+        }
+        // Timeout (HttpTimeoutException) i zerwane połączenie to IOException; przerwanie wątku - nie
+        return e.getCause() instanceof IOException;
+    }
+
+    /**
+     * "Full jitter": losowe opóźnienie z przedziału [0, min(max, początkowe * 2^próba)],
+     * żeby równoległe wątki nie ponawiały zapytań w tym samym momencie.
+     */
+    private boolean sleepBeforeRetry(int attempt) {
+        long initial = options.getInitialBackoff().toMillis();
+        long cap = Math.min(options.getMaxBackoff().toMillis(), initial << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
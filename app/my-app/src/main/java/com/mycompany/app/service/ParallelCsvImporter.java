@@ -0,0 +1,328 @@
+package com.mycompany.app.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mycompany.app.metrics.Metrics;
+import com.mycompany.app.metrics.Timer;
+import com.mycompany.app.model.Employee;
+
+/**
+ * Równoległy import pliku CSV.
+ *
+ * Plik jest dzielony na fragmenty (1-64 MB) kończące się na granicy linii.
+ * Każdy fragment jest mapowany do pamięci i parsowany na osobnym wątku.
+ * Wątek najpierw szybko liczy znaki nowej linii we fragmencie - dzięki temu
+ * kolejny fragment zna numer swojej pierwszej linii, zanim poprzedni skończy parsowanie.
+ *
+ * Wyniki są odbierane w kolejności z pliku i wstawiane do EmployeeService paczkami,
+ * więc duplikaty są wykrywane tak samo jak przy imporcie sekwencyjnym.
+ *
+ * Fragment nie zbiera błędów - zapamiętuje tylko położenie błędnych rekordów, a wątek główny
+ * parsuje je ponownie i zgłasza do wspólnego kolektora (z jego limitem szczegółów) w kolejności linii.
+ *
+ * Granica fragmentu to pierwszy znak nowej linii, więc może wypaść w polu w cudzysłowie.
+ * Fragment wie to dokładnie: jego ostatni rekord urywa się w cudzysłowie. Wtedy ten fragment
+ * i reszta pliku są importowane sekwencyjnie od początku fragmentu.
+ */
+class ParallelCsvImporter {
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 64L << 20;
+    private static final int BATCH_SIZE = 1024;
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private final EmployeeService employeeService;
+    private final int parallelism;
+    private final ErrorReportOptions errorOptions;
+
+    ParallelCsvImporter(EmployeeService employeeService, int parallelism, ErrorReportOptions errorOptions) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism musi być dodatnie: " + parallelism);
+        }
+        this.employeeService = employeeService;
+        this.parallelism = parallelism;
+        this.errorOptions = errorOptions;
+    }
+
+    ImportSummary importFile(String filePath) {
+        ImportErrorCollector errors = new ImportErrorCollector(errorOptions);
+        int importedCount = 0;
+        long rows = 0;
+        long bytes = 0;
+        Metrics metrics = Metrics.global();
+        Timer start = metrics.startTimer();
+
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "csv-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            bytes = size;
+            long chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, size / (parallelism * 4L)));
+
+            // Pomijamy nagłówek - to linia 1, dane zaczynają się od linii 2
+            long position = nextLineStart(channel, 0, size);
+            CompletableFuture<Integer> firstLine = CompletableFuture.completedFuture(2);
+
+            // Ograniczamy liczbę fragmentów w locie, żeby nie trzymać całego pliku w pamięci
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            while (position < size || !inFlight.isEmpty()) {
+                while (position < size && inFlight.size() < parallelism * 2) {
+                    long end = nextLineStart(channel, Math.min(position + chunkSize, size), size);
+                    CompletableFuture<Integer> nextFirstLine = new CompletableFuture<>();
+                    Chunk chunk = new Chunk(position, end - position, firstLine, nextFirstLine);
+                    inFlight.add(pool.submit(() -> parseChunk(channel, chunk)));
+                    firstLine = nextFirstLine;
+                    position = end;
+                }
+                ChunkResult result = inFlight.poll().get();
+                if (result.endsInsideQuotes) {
+                    // Kolejne fragmenty zaczynają się w środku pola - ich wyniki są bezużyteczne
+                    for (Future<ChunkResult> later : inFlight) {
+                        later.cancel(true);
+                    }
+                    inFlight.clear();
+                    AtomicInteger imported = new AtomicInteger();
+                    rows += importRemainder(channel, result, errors, imported);
+                    importedCount += imported.get();
+                    break;
+                }
+                rows += result.rows;
+                importedCount += insert(result, errors);
+            }
+        } catch (IOException e) {
+            errors.add(ImportError.of(0, ImportErrorCode.IO_ERROR, e.getMessage()));
+        } catch (ExecutionException e) {
+            errors.add(ImportError.of(0, ImportErrorCode.IO_ERROR, e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.add(ImportError.of(0, ImportErrorCode.INTERRUPTED, null));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        metrics.recordImport(rows, bytes, start);
+        return errors.summary(importedCount);
+    }
+
+    /**
+     * Parsuje jeden fragment pliku. Wywoływane na wątku z puli.
+     */
+    private ChunkResult parseChunk(FileChannel channel, Chunk chunk) throws IOException {
+        int firstLine;
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset, chunk.length);
+            int lineCount = countLines(buffer);
+            firstLine = chunk.firstLine.join();
+            chunk.nextFirstLine.complete(firstLine + lineCount);
+        } catch (RuntimeException | IOException e) {
+            // Kolejne fragmenty czekają na nasz numer linii - nie mogą zawisnąć
+            chunk.nextFirstLine.completeExceptionally(e);
+            throw e;
+        }
+
+        ChunkResult result = new ChunkResult(chunk.offset, firstLine, buffer);
+        CsvTokenizer tokenizer = new CsvTokenizer(ImportService.FIELD_COUNT);
+        int lineNumber = firstLine;
+        int limit = buffer.limit();
+        int position = 0;
+        boolean[] failed = new boolean[1];
+        while (position < limit) {
+            int recordStart = position;
+            // Fragment kończy się na granicy linii, więc jego koniec jest końcem danych
+            position = tokenizer.next(buffer, position, limit, true);
+
+            result.rows++;
+            failed[0] = false;
+            Employee employee = ImportService.parseRecord(tokenizer, lineNumber, error -> failed[0] = true);
+            if (employee != null) {
+                result.addEmployee(employee, lineNumber);
+            } else if (failed[0]) {
+                result.addError(recordStart, lineNumber);
+            }
+            lineNumber += Math.max(1, tokenizer.linesConsumed());
+        }
+        result.endsInsideQuotes = tokenizer.endedInsideQuotes();
+        return result;
+    }
+
+    /**
+     * Importuje sekwencyjnie (jak ImportService) od początku fragmentu do końca pliku
+     * @param imported licznik dodanych pracowników
+     * @return liczba przeczytanych rekordów
+     */
+    private long importRemainder(FileChannel channel, ChunkResult from, ImportErrorCollector errors,
+                                 AtomicInteger imported) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(ImportService.FIELD_COUNT);
+        CsvRecordReader reader = new CsvRecordReader(channel.position(from.offset), tokenizer, from.firstLine);
+        long rows = 0;
+        while (reader.next()) {
+            rows++;
+            int lineNumber = reader.lineNumber();
+            Employee employee = ImportService.parseRecord(tokenizer, lineNumber, errors::add);
+            if (employee == null) {
+                continue;
+            }
+            if (employeeService.addEmployee(employee)) {
+                imported.incrementAndGet();
+            } else {
+                errors.add(ImportService.duplicateError(lineNumber, employee));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Wstawia sparsowanych pracowników paczkami i scala błędy parsowania z błędami duplikatów
+     * tak, by zachować kolejność linii. Błędne rekordy są parsowane ponownie z bufora fragmentu,
+     * więc do kolektora trafia ten sam błąd co przy imporcie sekwencyjnym.
+     */
+    private int insert(ChunkResult result, ImportErrorCollector errors) {
+        // Numery (w result.employees) pracowników odrzuconych jako duplikaty
+        int[] duplicates = new int[16];
+        int duplicateCount = 0;
+        int importedCount = 0;
+
+        for (int from = 0; from < result.employees.size(); from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, result.employees.size());
+            List<Employee> batch = result.employees.subList(from, to);
+            boolean[] added = employeeService.addEmployees(batch);
+            for (int i = 0; i < added.length; i++) {
+                if (added[i]) {
+                    importedCount++;
+                } else {
+                    if (duplicateCount == duplicates.length) {
+                        duplicates = Arrays.copyOf(duplicates, duplicateCount * 2);
+                    }
+                    duplicates[duplicateCount++] = from + i;
+                }
+            }
+        }
+
+        CsvTokenizer tokenizer = new CsvTokenizer(ImportService.FIELD_COUNT);
+        int limit = result.buffer.limit();
+        int p = 0;
+        int d = 0;
+        while (p < result.errorCount || d < duplicateCount) {
+            if (d == duplicateCount || (p < result.errorCount
+                    && result.errorLines[p] < result.employeeLines[duplicates[d]])) {
+                tokenizer.next(result.buffer, result.errorOffsets[p], limit, true);
+                ImportService.parseRecord(tokenizer, result.errorLines[p++], errors::add);
+            } else {
+                int index = duplicates[d++];
+                errors.add(ImportService.duplicateError(result.employeeLines[index], result.employees.get(index)));
+            }
+        }
+        return importedCount;
+    }
+
+    private static int countLines(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        int count = 0;
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                count++;
+            }
+        }
+        // Ostatnia linia pliku może nie mieć znaku końca linii
+        if (limit > 0 && buffer.get(limit - 1) != '\n') {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Zwraca pozycję początku linii następującej po pozycji from (lub koniec pliku).
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        if (from >= size) {
+            return size;
+        }
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static class Chunk {
+        final long offset;
+        final long length;
+        final CompletableFuture<Integer> firstLine;
+        final CompletableFuture<Integer> nextFirstLine;
+
+        Chunk(long offset, long length, CompletableFuture<Integer> firstLine,
+              CompletableFuture<Integer> nextFirstLine) {
+            this.offset = offset;
+            this.length = length;
+            this.firstLine = firstLine;
+            this.nextFirstLine = nextFirstLine;
+        }
+    }
+
+    private static class ChunkResult {
+        final long offset;
+        final int firstLine;
+        final ByteBuffer buffer;
+        final List<Employee> employees = new ArrayList<>();
+        int[] employeeLines = new int[1024];
+        // Położenie (w buforze) i numer linii błędnych rekordów - bez obiektów błędów
+        int[] errorOffsets = new int[16];
+        int[] errorLines = new int[16];
+        int errorCount;
+        int rows;
+        boolean endsInsideQuotes;
+
+        ChunkResult(long offset, int firstLine, ByteBuffer buffer) {
+            this.offset = offset;
+            this.firstLine = firstLine;
+            this.buffer = buffer;
+        }
+
+        void addEmployee(Employee employee, int lineNumber) {
+            if (employees.size() == employeeLines.length) {
+                employeeLines = Arrays.copyOf(employeeLines, employeeLines.length * 2);
+            }
+            employeeLines[employees.size()] = lineNumber;
+            employees.add(employee);
+        }
+
+        void addError(int offset, int lineNumber) {
+            if (errorCount == errorOffsets.length) {
+                errorOffsets = Arrays.copyOf(errorOffsets, errorCount * 2);
+                errorLines = Arrays.copyOf(errorLines, errorCount * 2);
+            }
+            errorOffsets[errorCount] = offset;
+            errorLines[errorCount++] = lineNumber;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.app.service;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+import com.mycompany.app.store.GroupStatistics;
+
+/**
+ * Kanał komunikacji z jednym shardem ShardedEmployeeService.
+ *
+ * Wszystkie operacje są asynchroniczne, a wyniki to częściowe agregaty, które koordynator
+ * scala - dzięki temu shard może działać w tym samym procesie (InProcessShardTransport)
+ * albo w osobnym, za implementacją przesyłającą żądania przez sieć.
+ */
+public interface ShardTransport extends Closeable {
+
+    /**
+     * Dodaje pracownika na shardzie
+     * @return future z wynikiem: true jeśli dodano, false jeśli email już istnieje na shardzie
+     */
+    CompletableFuture<Boolean> addEmployee(Employee employee);
+
+    /**
+     * Usuwa pracownika z sharda
+     * @return future z wynikiem: true jeśli usunięto
+     */
+    CompletableFuture<Boolean> removeEmployee(String email);
+
+    CompletableFuture<Optional<Employee>> findEmployeeByEmail(String email);
+
+    /**
+     * @return agregaty firm z pracowników tego sharda
+     */
+    CompletableFuture<Map<String, GroupStatistics>> companyStatistics();
+
+    /**
+     * @return agregaty wszystkich pracowników tego sharda
+     */
+    CompletableFuture<GroupStatistics> totalStatistics();
+
+    CompletableFuture<Map<Position, Long>> countEmployeesByPosition();
+}
@@ -0,0 +1,254 @@
+package com.mycompany.app.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import com.mycompany.app.model.CompanyStatistics;
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+import com.mycompany.app.store.GroupStatistics;
+
+/**
+ * Serwis pracowników podzielony na N shardów.
+ *
+ * Pracownik trafia na shard wyznaczony z nazwy firmy albo z emaila (ShardKey).
+ * Zapytania statystyczne są wysyłane do wszystkich shardów równolegle (scatter),
+ * a częściowe agregaty - scalane (gather). Shardy są dostępne przez ShardTransport,
+ * więc mogą działać w tym procesie lub w osobnych.
+ *
+ * Unikalność emaila jest globalna: przy podziale po emailu zapewnia ją sam shard
+ * (ten sam email zawsze trafia w to samo miejsce), przy podziale po firmie -
+ * rejestr emaili koordynatora.
+ *
+ * Zmiana firmy pracownika po dodaniu nie przenosi go między shardami. Wyniki zapytań
+ * pozostają poprawne, bo agregaty firm są scalane ze wszystkich shardów.
+ */
+public class ShardedEmployeeService implements AutoCloseable {
+
+    /**
+     * Klucz podziału pracowników na shardy
+     */
+    public enum ShardKey {
+        /** Cała firma na jednym shardzie - zapytania o firmę czytają jeden shard */
+        COMPANY,
+        /** Równomierny rozkład niezależnie od wielkości firm */
+        EMAIL
+    }
+
+    private final List<ShardTransport> shards;
+    private final ShardKey shardKey;
+    // Email -> numer sharda; tylko przy podziale po firmie
+    private final Map<String, Integer> emailRegistry;
+    // Pula shardów w procesie - null, gdy transporty zostały przekazane z zewnątrz
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * @param shards transporty do shardów (kolejność wyznacza numer sharda)
+     * @param shardKey klucz podziału
+     */
+    public ShardedEmployeeService(List<ShardTransport> shards, ShardKey shardKey) {
+        this(shards, shardKey, null);
+    }
+
+    private ShardedEmployeeService(List<ShardTransport> shards, ShardKey shardKey, ExecutorService ownedExecutor) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Wymagany jest co najmniej jeden shard");
+        }
+        this.shards = List.copyOf(shards);
+        this.shardKey = shardKey;
+        this.emailRegistry = shardKey == ShardKey.COMPANY ? new ConcurrentHashMap<>() : null;
+        this.ownedExecutor = ownedExecutor;
+    }
+
+    /**
+     * Tworzy serwis z shardami w tym procesie - każdy to osobny EmployeeService
+     * @param shardCount liczba shardów
+     * @param shardKey klucz podziału
+     * @return serwis, który po close() zamyka swoją pulę wątków
+     */
+    public static ShardedEmployeeService inProcess(int shardCount, ShardKey shardKey) {
+        ExecutorService executor = Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "employee-shard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<ShardTransport> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new InProcessShardTransport(new EmployeeService(), executor));
+        }
+        return new ShardedEmployeeService(shards, shardKey, executor);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Dodaje pracownika z walidacją globalnej unikalności emaila
+     * @param employee pracownik do dodania
+     * @return true jeśli dodano, false jeśli email już istnieje na którymkolwiek shardzie
+     */
+    public boolean addEmployee(Employee employee) {
+        int shard = shardFor(employee);
+        if (emailRegistry != null && emailRegistry.putIfAbsent(employee.getEmail(), shard) != null) {
+            return false;
+        }
+        boolean added = false;
+        try {
+            added = join(shards.get(shard).addEmployee(employee));
+            return added;
+        } finally {
+            // Zwalniamy email, jeśli shard go nie przyjął (również po błędzie transportu)
+            if (!added && emailRegistry != null) {
+                emailRegistry.remove(employee.getEmail(), shard);
+            }
+        }
+    }
+
+    /**
+     * Usuwa pracownika - email można potem użyć ponownie
+     * @return true jeśli usunięto, false jeśli pracownika nie ma
+     */
+    public boolean removeEmployee(String email) {
+        Integer shard = emailRegistry != null ? emailRegistry.get(email) : Integer.valueOf(partition(email));
+        if (shard == null || !join(shards.get(shard).removeEmployee(email))) {
+            return false;
+        }
+        if (emailRegistry != null) {
+            emailRegistry.remove(email, shard);
+        }
+        return true;
+    }
+
+    /**
+     * Wyszukuje pracownika - pytany jest tylko shard, na którym może się znajdować
+     */
+    public Optional<Employee> findEmployeeByEmail(String email) {
+        Integer shard;
+        if (emailRegistry != null) {
+            shard = emailRegistry.get(email);
+            if (shard == null) {
+                return Optional.empty();
+            }
+        } else {
+            shard = partition(email);
+        }
+        return join(shards.get(shard).findEmployeeByEmail(email));
+    }
+
+    /**
+     * Statystyki firm scalone ze wszystkich shardów
+     * @return mapa: nazwa firmy -> statystyki
+     */
+    public Map<String, CompanyStatistics> getCompanyStatistics() {
+        Map<String, GroupStatistics> merged = new HashMap<>();
+        for (Map<String, GroupStatistics> partial : scatter(ShardTransport::companyStatistics)) {
+            partial.forEach((companyName, statistics) -> merged.merge(companyName, statistics, GroupStatistics::merge));
+        }
+        return EmployeeService.toCompanyStatistics(merged);
+    }
+
+    /**
+     * Średnia pensja - z sum i liczności shardów, nie ze średnich (te byłyby ważone źle)
+     * @return średnia pensja lub 0.0 gdy brak pracowników
+     */
+    public double calculateAverageSalary() {
+        return totalStatistics().getAverageSalary();
+    }
+
+    public Optional<Employee> findHighestPaidEmployee() {
+        return Optional.ofNullable(totalStatistics().getHighestPaid());
+    }
+
+    public long getEmployeeCount() {
+        return totalStatistics().getCount();
+    }
+
+    /**
+     * Liczba pracowników na stanowiskach zsumowana ze wszystkich shardów
+     */
+    public Map<Position, Long> countEmployeesByPosition() {
+        Map<Position, Long> merged = new EnumMap<>(Position.class);
+        for (Map<Position, Long> partial : scatter(ShardTransport::countEmployeesByPosition)) {
+            partial.forEach((position, count) -> merged.merge(position, count, Long::sum));
+        }
+        return merged;
+    }
+
+    private GroupStatistics totalStatistics() {
+        GroupStatistics total = GroupStatistics.EMPTY;
+        for (GroupStatistics partial : scatter(ShardTransport::totalStatistics)) {
+            total = total.merge(partial);
+        }
+        return total;
+    }
+
+    /**
+     * Wysyła żądanie do wszystkich shardów naraz i czeka na wszystkie odpowiedzi
+     */
+    private <T> List<T> scatter(Function<ShardTransport, CompletableFuture<T>> request) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (ShardTransport shard : shards) {
+            futures.add(request.apply(shard));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Odsłaniamy właściwą przyczynę zamiast opakowania CompletableFuture
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private int shardFor(Employee employee) {
+        return partition(shardKey == ShardKey.COMPANY ? employee.getCompanyName() : employee.getEmail());
+    }
+
+    private int partition(String key) {
+        return Math.floorMod(key.hashCode(), shards.size());
+    }
+
+    @Override
+    public void close() {
+        IOException failure = null;
+        for (ShardTransport shard : shards) {
+            try {
+                shard.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+}
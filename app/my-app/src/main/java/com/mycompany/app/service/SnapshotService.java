@@ -0,0 +1,284 @@
+package com.mycompany.app.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Zapis i odczyt zbioru pracowników w zwartym formacie binarnym.
+ *
+ * Układ pliku (big-endian):
+ * <pre>
+ * nagłówek: magic "EMPS" (int), wersja (int), liczba rekordów (long)
+ * rekord:   id firmy (int), [nazwa firmy - tylko przy pierwszym użyciu id], stanowisko (byte),
+ *           pensja (double), imię i nazwisko, email
+ * napis:    długość w bajtach (int) + bajty UTF-8
+ * </pre>
+ * Nazwy firm tworzą słownik budowany w trakcie zapisu: rekord z id równym bieżącemu rozmiarowi
+ * słownika niesie nową nazwę, pozostałe tylko jej numer. Dzięki temu zapis to jeden przebieg,
+ * a każda firma jest w pliku (i po odczycie w pamięci) dokładnie raz.
+ *
+ * Odczyt mapuje plik do pamięci (FileChannel.map) oknami, więc nie ma kopiowania
+ * przez bufor strumienia, a rozmiar pliku nie jest ograniczony do 2 GB.
+ */
+public class SnapshotService {
+    static final int MAGIC = 0x454D5053; // "EMPS"
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final long MAP_WINDOW_SIZE = 256L << 20;
+    private static final int BATCH_SIZE = 1024;
+    private static final Position[] POSITIONS = Position.values();
+
+    private final EmployeeService employeeService;
+
+    public SnapshotService(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    /**
+     * Zapisuje wszystkich pracowników do pliku migawki.
+     * Plik powstaje obok docelowego i jest podmieniany atomowo, więc przerwany zapis
+     * nie niszczy poprzedniej migawki.
+     *
+     * @param file ścieżka pliku migawki
+     * @return liczba zapisanych pracowników
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    public long save(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "snapshot", ".tmp");
+        long count = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+                buffer.putInt(MAGIC).putInt(VERSION).putLong(0); // Liczba rekordów uzupełniana na końcu
+                Map<String, Integer> companyIds = new HashMap<>();
+
+                for (Employee employee : employeeService.employeeView()) {
+                    String fullName;
+                    String companyName;
+                    Position position;
+                    double salary;
+                    synchronized (employee) { // Settery są synchronizowane - czytamy spójny stan
+                        fullName = employee.getFullName();
+                        companyName = employee.getCompanyName();
+                        position = employee.getPosition();
+                        salary = employee.getSalary();
+                    }
+                    byte[] name = fullName.getBytes(StandardCharsets.UTF_8);
+                    byte[] email = employee.getEmail().getBytes(StandardCharsets.UTF_8);
+                    Integer companyId = companyIds.get(companyName);
+                    byte[] newCompany = null;
+                    if (companyId == null) {
+                        companyId = companyIds.size();
+                        companyIds.put(companyName, companyId);
+                        newCompany = companyName.getBytes(StandardCharsets.UTF_8);
+                    }
+
+                    int recordSize = 4 + (newCompany != null ? 4 + newCompany.length : 0)
+                            + 1 + 8 + 4 + name.length + 4 + email.length;
+                    if (buffer.remaining() < recordSize) {
+                        flush(channel, buffer);
+                        if (buffer.capacity() < recordSize) {
+                            buffer = ByteBuffer.allocateDirect(recordSize);
+                        }
+                    }
+                    buffer.putInt(companyId);
+                    if (newCompany != null) {
+                        putBytes(buffer, newCompany);
+                    }
+                    buffer.put((byte) position.ordinal());
+                    buffer.putDouble(salary);
+                    putBytes(buffer, name);
+                    putBytes(buffer, email);
+                    count++;
+                }
+                flush(channel, buffer);
+
+                buffer.clear();
+                buffer.putLong(count).flip();
+                channel.write(buffer, 8);
+                channel.force(false);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return count;
+    }
+
+    /**
+     * Wczytuje pracowników z pliku migawki i dodaje ich do serwisu (razem z indeksami).
+     *
+     * @param file ścieżka pliku migawki
+     * @return podsumowanie: liczba dodanych pracowników i błędy (duplikaty, uszkodzony plik)
+     */
+    public ImportSummary load(Path file) {
+        ImportErrorCollector errors = new ImportErrorCollector(ErrorReportOptions.defaults());
+        List<Employee> batch = new ArrayList<>(BATCH_SIZE);
+        long batchStart = 1;
+        int importedCount = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedInput input = new MappedInput(channel);
+            if (input.size < HEADER_SIZE || input.getInt() != MAGIC) {
+                throw new IOException("to nie jest plik migawki pracowników");
+            }
+            int version = input.getInt();
+            if (version != VERSION) {
+                throw new IOException("nieobsługiwana wersja " + version);
+            }
+            long count = input.getLong();
+
+            List<String> companies = new ArrayList<>();
+            for (long record = 1; record <= count; record++) {
+                int companyId = input.getInt();
+                if (companyId == companies.size()) {
+                    companies.add(input.getString());
+                } else if (companyId < 0 || companyId > companies.size()) {
+                    throw new IOException("rekord " + record + ": nieprawidłowy numer firmy " + companyId);
+                }
+                int ordinal = input.getByte();
+                if (ordinal < 0 || ordinal >= POSITIONS.length) {
+                    throw new IOException("rekord " + record + ": nieprawidłowe stanowisko " + ordinal);
+                }
+                double salary = input.getDouble();
+                if (!Double.isFinite(salary)) {
+                    throw new IOException("rekord " + record + ": nieprawidłowa pensja " + salary);
+                }
+                String fullName = input.getString();
+                String email = input.getString();
+
+                Employee employee = new Employee(fullName, email, companies.get(companyId), POSITIONS[ordinal]);
+                employee.setSalary(salary);
+                batch.add(employee);
+                if (batch.size() == BATCH_SIZE) {
+                    importedCount += addBatch(batch, batchStart, errors);
+                    batch.clear();
+                    batchStart = record + 1;
+                }
+            }
+        } catch (IOException e) {
+            errors.add(ImportError.withMessage(0, ImportErrorCode.IO_ERROR, "Błąd odczytu migawki: " + e.getMessage()));
+        }
+        // Rekordy sprzed ewentualnego uszkodzenia są poprawne - dodajemy je mimo błędu
+        importedCount += addBatch(batch, batchStart, errors);
+
+        return errors.summary(importedCount);
+    }
+
+    private int addBatch(List<Employee> batch, long firstRecord, ImportErrorCollector errors) {
+        int added = 0;
+        boolean[] results = employeeService.addEmployees(batch);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i]) {
+                added++;
+            } else {
+                errors.add(ImportError.at("Rekord", firstRecord + i, ImportErrorCode.DUPLICATE_EMAIL,
+                        batch.get(i).getEmail()));
+            }
+        }
+        return added;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Sekwencyjny odczyt pliku przez kolejne okna zmapowane do pamięci.
+     * Okno jest przesuwane, gdy następna wartość się w nim nie mieści.
+     */
+    private static final class MappedInput {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        int getInt() throws IOException {
+            ensure(4);
+            return window.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(8);
+            return window.getLong();
+        }
+
+        double getDouble() throws IOException {
+            ensure(8);
+            return window.getDouble();
+        }
+
+        byte getByte() throws IOException {
+            ensure(1);
+            return window.get();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0 || length > size) {
+                throw new IOException("nieprawidłowa długość napisu " + length);
+            }
+            ensure(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (window.remaining() >= bytes) {
+                return;
+            }
+            long position = windowStart + window.position();
+            if (size - position < bytes) {
+                throw new EOFException("plik migawki jest niekompletny");
+            }
+            map(position);
+            if (window.remaining() < bytes) {
+                throw new IOException("wartość większa niż okno mapowania");
+            }
+        }
+
+        private void map(long position) throws IOException {
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW_SIZE, size - position));
+        }
+    }
+}
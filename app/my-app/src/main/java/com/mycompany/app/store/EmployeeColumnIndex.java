@@ -0,0 +1,117 @@
+package com.mycompany.app.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Kolumny pensji, stanowisk i firm wszystkich pracowników, aktualizowane przy każdej zmianie.
+ *
+ * Każda zmiana to zapis jednej komórki - O(1). Usunięcie przenosi ostatni wiersz w miejsce
+ * usuniętego, więc tablice nie mają dziur. Migawka (snapshot()) to kopia tablic
+ * (System.arraycopy), a nie przejście po obiektach Employee jak w EmployeeColumns.of().
+ *
+ * Słownik firm tylko rośnie - firma bez pracowników zostaje w nim z liczbą 0,
+ * a EmployeeColumns ją pomija.
+ *
+ * Wszystkie operacje są serializowane blokadą indeksu.
+ */
+public class EmployeeColumnIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Employee[] rows = new Employee[INITIAL_CAPACITY];
+    private double[] salaries = new double[INITIAL_CAPACITY];
+    private byte[] positions = new byte[INITIAL_CAPACITY];
+    private int[] companyIds = new int[INITIAL_CAPACITY];
+    private int size;
+    // Pracownik -> numer jego wiersza
+    private final Map<Employee, Integer> rowOf = new HashMap<>();
+    private final Map<String, Integer> companyDictionary = new HashMap<>();
+    private final List<String> companyNames = new ArrayList<>();
+
+    public synchronized void add(Employee employee, double salary) {
+        if (size == rows.length) {
+            int grown = size + (size >> 1);
+            rows = Arrays.copyOf(rows, grown);
+            salaries = Arrays.copyOf(salaries, grown);
+            positions = Arrays.copyOf(positions, grown);
+            companyIds = Arrays.copyOf(companyIds, grown);
+        }
+        rows[size] = employee;
+        salaries[size] = salary;
+        positions[size] = (byte) employee.getPosition().ordinal();
+        companyIds[size] = companyId(employee.getCompanyName());
+        rowOf.put(employee, size);
+        size++;
+    }
+
+    public synchronized void remove(Employee employee) {
+        Integer row = rowOf.remove(employee);
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            Employee moved = rows[last];
+            rows[row] = moved;
+            salaries[row] = salaries[last];
+            positions[row] = positions[last];
+            companyIds[row] = companyIds[last];
+            rowOf.put(moved, row);
+        }
+        rows[last] = null;
+    }
+
+    public synchronized void salaryChanged(Employee employee, double newSalary) {
+        Integer row = rowOf.get(employee);
+        if (row != null) {
+            salaries[row] = newSalary;
+        }
+    }
+
+    public synchronized void positionChanged(Employee employee, Position position, double newSalary) {
+        Integer row = rowOf.get(employee);
+        if (row != null) {
+            positions[row] = (byte) position.ordinal();
+            salaries[row] = newSalary;
+        }
+    }
+
+    public synchronized void companyChanged(Employee employee, String companyName) {
+        Integer row = rowOf.get(employee);
+        if (row != null) {
+            companyIds[row] = companyId(companyName);
+        }
+    }
+
+    /**
+     * @return pracownicy z pensją niższą niż stawka bazowa ich stanowiska - przebieg po bieżących kolumnach, bez kopii
+     */
+    public synchronized List<Employee> belowBaseSalary() {
+        return EmployeeColumns.belowBaseSalary(rows, salaries, positions, size);
+    }
+
+    /**
+     * Kopiuje kolumny do niemutowalnej migawki - O(n), ale bez odczytu obiektów Employee
+     */
+    public synchronized EmployeeColumns snapshot() {
+        return new EmployeeColumns(size, Arrays.copyOf(rows, size), Arrays.copyOf(salaries, size),
+                Arrays.copyOf(positions, size), Arrays.copyOf(companyIds, size),
+                companyNames.toArray(new String[0]), new HashMap<>(companyDictionary));
+    }
+
+    private int companyId(String companyName) {
+        Integer id = companyDictionary.get(companyName);
+        if (id == null) {
+            id = companyNames.size();
+            companyDictionary.put(companyName, id);
+            companyNames.add(companyName);
+        }
+        return id;
+    }
+}
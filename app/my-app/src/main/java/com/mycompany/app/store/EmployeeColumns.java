@@ -0,0 +1,198 @@
+package com.mycompany.app.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Kolumnowa migawka zbioru pracowników do zapytań analitycznych.
+ *
+ * Zamiast przechodzić po obiektach Employee (skoki po stercie i wywołania getterów),
+ * zapytania iterują po ciągłych tablicach prymitywów: pensje (double[]), numery
+ * porządkowe stanowisk (byte[]) i identyfikatory firm ze słownika (int[]).
+ * Wiersz i we wszystkich tablicach opisuje tego samego pracownika rows[i].
+ *
+ * Migawka jest niemutowalna - późniejsze zmiany pracowników nie są w niej widoczne.
+ * EmployeeStore tworzy ją kopią kolumn utrzymywanych na bieżąco (EmployeeColumnIndex).
+ */
+public class EmployeeColumns {
+    private static final Position[] POSITIONS = Position.values();
+    private static final double[] BASE_SALARIES = new double[POSITIONS.length];
+
+    static {
+        for (Position position : POSITIONS) {
+            BASE_SALARIES[position.ordinal()] = position.getBaseSalary();
+        }
+    }
+
+    private final int size;
+    private final Employee[] rows;
+    private final double[] salaries;
+    private final byte[] positions;
+    private final int[] companyIds;
+    private final String[] companyNames;
+    private final Map<String, Integer> companyDictionary;
+
+    EmployeeColumns(int size, Employee[] rows, double[] salaries, byte[] positions,
+                            int[] companyIds, String[] companyNames, Map<String, Integer> companyDictionary) {
+        this.size = size;
+        this.rows = rows;
+        this.salaries = salaries;
+        this.positions = positions;
+        this.companyIds = companyIds;
+        this.companyNames = companyNames;
+        this.companyDictionary = companyDictionary;
+    }
+
+    /**
+     * Buduje migawkę z kolekcji pracowników - O(n)
+     * @param employees pracownicy (kolekcja może się zmieniać współbieżnie)
+     * @return migawka kolumnowa
+     */
+    public static EmployeeColumns of(Collection<Employee> employees) {
+        int capacity = employees.size();
+        Employee[] rows = new Employee[capacity];
+        double[] salaries = new double[capacity];
+        byte[] positions = new byte[capacity];
+        int[] companyIds = new int[capacity];
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> companyNames = new ArrayList<>();
+
+        int size = 0;
+        for (Employee employee : employees) {
+            if (size == rows.length) {
+                // Kolekcja urosła w trakcie budowania migawki
+                int grown = Math.max(16, size + (size >> 1));
+                rows = Arrays.copyOf(rows, grown);
+                salaries = Arrays.copyOf(salaries, grown);
+                positions = Arrays.copyOf(positions, grown);
+                companyIds = Arrays.copyOf(companyIds, grown);
+            }
+            String companyName = employee.getCompanyName();
+            Integer companyId = dictionary.get(companyName);
+            if (companyId == null) {
+                companyId = companyNames.size();
+                dictionary.put(companyName, companyId);
+                companyNames.add(companyName);
+            }
+            rows[size] = employee;
+            salaries[size] = employee.getSalary();
+            positions[size] = (byte) employee.getPosition().ordinal();
+            companyIds[size] = companyId;
+            size++;
+        }
+        return new EmployeeColumns(size, rows, salaries, positions, companyIds,
+                companyNames.toArray(new String[0]), dictionary);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return średnia pensja lub 0.0 dla pustej migawki
+     */
+    public double averageSalary() {
+        if (size == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += salaries[i];
+        }
+        return sum / size;
+    }
+
+    /**
+     * @return liczba pracowników na stanowiskach, indeksowana Position.ordinal()
+     */
+    public long[] countByPosition() {
+        long[] counts = new long[POSITIONS.length];
+        for (int i = 0; i < size; i++) {
+            counts[positions[i]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @return pracownicy z pensją niższą niż stawka bazowa ich stanowiska
+     */
+    public List<Employee> belowBaseSalary() {
+        return belowBaseSalary(rows, salaries, positions, size);
+    }
+
+    static List<Employee> belowBaseSalary(Employee[] rows, double[] salaries, byte[] positions, int size) {
+        List<Employee> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (salaries[i] < BASE_SALARIES[positions[i]]) {
+                result.add(rows[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Statystyki wszystkich firm w jednym przebiegu po kolumnach
+     * @return mapa: nazwa firmy -> statystyki
+     */
+    public Map<String, GroupStatistics> companyStatistics() {
+        int companies = companyNames.length;
+        long[] counts = new long[companies];
+        double[] sums = new double[companies];
+        int[] highest = new int[companies];
+        Arrays.fill(highest, -1);
+
+        for (int i = 0; i < size; i++) {
+            int company = companyIds[i];
+            double salary = salaries[i];
+            counts[company]++;
+            sums[company] += salary;
+            int best = highest[company];
+            if (best < 0 || salary > salaries[best]) {
+                highest[company] = i;
+            }
+        }
+
+        Map<String, GroupStatistics> result = new HashMap<>(companies * 2);
+        for (int c = 0; c < companies; c++) {
+            int best = highest[c];
+            if (best < 0) {
+                continue; // Firma ze słownika bez pracowników
+            }
+            result.put(companyNames[c], new GroupStatistics(counts[c], sums[c], rows[best], salaries[best]));
+        }
+        return result;
+    }
+
+    /**
+     * Statystyki jednej firmy - przebieg tylko po kolumnie identyfikatorów i pensji
+     * @param companyName nazwa firmy
+     * @return statystyki lub GroupStatistics.EMPTY, jeśli firma nie ma w migawce pracowników
+     */
+    public GroupStatistics companyStatistics(String companyName) {
+        Integer companyId = companyDictionary.get(companyName);
+        if (companyId == null) {
+            return GroupStatistics.EMPTY;
+        }
+        int company = companyId;
+        long count = 0;
+        double sum = 0.0;
+        int best = -1;
+        for (int i = 0; i < size; i++) {
+            if (companyIds[i] == company) {
+                count++;
+                sum += salaries[i];
+                if (best < 0 || salaries[i] > salaries[best]) {
+                    best = i;
+                }
+            }
+        }
+        return best < 0 ? GroupStatistics.EMPTY : new GroupStatistics(count, sum, rows[best], salaries[best]);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mycompany.app.store;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Grupa pracowników w indeksie (jedna firma lub jedno stanowisko)
+ * razem z bieżącymi agregatami wynagrodzeń.
+ */
+public class EmployeeGroup {
+    private final Set<Employee> members = ConcurrentHashMap.newKeySet();
+    private final SalaryAggregate aggregate;
+
+    EmployeeGroup(double relativeAccuracy) {
+        this.aggregate = new SalaryAggregate(relativeAccuracy);
+    }
+
+    void add(Employee employee, double salary) {
+        members.add(employee);
+        aggregate.add(employee, salary);
+    }
+
+    void remove(Employee employee, double salary) {
+        members.remove(employee);
+        aggregate.remove(employee, salary);
+    }
+
+    void salaryChanged(Employee employee, double oldSalary, double newSalary) {
+        aggregate.salaryChanged(employee, oldSalary, newSalary);
+    }
+
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * Widok (tylko do odczytu) na członków grupy
+     */
+    public Set<Employee> members() {
+        return Collections.unmodifiableSet(members);
+    }
+
+    /**
+     * Statystyki wynagrodzeń grupy - O(1), chyba że trzeba ponownie wyznaczyć lidera
+     */
+    public GroupStatistics statistics() {
+        return aggregate.snapshot(members);
+    }
+
+    /**
+     * Rozkład pensji grupy (kopia szkicu) - do percentyli i histogramów
+     */
+    public SalarySketch salaryDistribution() {
+        return aggregate.distribution();
+    }
+}
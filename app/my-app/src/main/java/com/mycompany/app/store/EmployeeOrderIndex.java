@@ -0,0 +1,144 @@
+package com.mycompany.app.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Posortowane indeksy pracowników do paginacji kursorem: po emailu, po nazwisku
+ * i po emailu w obrębie firmy.
+ *
+ * Każdy indeks to ConcurrentSkipListMap z unikalnym kluczem (nazwisko i firma są uzupełniane
+ * emailem), więc strona "po kursorze" to wyszukanie klucza w O(log n) i przejście
+ * po kolejnych pozycjach - bez kopiowania i sortowania całego zbioru.
+ *
+ * Kursorem jest ostatni klucz poprzedniej strony: email dla list po emailu i w firmie,
+ * a dla listy po nazwisku - nazwisko i email oddzielone znakiem o kodzie 0.
+ * Kursor bez tego separatora oznacza samo nazwisko: strona zaczyna się od następnego nazwiska.
+ *
+ * Zapisy odbywają się pod monitorem pracownika (z EmployeeStore), odczyty nie blokują
+ * i są słabo spójne - pracownik zmieniony w trakcie przeglądania może pojawić się
+ * na dwóch stronach albo na żadnej.
+ */
+public class EmployeeOrderIndex {
+    // Oddziela nazwisko lub firmę od emaila w kluczu - mniejszy od każdego znaku tekstu
+    private static final char KEY_SEPARATOR = '\u0000';
+    // Następnik separatora - klucz tuż za wszystkimi kluczami z danym nazwiskiem lub firmą
+    private static final char AFTER_SEPARATOR = '\u0001';
+
+    private final ConcurrentSkipListMap<String, Employee> byEmail = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Employee> byLastName = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Employee> byCompanyEmail = new ConcurrentSkipListMap<>();
+
+    public void add(Employee employee) {
+        byEmail.put(employee.getEmail(), employee);
+        byLastName.put(lastNameKey(employee.getLastName(), employee), employee);
+        byCompanyEmail.put(companyKey(employee.getCompanyName(), employee), employee);
+    }
+
+    public void remove(Employee employee) {
+        byEmail.remove(employee.getEmail(), employee);
+        byLastName.remove(lastNameKey(employee.getLastName(), employee), employee);
+        byCompanyEmail.remove(companyKey(employee.getCompanyName(), employee), employee);
+    }
+
+    /**
+     * @param oldFullName imię i nazwisko sprzed zmiany
+     */
+    public void renamed(Employee employee, String oldFullName) {
+        byLastName.remove(lastNameKey(Employee.lastNameOf(oldFullName), employee), employee);
+        byLastName.put(lastNameKey(employee.getLastName(), employee), employee);
+    }
+
+    /**
+     * @param oldCompanyName firma sprzed zmiany
+     */
+    public void companyChanged(Employee employee, String oldCompanyName) {
+        byCompanyEmail.remove(companyKey(oldCompanyName, employee), employee);
+        byCompanyEmail.put(companyKey(employee.getCompanyName(), employee), employee);
+    }
+
+    /**
+     * Strona pracowników w kolejności emaili
+     * @param afterEmail email ostatniego pracownika poprzedniej strony lub null dla pierwszej strony
+     * @param limit maksymalny rozmiar strony
+     */
+    public EmployeePage pageByEmail(String afterEmail, int limit) {
+        return page(afterEmail == null ? byEmail : byEmail.tailMap(afterEmail, false), limit, false);
+    }
+
+    /**
+     * Strona pracowników firmy w kolejności emaili
+     * @param afterEmail email ostatniego pracownika poprzedniej strony lub null dla pierwszej strony
+     * @param limit maksymalny rozmiar strony
+     */
+    public EmployeePage pageByCompany(String companyName, String afterEmail, int limit) {
+        String prefix = companyName + KEY_SEPARATOR;
+        String end = companyName + AFTER_SEPARATOR;
+        NavigableMap<String, Employee> range = afterEmail == null
+                ? byCompanyEmail.subMap(prefix, true, end, false)
+                : byCompanyEmail.subMap(prefix + afterEmail, false, end, false);
+        return page(range, limit, false);
+    }
+
+    /**
+     * Strona pracowników w kolejności nazwisk (przy równych nazwiskach - emaili)
+     * @param afterCursor kursor z poprzedniej strony, samo nazwisko lub null dla pierwszej strony
+     * @param limit maksymalny rozmiar strony
+     */
+    public EmployeePage pageByLastName(String afterCursor, int limit) {
+        return page(tailByLastName(afterCursor), limit, true);
+    }
+
+    /**
+     * Widok (tylko do odczytu) na pracowników posortowanych po nazwisku, od kursora
+     * @param afterCursor jak w pageByLastName(); null - od początku
+     */
+    public Collection<Employee> byLastName(String afterCursor) {
+        return Collections.unmodifiableCollection(tailByLastName(afterCursor).values());
+    }
+
+    private NavigableMap<String, Employee> tailByLastName(String afterCursor) {
+        if (afterCursor == null) {
+            return byLastName;
+        }
+        if (afterCursor.indexOf(KEY_SEPARATOR) < 0) {
+            return byLastName.tailMap(afterCursor + AFTER_SEPARATOR, true);
+        }
+        return byLastName.tailMap(afterCursor, false);
+    }
+
+    /**
+     * Pobiera limit pozycji i sprawdza, czy jest kolejna - O(log n + limit)
+     * @param keyCursor true - kursorem jest klucz indeksu, false - email
+     */
+    private static EmployeePage page(NavigableMap<String, Employee> range, int limit, boolean keyCursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Rozmiar strony musi być dodatni: " + limit);
+        }
+        List<Employee> employees = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<Map.Entry<String, Employee>> entries = range.entrySet().iterator();
+        String lastKey = null;
+        while (employees.size() < limit && entries.hasNext()) {
+            Map.Entry<String, Employee> entry = entries.next();
+            employees.add(entry.getValue());
+            lastKey = keyCursor ? entry.getKey() : entry.getValue().getEmail();
+        }
+        return new EmployeePage(employees, entries.hasNext() ? lastKey : null);
+    }
+
+    private static String lastNameKey(String lastName, Employee employee) {
+        return (lastName == null ? "" : lastName) + KEY_SEPARATOR + employee.getEmail();
+    }
+
+    private static String companyKey(String companyName, Employee employee) {
+        return companyName + KEY_SEPARATOR + employee.getEmail();
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.app.store;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Jedna strona listy pracowników (paginacja kursorem).
+ * Kolejną stronę pobiera się, przekazując getNextCursor() jako kursor "po".
+ */
+public class EmployeePage {
+    private final List<Employee> employees;
+    private final String nextCursor;
+
+    public EmployeePage(List<Employee> employees, String nextCursor) {
+        this.employees = Collections.unmodifiableList(employees);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return pracownicy na stronie, w kolejności listy
+     */
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * @return kursor ostatniego pracownika na stronie lub null, jeśli to ostatnia strona
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeePage{" +
+                "size=" + employees.size() +
+                ", nextCursor=" + nextCursor +
+                '}';
+    }
+}
@@ -0,0 +1,296 @@
+package com.mycompany.app.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Indeks wyszukiwania pracowników po fragmencie imienia i nazwiska lub emaila.
+ *
+ * Wyszukiwanie po prefiksie korzysta z posortowanej mapy (ConcurrentSkipListMap) z kluczami:
+ * całe imię i nazwisko, każde kolejne słowo imienia (np. samo nazwisko) oraz email.
+ * Koszt to O(log n + limit).
+ *
+ * Wyszukiwanie fragmentu korzysta z indeksu odwróconego trigramów: dla każdej trójki znaków
+ * lista numerów pracowników, u których występuje. Kandydaci pochodzą z najkrótszej listy
+ * spośród trigramów zapytania i są sprawdzani zwykłym contains(), do osiągnięcia limitu.
+ * Listy przechowują numery (int), a nie referencje w zbiorach, żeby przy milionach
+ * pracowników indeks zajmował kilka bajtów na trigram, a nie kilkadziesiąt.
+ *
+ * Zmiana imienia lub usunięcie nadaje pracownikowi nowy numer (albo żaden) - stary numer
+ * zostaje w listach jako martwy i jest pomijany, a gdy martwych jest więcej niż żywych,
+ * indeks trigramów jest budowany od nowa.
+ *
+ * Zapisy są serializowane blokadą indeksu, odczyty nie biorą żadnej blokady.
+ * Porównanie nie rozróżnia wielkości liter.
+ */
+public class EmployeeSearchIndex {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MIN_REBUILD_DEAD = 1024;
+    // Oddziela szukany tekst od emaila w kluczu - mniejszy od każdego znaku tekstu
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, Employee> prefixes = new ConcurrentSkipListMap<>();
+    // Podmieniany w całości przy przebudowie - czytelnik zawsze widzi spójne listy i numery
+    private volatile Trigrams trigrams = new Trigrams();
+    // Pracownik -> jego aktualny numer
+    private final Map<Employee, Integer> ids = new ConcurrentHashMap<>();
+    private int deadIds;
+
+    /**
+     * Dodaje pracownika do indeksu
+     */
+    public synchronized void add(Employee employee) {
+        String fullName = employee.getFullName();
+        addPrefixes(employee, fullName);
+        indexTrigrams(employee, fullName);
+    }
+
+    /**
+     * Usuwa pracownika z indeksu
+     */
+    public synchronized void remove(Employee employee) {
+        removePrefixes(employee, employee.getFullName());
+        retire(employee);
+        rebuildIfMostlyDead();
+    }
+
+    /**
+     * Przenosi pracownika pod nowe imię i nazwisko
+     * @param oldFullName imię i nazwisko sprzed zmiany
+     */
+    public synchronized void renamed(Employee employee, String oldFullName) {
+        removePrefixes(employee, oldFullName);
+        retire(employee);
+        String fullName = employee.getFullName();
+        addPrefixes(employee, fullName);
+        indexTrigrams(employee, fullName);
+        rebuildIfMostlyDead();
+    }
+
+    /**
+     * Pracownicy, których imię, nazwisko lub email zaczyna się od podanego tekstu
+     * @param prefix początek imienia, dowolnego kolejnego słowa imienia lub emaila
+     * @param limit maksymalna liczba wyników
+     * @return wyniki w kolejności alfabetycznej dopasowanego tekstu
+     */
+    public List<Employee> searchByPrefix(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Employee> result = new LinkedHashSet<>();
+        // Klucze z prefiksem leżą między prefiksem a prefiksem z największym możliwym znakiem
+        for (Employee employee : prefixes.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+            if (result.add(employee) && result.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Pracownicy, których imię i nazwisko lub email zawiera podany tekst
+     * @param fragment szukany fragment; krótszy niż 3 znaki wymaga przejrzenia pracowników
+     *                 po kolei (do osiągnięcia limitu)
+     * @param limit maksymalna liczba wyników
+     * @return wyniki w kolejności dodania do indeksu
+     */
+    public List<Employee> searchContaining(String fragment, int limit) {
+        String normalized = normalize(fragment);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Employee> result = new ArrayList<>();
+        Trigrams current = trigrams;
+        if (normalized.length() < 3) {
+            int last = current.nextId;
+            for (int id = 0; id < last && result.size() < limit; id++) {
+                collect(current.employee(id), normalized, result);
+            }
+            return result;
+        }
+
+        Postings shortest = null;
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            Postings postings = current.postings.get(normalized.substring(i, i + 3));
+            if (postings == null) {
+                return result; // Brak trigramu - nikt nie pasuje
+            }
+            if (shortest == null || postings.size() < shortest.size()) {
+                shortest = postings;
+            }
+        }
+        int size = shortest.size();
+        int[] candidates = shortest.ids();
+        for (int i = 0; i < size && result.size() < limit; i++) {
+            collect(current.employee(candidates[i]), normalized, result);
+        }
+        return result;
+    }
+
+    private static void collect(Employee employee, String normalized, List<Employee> result) {
+        // Sprawdzamy bieżące dane - trigramy dają tylko kandydatów
+        if (employee != null && (normalize(employee.getFullName()).contains(normalized)
+                || normalize(employee.getEmail()).contains(normalized))) {
+            result.add(employee);
+        }
+    }
+
+    private void addPrefixes(Employee employee, String fullName) {
+        for (String term : terms(employee, fullName)) {
+            prefixes.put(term + KEY_SEPARATOR + employee.getEmail(), employee);
+        }
+    }
+
+    private void removePrefixes(Employee employee, String fullName) {
+        for (String term : terms(employee, fullName)) {
+            prefixes.remove(term + KEY_SEPARATOR + employee.getEmail(), employee);
+        }
+    }
+
+    /**
+     * Teksty, od których początku można znaleźć pracownika: całe imię i nazwisko,
+     * każde kolejne słowo (np. nazwisko) i email
+     */
+    private static List<String> terms(Employee employee, String fullName) {
+        List<String> terms = new ArrayList<>(4);
+        String name = normalize(fullName);
+        terms.add(name);
+        for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+            if (i + 1 < name.length() && name.charAt(i + 1) != ' ') {
+                terms.add(name.substring(i + 1));
+            }
+        }
+        terms.add(normalize(employee.getEmail()));
+        return terms;
+    }
+
+    private void indexTrigrams(Employee employee, String fullName) {
+        indexTrigrams(trigrams, employee, fullName);
+    }
+
+    private void indexTrigrams(Trigrams target, Employee employee, String fullName) {
+        int id = target.assign(employee);
+        ids.put(employee, id);
+
+        Set<String> unique = new HashSet<>();
+        addTrigrams(normalize(fullName), unique);
+        addTrigrams(normalize(employee.getEmail()), unique);
+        for (String trigram : unique) {
+            target.postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+        }
+    }
+
+    private static void addTrigrams(String text, Set<String> target) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            target.add(text.substring(i, i + 3));
+        }
+    }
+
+    private void retire(Employee employee) {
+        Integer id = ids.remove(employee);
+        if (id != null) {
+            trigrams.clear(id);
+            deadIds++;
+        }
+    }
+
+    private void rebuildIfMostlyDead() {
+        if (deadIds < MIN_REBUILD_DEAD || deadIds < ids.size()) {
+            return;
+        }
+        List<Employee> live = new ArrayList<>(ids.keySet());
+        // Nowy indeks powstaje obok - czytelnicy korzystają ze starego do chwili podmiany
+        Trigrams rebuilt = new Trigrams();
+        ids.clear();
+        for (Employee employee : live) {
+            indexTrigrams(rebuilt, employee, employee.getFullName());
+        }
+        trigrams = rebuilt;
+        deadIds = 0;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Listy trigramów razem z tablicą numer -> pracownik, do której się odnoszą.
+     * Tablica rośnie kawałkami, bez kopiowania; null oznacza numer martwy.
+     */
+    private static final class Trigrams {
+        final ConcurrentHashMap<String, Postings> postings = new ConcurrentHashMap<>();
+        private volatile AtomicReferenceArray<Employee>[] chunks = newChunks();
+        // Liczba nadanych numerów - zapisywana po wstawieniu pracownika do tablicy
+        volatile int nextId;
+
+        int assign(Employee employee) {
+            int id = nextId;
+            AtomicReferenceArray<Employee>[] current = chunks;
+            int chunk = id >>> CHUNK_BITS;
+            if (chunk == current.length) {
+                current = Arrays.copyOf(current, current.length + 1);
+                current[chunk] = new AtomicReferenceArray<>(CHUNK_SIZE);
+                chunks = current;
+            }
+            current[chunk].set(id & (CHUNK_SIZE - 1), employee);
+            nextId = id + 1;
+            return id;
+        }
+
+        void clear(int id) {
+            chunks[id >>> CHUNK_BITS].set(id & (CHUNK_SIZE - 1), null);
+        }
+
+        Employee employee(int id) {
+            AtomicReferenceArray<Employee>[] current = chunks;
+            int chunk = id >>> CHUNK_BITS;
+            return chunk < current.length ? current[chunk].get(id & (CHUNK_SIZE - 1)) : null;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static AtomicReferenceArray<Employee>[] newChunks() {
+            return new AtomicReferenceArray[] {new AtomicReferenceArray<Employee>(CHUNK_SIZE)};
+        }
+    }
+
+    /**
+     * Lista numerów pracowników dla jednego trigramu. Dopisywanie pod blokadą indeksu;
+     * odczyt bez blokady: rozmiar (volatile) jest zapisywany po elemencie, a tablica
+     * przed rozmiarem, więc czytelnik widzi spójny początek listy.
+     */
+    private static final class Postings {
+        private volatile int[] ids = new int[4];
+        private volatile int size;
+
+        void add(int id) {
+            int[] current = ids;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                ids = current;
+            }
+            current[size] = id;
+            size = size + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] ids() {
+            return ids;
+        }
+    }
+}
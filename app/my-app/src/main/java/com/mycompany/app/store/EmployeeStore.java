@@ -0,0 +1,345 @@
+package com.mycompany.app.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mycompany.app.metrics.Metrics;
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.EmployeeChangeListener;
+import com.mycompany.app.model.Position;
+
+/**
+ * Bezpieczny wątkowo magazyn pracowników.
+ *
+ * Główna mapa jest kluczowana emailem (ConcurrentHashMap - zapisy blokują tylko
+ * pojedynczy kubełek), a dwa indeksy pomocnicze grupują pracowników po nazwie
+ * firmy i po stanowisku. Dzięki temu wyszukiwanie po firmie lub stanowisku
+ * kosztuje tyle, ile wynosi rozmiar wyniku, a nie liczba wszystkich pracowników.
+ *
+ * Każda grupa w indeksie utrzymuje też bieżące agregaty wynagrodzeń
+ * (liczba, suma, najlepiej zarabiający), więc statystyki liczone są w O(liczba grup).
+ *
+ * Indeksy i agregaty są aktualizowane przez EmployeeChangeListener, więc zmiana
+ * firmy, stanowiska lub pensji przez setter od razu trafia do właściwej grupy,
+ * a zmiana imienia - do indeksu wyszukiwania (EmployeeSearchIndex).
+ * Posortowane indeksy do paginacji kursorem utrzymuje EmployeeOrderIndex,
+ * a kolumny do zapytań analitycznych - EmployeeColumnIndex.
+ */
+public class EmployeeStore implements EmployeeChangeListener {
+
+    private final ConcurrentHashMap<String, Employee> byEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, EmployeeGroup> byCompany = new ConcurrentHashMap<>();
+    private final Map<Position, EmployeeGroup> byPosition = new EnumMap<>(Position.class);
+    private final EmployeeSearchIndex searchIndex = new EmployeeSearchIndex();
+    private final EmployeeOrderIndex orderIndex = new EmployeeOrderIndex();
+    private final EmployeeColumnIndex columnIndex = new EmployeeColumnIndex();
+    // Licznik zmian - pozwala wykryć, że migawka kolumnowa jest nieaktualna
+    private final AtomicLong version = new AtomicLong();
+    // Dokładność szkiców rozkładu pensji w grupach
+    private final double sketchAccuracy;
+
+    public EmployeeStore() {
+        this(SalarySketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param sketchAccuracy błąd względny percentyli pensji w grupach (np. 0.01 = 1%);
+     *                       mniejszy błąd to więcej pamięci na grupę
+     */
+    public EmployeeStore(double sketchAccuracy) {
+        this.sketchAccuracy = sketchAccuracy;
+        // Grupy dla stanowisk tworzymy od razu - enum jest stały, więc mapa nie zmienia się później
+        for (Position position : Position.values()) {
+            byPosition.put(position, new EmployeeGroup(sketchAccuracy));
+        }
+    }
+
+    /**
+     * Dodaje pracownika, jeśli jego email nie jest jeszcze zajęty.
+     * Wstawienie do mapy i indeksów odbywa się pod monitorem pracownika,
+     * więc równoległy setter nie może "zgubić" aktualizacji indeksu.
+     *
+     * @param employee pracownik do dodania
+     * @return true jeśli dodano, false jeśli email już istnieje
+     * @throws IllegalArgumentException gdy pensja nie jest liczbą skończoną
+     */
+    public boolean add(Employee employee) {
+        synchronized (employee) {
+            double salary = employee.getSalary();
+            // Sprawdzenie przed wstawieniem do mapy - inaczej pracownik zostałby bez indeksów
+            if (!Double.isFinite(salary)) {
+                throw new IllegalArgumentException("Pensja musi być liczbą skończoną: " + salary);
+            }
+            if (byEmail.putIfAbsent(employee.getEmail(), employee) != null) {
+                return false;
+            }
+            addToCompany(employee.getCompanyName(), employee, salary);
+            byPosition.get(employee.getPosition()).add(employee, salary);
+            searchIndex.add(employee);
+            orderIndex.add(employee);
+            columnIndex.add(employee, salary);
+            employee.addChangeListener(this);
+            version.incrementAndGet();
+            Metrics.global().storeSizeChanged(1);
+            return true;
+        }
+    }
+
+    /**
+     * Usuwa pracownika z mapy, indeksów i agregatów
+     * @param employee pracownik do usunięcia
+     * @return true jeśli usunięto, false jeśli tego pracownika nie ma w magazynie
+     */
+    public boolean remove(Employee employee) {
+        synchronized (employee) {
+            if (!byEmail.remove(employee.getEmail(), employee)) {
+                return false;
+            }
+            double salary = employee.getSalary();
+            removeFromCompany(employee.getCompanyName(), employee, salary);
+            byPosition.get(employee.getPosition()).remove(employee, salary);
+            searchIndex.remove(employee);
+            orderIndex.remove(employee);
+            columnIndex.remove(employee);
+            employee.removeChangeListener(this);
+            version.incrementAndGet();
+            Metrics.global().storeSizeChanged(-1);
+            return true;
+        }
+    }
+
+    /**
+     * Zwraca pracownika o podanym emailu
+     * @param email email pracownika
+     * @return pracownik lub null jeśli nie istnieje
+     */
+    public Employee get(String email) {
+        return byEmail.get(email);
+    }
+
+    public int size() {
+        return byEmail.size();
+    }
+
+    /**
+     * @return numer wersji zwiększany przy każdym dodaniu, usunięciu i zmianie pracownika
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Kopiuje bieżące kolumny do migawki - O(n), ale bez przechodzenia po pracownikach
+     */
+    public EmployeeColumns columns() {
+        return columnIndex.snapshot();
+    }
+
+    /**
+     * Pracownicy z pensją niższą niż stawka bazowa stanowiska - przebieg po bieżących kolumnach
+     */
+    public List<Employee> belowBaseSalary() {
+        return columnIndex.belowBaseSalary();
+    }
+
+    /**
+     * Widok (tylko do odczytu) na wszystkich pracowników - bez kopiowania
+     */
+    public Collection<Employee> all() {
+        return Collections.unmodifiableCollection(byEmail.values());
+    }
+
+    /**
+     * Widok (tylko do odczytu) na pracowników danej firmy
+     * @param companyName nazwa firmy
+     * @return zbiór pracowników lub pusty zbiór
+     */
+    public Set<Employee> byCompany(String companyName) {
+        EmployeeGroup group = byCompany.get(companyName);
+        return group != null ? group.members() : Collections.emptySet();
+    }
+
+    /**
+     * Widok (tylko do odczytu) na pracowników na danym stanowisku
+     * @param position stanowisko
+     * @return zbiór pracowników
+     */
+    public Set<Employee> byPosition(Position position) {
+        return byPosition.get(position).members();
+    }
+
+    /**
+     * Zwraca nazwy wszystkich firm, które mają co najmniej jednego pracownika
+     */
+    public Set<String> companyNames() {
+        return Collections.unmodifiableSet(byCompany.keySet());
+    }
+
+    /**
+     * Kopiuje pracowników z indeksu firmy do nowej listy - O(rozmiar wyniku)
+     */
+    public List<Employee> copyOfCompany(String companyName) {
+        return new ArrayList<>(byCompany(companyName));
+    }
+
+    /**
+     * Statystyki wynagrodzeń firmy
+     * @param companyName nazwa firmy
+     * @return statystyki lub GroupStatistics.EMPTY gdy firma nie ma pracowników
+     */
+    public GroupStatistics companyStatistics(String companyName) {
+        EmployeeGroup group = byCompany.get(companyName);
+        return group != null ? group.statistics() : GroupStatistics.EMPTY;
+    }
+
+    /**
+     * Statystyki wynagrodzeń wszystkich firm - O(liczba firm)
+     */
+    public Map<String, GroupStatistics> allCompanyStatistics() {
+        Map<String, GroupStatistics> result = new HashMap<>();
+        byCompany.forEach((companyName, group) -> {
+            GroupStatistics statistics = group.statistics();
+            if (statistics.getCount() > 0) {
+                result.put(companyName, statistics);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Statystyki wynagrodzeń na danym stanowisku
+     */
+    public GroupStatistics positionStatistics(Position position) {
+        return byPosition.get(position).statistics();
+    }
+
+    /**
+     * Statystyki wynagrodzeń wszystkich pracowników - złożone z grup stanowisk, O(liczba stanowisk)
+     */
+    public GroupStatistics totalStatistics() {
+        long count = 0;
+        double salarySum = 0.0;
+        Employee highestPaid = null;
+        double highestSalary = 0.0;
+        for (EmployeeGroup group : byPosition.values()) {
+            GroupStatistics statistics = group.statistics();
+            count += statistics.getCount();
+            salarySum += statistics.getSalarySum();
+            if (statistics.getHighestPaid() != null
+                    && (highestPaid == null || statistics.getHighestSalary() > highestSalary)) {
+                highestPaid = statistics.getHighestPaid();
+                highestSalary = statistics.getHighestSalary();
+            }
+        }
+        return new GroupStatistics(count, salarySum, highestPaid, highestSalary);
+    }
+
+    /**
+     * Rozkład pensji w firmie
+     * @return kopia szkicu (pusty, gdy firma nie ma pracowników)
+     */
+    public SalarySketch companySalaryDistribution(String companyName) {
+        EmployeeGroup group = byCompany.get(companyName);
+        return group != null ? group.salaryDistribution() : new SalarySketch(sketchAccuracy);
+    }
+
+    /**
+     * Rozkład pensji na stanowisku
+     * @return kopia szkicu
+     */
+    public SalarySketch positionSalaryDistribution(Position position) {
+        return byPosition.get(position).salaryDistribution();
+    }
+
+    /**
+     * Rozkład pensji wszystkich pracowników - scalone szkice stanowisk
+     */
+    public SalarySketch totalSalaryDistribution() {
+        SalarySketch total = new SalarySketch(sketchAccuracy);
+        for (EmployeeGroup group : byPosition.values()) {
+            total.merge(group.salaryDistribution());
+        }
+        return total;
+    }
+
+    /**
+     * Indeks wyszukiwania po fragmencie imienia, nazwiska lub emaila
+     */
+    public EmployeeSearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * Posortowane indeksy do paginacji kursorem (po emailu, nazwisku i w firmie)
+     */
+    public EmployeeOrderIndex orderIndex() {
+        return orderIndex;
+    }
+
+    @Override
+    public void nameChanged(Employee employee, String oldFullName) {
+        searchIndex.renamed(employee, oldFullName);
+        orderIndex.renamed(employee, oldFullName);
+    }
+
+    @Override
+    public void companyChanged(Employee employee, String oldCompanyName) {
+        double salary = employee.getSalary();
+        removeFromCompany(oldCompanyName, employee, salary);
+        addToCompany(employee.getCompanyName(), employee, salary);
+        orderIndex.companyChanged(employee, oldCompanyName);
+        columnIndex.companyChanged(employee, employee.getCompanyName());
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void positionChanged(Employee employee, Position oldPosition, double oldSalary) {
+        double newSalary = employee.getSalary();
+        byPosition.get(oldPosition).remove(employee, oldSalary);
+        byPosition.get(employee.getPosition()).add(employee, newSalary);
+        salaryChangedInCompany(employee, oldSalary, newSalary);
+        columnIndex.positionChanged(employee, employee.getPosition(), newSalary);
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void salaryChanged(Employee employee, double oldSalary) {
+        double newSalary = employee.getSalary();
+        byPosition.get(employee.getPosition()).salaryChanged(employee, oldSalary, newSalary);
+        salaryChangedInCompany(employee, oldSalary, newSalary);
+        columnIndex.salaryChanged(employee, newSalary);
+        version.incrementAndGet();
+    }
+
+    // compute()/computeIfPresent() blokują tylko jeden kubełek mapy, więc tworzenie
+    // i usuwanie pustych grup nie ściga się z równoległym dodawaniem
+    private void addToCompany(String companyName, Employee employee, double salary) {
+        byCompany.compute(companyName, (name, group) -> {
+            EmployeeGroup target = group != null ? group : new EmployeeGroup(sketchAccuracy);
+            target.add(employee, salary);
+            return target;
+        });
+    }
+
+    private void removeFromCompany(String companyName, Employee employee, double salary) {
+        byCompany.computeIfPresent(companyName, (name, group) -> {
+            group.remove(employee, salary);
+            return group.isEmpty() ? null : group;
+        });
+    }
+
+    private void salaryChangedInCompany(Employee employee, double oldSalary, double newSalary) {
+        EmployeeGroup group = byCompany.get(employee.getCompanyName());
+        if (group != null) {
+            group.salaryChanged(employee, oldSalary, newSalary);
+        }
+    }
+}
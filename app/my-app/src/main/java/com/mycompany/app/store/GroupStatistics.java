@@ -0,0 +1,61 @@
+package com.mycompany.app.store;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Niemutowalna migawka agregatów wynagrodzeń grupy pracowników.
+ */
+public class GroupStatistics {
+    public static final GroupStatistics EMPTY = new GroupStatistics(0, 0.0, null, 0.0);
+
+    private final long count;
+    private final double salarySum;
+    private final Employee highestPaid;
+    private final double highestSalary;
+
+    public GroupStatistics(long count, double salarySum, Employee highestPaid, double highestSalary) {
+        this.count = count;
+        this.salarySum = salarySum;
+        this.highestPaid = highestPaid;
+        this.highestSalary = highestSalary;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSalarySum() {
+        return salarySum;
+    }
+
+    /**
+     * @return średnia pensja lub 0.0 dla pustej grupy
+     */
+    public double getAverageSalary() {
+        return count > 0 ? salarySum / count : 0.0;
+    }
+
+    /**
+     * @return najlepiej zarabiający pracownik lub null dla pustej grupy
+     */
+    public Employee getHighestPaid() {
+        return highestPaid;
+    }
+
+    public double getHighestSalary() {
+        return highestSalary;
+    }
+
+    /**
+     * Łączy agregaty dwóch rozłącznych grup (np. tej samej firmy z różnych shardów)
+     * @param other statystyki drugiej grupy
+     * @return statystyki sumy grup
+     */
+    public GroupStatistics merge(GroupStatistics other) {
+        boolean otherHigher = other.highestPaid != null
+                && (highestPaid == null || other.highestSalary > highestSalary);
+        return new GroupStatistics(count + other.count, salarySum + other.salarySum,
+                otherHigher ? other.highestPaid : highestPaid,
+                otherHigher ? other.highestSalary : highestSalary);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mycompany.app.store;
+
+import java.util.Collection;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Bieżące agregaty wynagrodzeń jednej grupy pracowników:
+ * liczba osób, suma pensji i najlepiej zarabiający.
+ *
+ * Liczba i suma są aktualizowane w O(1). Najlepiej zarabiający też - dopóki
+ * nie odejdzie z grupy lub nie dostanie obniżki; wtedy jest oznaczany jako
+ * nieaktualny i wyliczany ponownie dopiero przy najbliższym odczycie.
+ *
+ * Obok agregatów utrzymywany jest szkic rozkładu pensji (SalarySketch) do percentyli.
+ */
+public class SalaryAggregate {
+    private long count;
+    private double salarySum;
+    private Employee highestPaid;
+    private double highestSalary;
+    private boolean highestPaidStale;
+    private final SalarySketch distribution;
+
+    SalaryAggregate(double relativeAccuracy) {
+        this.distribution = new SalarySketch(relativeAccuracy);
+    }
+
+    synchronized void add(Employee employee, double salary) {
+        // Sprawdzenie przed jakąkolwiek zmianą - odrzucona pensja nie zmienia agregatów
+        SalarySketch.checkFinite(salary);
+        distribution.add(salary);
+        count++;
+        salarySum += salary;
+        if (!highestPaidStale && (highestPaid == null || salary > highestSalary)) {
+            highestPaid = employee;
+            highestSalary = salary;
+        }
+    }
+
+    synchronized void remove(Employee employee, double salary) {
+        SalarySketch.checkFinite(salary);
+        distribution.remove(salary);
+        count--;
+        salarySum -= salary;
+        if (count == 0) {
+            salarySum = 0.0; // Zerujemy błędy zaokrągleń, gdy grupa się opróżni
+            highestPaid = null;
+            highestPaidStale = false;
+        } else if (employee == highestPaid) {
+            highestPaidStale = true;
+        }
+    }
+
+    synchronized void salaryChanged(Employee employee, double oldSalary, double newSalary) {
+        SalarySketch.checkFinite(oldSalary);
+        SalarySketch.checkFinite(newSalary);
+        distribution.add(newSalary);
+        distribution.remove(oldSalary);
+        salarySum += newSalary - oldSalary;
+        if (highestPaidStale) {
+            return;
+        }
+        if (employee == highestPaid) {
+            if (newSalary >= oldSalary) {
+                highestSalary = newSalary;
+            } else {
+                highestPaidStale = true; // Obniżka - ktoś inny mógł zostać liderem
+            }
+        } else if (highestPaid == null || newSalary > highestSalary) {
+            highestPaid = employee;
+            highestSalary = newSalary;
+        }
+    }
+
+    /**
+     * Zwraca spójną migawkę agregatów
+     * @param members aktualni członkowie grupy - skanowani tylko gdy lider jest nieaktualny
+     * @return migawka statystyk grupy
+     */
+    synchronized GroupStatistics snapshot(Collection<Employee> members) {
+        if (highestPaidStale) {
+            highestPaid = null;
+            highestSalary = 0.0;
+            for (Employee employee : members) {
+                double salary = employee.getSalary();
+                if (highestPaid == null || salary > highestSalary) {
+                    highestPaid = employee;
+                    highestSalary = salary;
+                }
+            }
+            highestPaidStale = false;
+        }
+        return new GroupStatistics(count, salarySum, highestPaid, highestSalary);
+    }
+
+    /**
+     * @return kopia szkicu rozkładu pensji grupy
+     */
+    synchronized SalarySketch distribution() {
+        return distribution.copy();
+    }
+}
@@ -0,0 +1,89 @@
+package com.mycompany.app.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Wybór K najlepiej lub najgorzej zarabiających bez sortowania całej kolekcji.
+ *
+ * Kopiec ograniczony do K elementów trzyma na szczycie "najsłabszego" z dotychczasowych
+ * kandydatów, więc koszt to O(n log K) czasu i O(K) pamięci zamiast O(n log n) i O(n).
+ * Pensja jest czytana raz na pracownika, więc równoległa zmiana pensji nie psuje kopca.
+ */
+public final class SalaryRanking {
+
+    // Od najwyższej pensji; remis rozstrzyga email, żeby wynik był deterministyczny
+    private static final Comparator<Candidate> HIGHEST_FIRST = Comparator
+            .comparingDouble((Candidate candidate) -> candidate.salary).reversed()
+            .thenComparing(candidate -> candidate.employee.getEmail());
+
+    private static final Comparator<Candidate> LOWEST_FIRST = Comparator
+            .comparingDouble((Candidate candidate) -> candidate.salary)
+            .thenComparing(candidate -> candidate.employee.getEmail());
+
+    private SalaryRanking() {
+    }
+
+    /**
+     * @param employees przeszukiwani pracownicy
+     * @param k maksymalna liczba wyników
+     * @return co najwyżej k pracowników, od najwyższej pensji
+     */
+    public static List<Employee> highest(Collection<Employee> employees, int k) {
+        return select(employees, k, HIGHEST_FIRST);
+    }
+
+    /**
+     * @param employees przeszukiwani pracownicy
+     * @param k maksymalna liczba wyników
+     * @return co najwyżej k pracowników, od najniższej pensji
+     */
+    public static List<Employee> lowest(Collection<Employee> employees, int k) {
+        return select(employees, k, LOWEST_FIRST);
+    }
+
+    private static List<Employee> select(Collection<Employee> employees, int k, Comparator<Candidate> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Liczba wyników nie może być ujemna: " + k);
+        }
+        if (k == 0) {
+            return Collections.emptyList();
+        }
+        // Odwrócony porządek: na szczycie kopca jest kandydat, który wypadnie pierwszy
+        Comparator<Candidate> worstFirst = order.reversed();
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.min(k, 1024) + 1, worstFirst);
+        for (Employee employee : employees) {
+            Candidate candidate = new Candidate(employee, employee.getSalary());
+            if (heap.size() < k) {
+                heap.add(candidate);
+            } else if (worstFirst.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(heap);
+        ranked.sort(order);
+        List<Employee> result = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            result.add(candidate.employee);
+        }
+        return result;
+    }
+
+    private static final class Candidate {
+        final Employee employee;
+        final double salary;
+
+        Candidate(Employee employee, double salary) {
+            this.employee = employee;
+            this.salary = salary;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.mycompany.app.store;
+
+import java.util.Arrays;
+
+/**
+ * Szkic rozkładu wynagrodzeń do przybliżonych percentyli i histogramów.
+ *
+ * Pensje trafiają do kubełków o logarytmicznie rosnącej szerokości (jak w DDSketch):
+ * kubełek i obejmuje przedział (gamma^(i-1), gamma^i], gdzie gamma = (1 + a) / (1 - a).
+ * Każdy percentyl jest zwracany z błędem względnym co najwyżej a (relativeAccuracy),
+ * niezależnie od liczby pracowników. Pamięć zależy tylko od rozpiętości pensji:
+ * dla a = 1% i pensji od 1 do 10 mln PLN to około 800 liczników.
+ *
+ * W odróżnieniu od t-digest i KLL szkic obsługuje usuwanie wartości, więc może być
+ * utrzymywany przy zmianach pensji, stanowisk i firm. Szkice o tej samej dokładności
+ * można scalać (merge) - np. stanowiska w rozkład wszystkich pracowników.
+ *
+ * Pensje spoza zakresu [MIN_TRACKED_SALARY, MAX_TRACKED_SALARY] trafiają do skrajnych
+ * kubełków, więc liczba kubełków jest ograniczona niezależnie od danych wejściowych.
+ * Wartości nieskończone i NaN są odrzucane (IllegalArgumentException).
+ *
+ * Klasa nie jest bezpieczna wątkowo - w magazynie chroni ją monitor SalaryAggregate.
+ */
+public class SalarySketch {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    // Granice kubełków logarytmicznych - dla a = 1% to niecałe 2 tys. kubełków
+    public static final double MIN_TRACKED_SALARY = 1e-3;
+    public static final double MAX_TRACKED_SALARY = 1e12;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    // counts[i] - liczba pensji w kubełku (offset + i)
+    private long[] counts = new long[0];
+    private int offset;
+    // Pensje <= 0 nie mają kubełka logarytmicznego - liczone osobno jako 0
+    private long zeroCount;
+    private long count;
+
+    public SalarySketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy maksymalny błąd względny percentyli, z przedziału (0, 1);
+     *                         mniejszy błąd to więcej kubełków
+     */
+    public SalarySketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Dokładność musi być z przedziału (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Dodaje pensję do szkicu
+     * @throws IllegalArgumentException gdy pensja jest nieskończona lub NaN
+     */
+    public void add(double salary) {
+        checkFinite(salary);
+        count++;
+        if (salary <= 0) {
+            zeroCount++;
+            return;
+        }
+        int index = indexOf(salary);
+        ensureCapacity(index);
+        counts[index - offset]++;
+    }
+
+    /**
+     * Usuwa wcześniej dodaną pensję; wartość spoza szkicu jest ignorowana
+     * @throws IllegalArgumentException gdy pensja jest nieskończona lub NaN
+     */
+    public void remove(double salary) {
+        checkFinite(salary);
+        if (salary <= 0) {
+            if (zeroCount > 0) {
+                zeroCount--;
+                count--;
+            }
+            return;
+        }
+        int slot = indexOf(salary) - offset;
+        if (slot >= 0 && slot < counts.length && counts[slot] > 0) {
+            counts[slot]--;
+            count--;
+        }
+    }
+
+    /**
+     * Dodaje do szkicu wszystkie wartości innego szkicu o tej samej dokładności
+     */
+    public void merge(SalarySketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Nie można scalić szkiców o różnej dokładności");
+        }
+        if (other.counts.length > 0
+                && (other.offset < minIndex() || other.offset + other.counts.length - 1 > maxIndex())) {
+            throw new IllegalArgumentException("Szkic zawiera kubełki spoza zakresu pensji");
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] > 0) {
+                int index = other.offset + i;
+                ensureCapacity(index);
+                counts[index - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public SalarySketch copy() {
+        SalarySketch copy = new SalarySketch(relativeAccuracy);
+        copy.counts = counts.clone();
+        copy.offset = offset;
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Przybliżony kwantyl - wartość, od której co najwyżej q * count pensji jest mniejszych
+     * @param q kwantyl z przedziału [0, 1], np. 0.9 dla p90
+     * @return pensja z błędem względnym co najwyżej getRelativeAccuracy() lub 0.0 dla pustego szkicu
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Kwantyl musi być z przedziału [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+        // Ranga (od 0) szukanej wartości w posortowanym zbiorze - jak dla dokładnego percentylu
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0.0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return valueOf(offset + i);
+            }
+        }
+        return valueOf(offset + counts.length - 1);
+    }
+
+    /**
+     * Histogram o zadanych granicach. Wynik ma bounds.length + 1 przedziałów:
+     * [0] - pensje poniżej bounds[0], [i] - od bounds[i-1] do bounds[i], ostatni - od bounds[n-1].
+     * Pensje są przypisywane według reprezentanta kubełka, więc pensja bliska granicy
+     * (w granicach błędu względnego) może trafić do sąsiedniego przedziału.
+     *
+     * @param bounds rosnące granice przedziałów
+     * @return liczba pensji w przedziałach
+     */
+    public long[] histogram(double... bounds) {
+        long[] result = new long[bounds.length + 1];
+        result[slotOf(0.0, bounds)] += zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result[slotOf(valueOf(offset + i), bounds)] += counts[i];
+            }
+        }
+        return result;
+    }
+
+    private static int slotOf(double value, double[] bounds) {
+        int position = Arrays.binarySearch(bounds, value);
+        // Wartość równa granicy należy do przedziału, który się od niej zaczyna
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    static void checkFinite(double salary) {
+        if (!Double.isFinite(salary)) {
+            throw new IllegalArgumentException("Pensja musi być liczbą skończoną: " + salary);
+        }
+    }
+
+    private int indexOf(double salary) {
+        double clamped = Math.min(Math.max(salary, MIN_TRACKED_SALARY), MAX_TRACKED_SALARY);
+        return (int) Math.ceil(Math.log(clamped) / logGamma);
+    }
+
+    private int minIndex() {
+        return indexOf(MIN_TRACKED_SALARY);
+    }
+
+    private int maxIndex() {
+        return indexOf(MAX_TRACKED_SALARY);
+    }
+
+    // Środek kubełka w sensie błędu względnego: 2 * gamma^i / (gamma + 1)
+    private double valueOf(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private void ensureCapacity(int index) {
+        if (counts.length == 0) {
+            counts = new long[8];
+            offset = index;
+            return;
+        }
+        if (index < offset) {
+            // Zapas w dół, żeby kolejne niższe pensje nie powodowały kopiowania za każdym razem
+            int newOffset = index - 8;
+            long[] grown = new long[counts.length + (offset - newOffset)];
+            System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+            counts = grown;
+            offset = newOffset;
+        } else if (index - offset >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index - offset + 8, counts.length + (counts.length >> 1)));
+        }
+    }
+}
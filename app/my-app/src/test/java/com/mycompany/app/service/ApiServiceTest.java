@@ -0,0 +1,278 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import com.mycompany.app.model.Employee;
+
+/**
+ * Testy integracji z REST API.
+ */
+public class ApiServiceTest {
+    private static final int PAGES = 12;
+    private static final int PAGE_SIZE = 25;
+
+    private HttpServer server;
+    private final Map<Integer, AtomicInteger> requestsPerPage = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    /**
+     * Lokalna atrapa stronicowanego API: każde zapytanie trwa ~30 ms, strona 3 za pierwszym
+     * razem odpowiada 503, a strona 5 za pierwszym razem nie mieści się w timeoucie.
+     * Po stronie PAGES zwracana jest pusta tablica.
+     */
+    @BeforeEach
+    public void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/users", this::handlePage);
+        server.createContext("/directory", this::handleConditional);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldFetchAllPagesConcurrentlyWithRetries() {
+        EmployeeService service = new EmployeeService();
+        ApiFetchOptions options = ApiFetchOptions.defaults()
+                .withConcurrency(4)
+                .withRequestTimeout(Duration.ofMillis(500))
+                .withRetries(3, Duration.ofMillis(10), Duration.ofMillis(50));
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/users?page=";
+
+        ImportSummary summary = new ApiService().fetchAllPages(page -> base + page, service, options);
+
+        assertEquals(PAGES * PAGE_SIZE, summary.getImportedCount());
+        assertEquals(summary.getImportedCount(), service.getEmployeeCount());
+        assertTrue(summary.getErrors().isEmpty(), summary.getErrors().toString());
+        assertEquals(2, requestsPerPage.get(3).get());
+        assertEquals(2, requestsPerPage.get(5).get());
+        assertTrue(maxInFlight.get() > 1, "zapytania powinny iść równolegle");
+        assertTrue(maxInFlight.get() <= 4, "przekroczono limit równoległości: " + maxInFlight.get());
+        // Za pustą stroną mogą być tylko zapytania, które już były w locie
+        assertTrue(requestsPerPage.keySet().stream().allMatch(page -> page <= PAGES + 4));
+    }
+
+    @Test
+    public void shouldSkipPageThatKeepsFailing() {
+        EmployeeService service = new EmployeeService();
+        ApiFetchOptions options = ApiFetchOptions.defaults()
+                .withConcurrency(4)
+                .withRetries(1, Duration.ofMillis(1), Duration.ofMillis(5));
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/users?page=";
+
+        // Nieudana strona nie kończy katalogu - dalsze strony są pobierane aż do pustej
+        ImportSummary summary = new ApiService().fetchAllPages(
+                page -> base + (page == 2 ? 404 : page), service, options);
+
+        assertEquals((PAGES - 1) * PAGE_SIZE, summary.getImportedCount());
+        assertEquals(List.of("Strona 2: HTTP error: 404"), summary.getErrors());
+    }
+
+    @Test
+    public void pageExceptionsShouldFailPageInsteadOfHanging() {
+        EmployeeService failingStore = new EmployeeService() {
+            @Override
+            public boolean[] addEmployees(List<Employee> batch) {
+                if (batch.get(0).getEmail().startsWith("p4i")) {
+                    throw new IllegalStateException("zapis niedostępny");
+                }
+                return super.addEmployees(batch);
+            }
+        };
+        ApiFetchOptions options = ApiFetchOptions.defaults()
+                .withConcurrency(4)
+                .withRetries(1, Duration.ofMillis(1), Duration.ofMillis(5));
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/users?page=";
+
+        ImportSummary summary = assertTimeoutPreemptively(Duration.ofSeconds(20), () -> new ApiService().fetchAllPages(
+                page -> {
+                    if (page == 2) {
+                        throw new IllegalArgumentException("zły adres");
+                    }
+                    return base + page;
+                }, failingStore, options));
+
+        assertEquals((PAGES - 2) * PAGE_SIZE, summary.getImportedCount());
+        assertEquals(2, summary.getErrors().size(), summary.getErrors().toString());
+        assertTrue(summary.getErrors().get(0).contains("zły adres"));
+        assertTrue(summary.getErrors().get(1).contains("zapis niedostępny"));
+    }
+
+    @Test
+    public void shouldServeNotModifiedResponsesFromCacheAcrossRestarts(@TempDir Path cacheDir) throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/directory";
+
+        ApiService first = new ApiService(new ApiResponseCache(Duration.ofMinutes(5), 1_000, cacheDir));
+        assertEquals(2, first.fetchEmployeesFromApi(url).size());
+        // Przed upływem TTL wpis jest zwracany bez zapytania
+        List<Employee> cached = first.fetchEmployeesFromApi(url);
+        assertEquals(1, requestsPerPage.get(0).get());
+
+        // Nowa instancja (jak po restarcie) czyta wpis z katalogu; po TTL wysyła zapytanie warunkowe
+        ApiService restarted = new ApiService(new ApiResponseCache(Duration.ofMillis(1), 1_000, cacheDir));
+        Thread.sleep(5);
+        List<Employee> afterRestart = restarted.fetchEmployeesFromApi(url);
+
+        assertEquals(2, requestsPerPage.get(0).get());
+        assertEquals(1, fullResponses.get());
+        assertEquals("jan@corp.pl", cached.get(0).getEmail());
+        assertEquals("Ewa Nowak", afterRestart.get(1).getFullName());
+    }
+
+    @Test
+    public void shouldRevalidateStaleEntriesAndRejectCorruptFiles(@TempDir Path cacheDir) throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/directory";
+
+        // TTL zero - każdy wpis od razu nieaktualny, ale jego ETag nadal trafia do zapytania
+        ApiService service = new ApiService(new ApiResponseCache(Duration.ZERO, 1_000, cacheDir));
+        service.fetchEmployeesFromApi(url);
+        Path file;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            file = files.filter(path -> path.toString().endsWith(".json")).findFirst().orElseThrow();
+        }
+        FileTime written = Files.getLastModifiedTime(file);
+        Thread.sleep(20);
+        assertEquals(2, service.fetchEmployeesFromApi(url).size());
+        ApiService restarted = new ApiService(new ApiResponseCache(Duration.ZERO, 1_000, cacheDir));
+        assertEquals(2, restarted.fetchEmployeesFromApi(url).size());
+        assertEquals(1, fullResponses.get());
+        // Odpowiedź 304 z tym samym ETag nie zapisuje wpisu ponownie
+        assertEquals(written, Files.getLastModifiedTime(file));
+
+        // Uszkodzony plik (brak kolumny emaili) jest pomijany zamiast rzucać NPE przy odtwarzaniu
+        Files.writeString(file, "{\"url\":\"" + url + "\",\"etag\":\"\\\"v1\\\"\",\"names\":[\"Jan\"],"
+                + "\"companies\":[\"Firma\"]}");
+        ApiService afterCorruption = new ApiService(new ApiResponseCache(Duration.ofMinutes(5), 1_000, cacheDir));
+        assertEquals(2, afterCorruption.fetchEmployeesFromApi(url).size());
+        assertEquals(2, fullResponses.get());
+    }
+
+    @Test
+    public void shouldRefetchWhenCacheIsTooSmall() throws ApiException {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/directory";
+        ApiService service = new ApiService(new ApiResponseCache(Duration.ofMinutes(5), 1));
+
+        service.fetchEmployeesFromApi(url);
+        service.fetchEmployeesFromApi(url);
+
+        assertEquals(2, fullResponses.get());
+    }
+
+    private void handleConditional(HttpExchange exchange) throws IOException {
+        requestsPerPage.computeIfAbsent(0, p -> new AtomicInteger()).incrementAndGet();
+        if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            respond(exchange, 304, "");
+            return;
+        }
+        fullResponses.incrementAndGet();
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        respond(exchange, 200, "[{\"name\":\"Jan Kowalski\",\"email\":\"jan@corp.pl\",\"company\":{\"name\":\"Firma\"}},"
+                + "{\"name\":\"Ewa Nowak\",\"email\":\"ewa@corp.pl\",\"company\":{\"name\":\"Firma\"}}]");
+    }
+
+    private void handlePage(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            String query = exchange.getRequestURI().getQuery();
+            int page = Integer.parseInt(query.substring(query.indexOf('=') + 1));
+            int attempt = requestsPerPage.computeIfAbsent(page, p -> new AtomicInteger()).incrementAndGet();
+
+            sleep(page == 5 && attempt == 1 ? 2_000 : 30);
+            if (page == 3 && attempt == 1) {
+                respond(exchange, 503, "");
+            } else if (page == 404) {
+                respond(exchange, 404, "");
+            } else {
+                StringBuilder json = new StringBuilder("[");
+                for (int i = 0; page <= PAGES && i < PAGE_SIZE; i++) {
+                    json.append(i > 0 ? "," : "")
+                            .append("{\"name\":\"Osoba ").append(page).append('-').append(i)
+                            .append("\",\"email\":\"p").append(page).append('i').append(i)
+                            .append("@corp.pl\",\"company\":{\"name\":\"Firma\"}}");
+                }
+                respond(exchange, 200, json.append(']').toString());
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // Klient mógł już zrezygnować (timeout) - to oczekiwane
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void shouldStreamEmployeesAndSkipUnknownFields() throws ApiException {
+        String json = "[{\"id\":1,\"name\":\"Leanne Graham\",\"address\":{\"geo\":{\"lat\":\"1\"}},"
+                + "\"email\":\"leanne@april.biz\",\"company\":{\"name\":\"Romaguera\",\"bs\":\"x\"}},"
+                + "{\"name\":\"Ervin\",\"email\":\"ervin@melissa.tv\",\"company\":{\"name\":\"Deckow\"}}]";
+        List<Employee> employees = new ArrayList<>();
+
+        int count = ApiService.readEmployees(new StringReader(json), employees::add);
+
+        assertEquals(2, count);
+        assertEquals("Leanne Graham", employees.get(0).getFullName());
+        assertEquals("leanne@april.biz", employees.get(0).getEmail());
+        assertEquals("Romaguera", employees.get(0).getCompanyName());
+        assertEquals("Deckow", employees.get(1).getCompanyName());
+    }
+
+    @Test
+    public void shouldRejectMalformedJson() {
+        assertThrows(ApiException.class,
+                () -> ApiService.readEmployees(new StringReader("[{\"name\":\"A\"}"), employee -> { }));
+    }
+}
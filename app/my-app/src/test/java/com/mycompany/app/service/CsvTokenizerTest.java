@@ -0,0 +1,195 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Testy tokenizera CSV oraz porównanie alokacji z dawnym parsowaniem opartym na split().
+ */
+public class CsvTokenizerTest {
+
+    @Test
+    public void shouldHandleQuotedFieldsWithCommasQuotesAndNewlines() {
+        ByteBuffer data = utf8(" Jan , \"Kowalski, Jr\",\"a \"\"b\"\"\",\"linia1\nlinia2\",  ,x\nnext");
+        CsvTokenizer tokenizer = new CsvTokenizer(2);
+
+        int end = tokenizer.next(data, 0, data.limit(), true);
+
+        assertEquals(6, tokenizer.fieldCount());
+        assertEquals("Jan", tokenizer.string(0));
+        assertEquals("Kowalski, Jr", tokenizer.string(1));
+        assertEquals("a \"b\"", tokenizer.string(2));
+        assertEquals("linia1\nlinia2", tokenizer.string(3));
+        assertEquals("", tokenizer.string(4));
+        assertEquals("Jan Kowalski, Jr", tokenizer.join(0, 1, ' '));
+        assertEquals(2, tokenizer.linesConsumed());
+        assertEquals(data.limit() - "next".length(), end);
+    }
+
+    @Test
+    public void shouldFlagTextAfterClosingQuoteAndTrimLikeStringTrim() {
+        ByteBuffer data = utf8("\"a\"b,\"c\" ,\u000bd\f,\u00a0e\n\"ok\"\t,x\n");
+        CsvTokenizer tokenizer = new CsvTokenizer();
+
+        int end = tokenizer.next(data, 0, data.limit(), true);
+        assertEquals(0, tokenizer.malformedField());
+        assertEquals("c", tokenizer.string(1));
+        // Jak trim(): znaki sterujące ASCII są obcinane, twarda spacja nie
+        assertEquals("d", tokenizer.string(2));
+        assertEquals("\u00a0e", tokenizer.string(3));
+
+        tokenizer.next(data, end, data.limit(), true);
+        assertEquals(-1, tokenizer.malformedField());
+        assertEquals("ok", tokenizer.string(0));
+    }
+
+    @Test
+    public void shouldReportIncompleteRecordUntilEndOfInput() {
+        ByteBuffer data = utf8("a,\"b\nc");
+        CsvTokenizer tokenizer = new CsvTokenizer();
+
+        assertEquals(CsvTokenizer.INCOMPLETE, tokenizer.next(data, 0, data.limit(), false));
+        assertEquals(data.limit(), tokenizer.next(data, 0, data.limit(), true));
+        assertEquals("b\nc", tokenizer.string(1));
+    }
+
+    @Test
+    public void shouldParseNumbersAndEnumsWithoutStrings() {
+        ByteBuffer data = utf8("8000,-12.5,0.1,1e3,abc,,programista,Manager,KIEROWCA,Infinity,1e400");
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        tokenizer.next(data, 0, data.limit(), true);
+
+        assertEquals(8000.0, tokenizer.parseDouble(0));
+        assertEquals(-12.5, tokenizer.parseDouble(1));
+        assertEquals(0.1, tokenizer.parseDouble(2));
+        assertEquals(1000.0, tokenizer.parseDouble(3));
+        assertTrue(Double.isNaN(tokenizer.parseDouble(4)));
+        assertTrue(Double.isNaN(tokenizer.parseDouble(5)));
+        assertSame(Position.PROGRAMISTA, tokenizer.matchEnum(6, Position.values()));
+        assertSame(Position.MANAGER, tokenizer.matchEnum(7, Position.values()));
+        assertNull(tokenizer.matchEnum(8, Position.values()));
+        // Nieskończoności nie są poprawną pensją
+        assertTrue(Double.isNaN(tokenizer.parseDouble(9)));
+        assertTrue(Double.isNaN(tokenizer.parseDouble(10)));
+    }
+
+    @Test
+    public void shouldShareInternedStrings() {
+        ByteBuffer data = utf8("TechCorp\nTechCorp\n");
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        int next = tokenizer.next(data, 0, data.limit(), true);
+        String first = tokenizer.internedString(0);
+        tokenizer.next(data, next, data.limit(), true);
+
+        assertSame(first, tokenizer.internedString(0));
+    }
+
+    @Test
+    public void shouldAllocateLessThanSplitBasedParsing() throws IOException {
+        byte[] csv = generateCsv(20_000);
+        List<String> errors = new ArrayList<>();
+
+        // Rozgrzewka JIT dla obu ścieżek
+        for (int i = 0; i < 5; i++) {
+            parseWithSplit(csv, errors);
+            parseWithTokenizer(csv, errors);
+        }
+
+        long splitBytes = allocatedBytes(() -> parseWithSplit(csv, new ArrayList<>()));
+        long tokenizerBytes = allocatedBytes(() -> parseWithTokenizer(csv, new ArrayList<>()));
+
+        assertTrue(tokenizerBytes * 2 < splitBytes, "alokacja na wiersz: split=" + splitBytes / 20_000
+                + " B, tokenizer=" + tokenizerBytes / 20_000 + " B");
+    }
+
+    private static int parseWithTokenizer(byte[] csv, List<String> errors) {
+        ByteBuffer data = ByteBuffer.wrap(csv);
+        CsvTokenizer tokenizer = new CsvTokenizer(ImportService.FIELD_COUNT);
+        int parsed = 0;
+        int position = tokenizer.next(data, 0, data.limit(), true); // nagłówek
+        int lineNumber = 2;
+        while (position < data.limit()) {
+            position = tokenizer.next(data, position, data.limit(), true);
+            if (ImportService.parseRecord(tokenizer, lineNumber++, error -> errors.add(error.getMessage())) != null) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Dawna ścieżka z ImportService: readLine(), split(","), trim() i wyjątek dla złego stanowiska.
+     */
+    private static int parseWithSplit(byte[] csv, List<String> errors) {
+        int parsed = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] fields = line.split(",");
+                if (fields.length != 6) {
+                    errors.add("Linia " + lineNumber + ": Nieprawidłowa liczba pól");
+                    continue;
+                }
+                double salary = Double.parseDouble(fields[5].trim());
+                Position position;
+                try {
+                    position = Position.valueOf(fields[4].trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    errors.add("Invalid position at line " + lineNumber + ": " + fields[4]);
+                    continue;
+                }
+                if (salary > 0) {
+                    new Employee(fields[0].trim() + " " + fields[1].trim(), fields[2].trim(), fields[3].trim(), position);
+                    parsed++;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return parsed;
+    }
+
+    private static long allocatedBytes(Runnable action) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        action.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static byte[] generateCsv(int rows) {
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,company,position,salary\n");
+        for (int i = 0; i < rows; i++) {
+            String position = i % 10 == 0 ? "KIEROWCA" : "Programista";
+            csv.append("Jan,Kowalski").append(i).append(",jan").append(i).append("@techcorp.pl,TechCorp")
+                    .append(i % 20).append(',').append(position).append(",8000.50\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer utf8(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
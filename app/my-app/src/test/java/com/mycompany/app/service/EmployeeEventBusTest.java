@@ -0,0 +1,110 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+public class EmployeeEventBusTest {
+
+    @Test
+    public void shouldDeliverAddUpdateAndRemoveToEachConsumerInOrder() throws InterruptedException {
+        EmployeeService service = new EmployeeService();
+        try (EmployeeEventBus bus = new EmployeeEventBus(1024, EmployeeEventBus.OverflowPolicy.BLOCK)) {
+            service.attachEventBus(bus);
+            List<String> payroll = new ArrayList<>();
+            List<Long> search = new ArrayList<>();
+            EmployeeEventBus.Subscription first = bus.subscribe("payroll", (events, count) -> {
+                for (int i = 0; i < count; i++) {
+                    payroll.add(events[i].getType() + ":" + events[i].getEmail() + ":" + events[i].getSalary());
+                }
+            });
+            EmployeeEventBus.Subscription second = bus.subscribe("search", (events, count) -> {
+                for (int i = 0; i < count; i++) {
+                    search.add(events[i].getSequence());
+                }
+            }, 3, 1);
+
+            Employee employee = new Employee("Jan Kowalski", "jan@corp.pl", "TechCorp", Position.PROGRAMISTA);
+            assertTrue(service.addEmployee(employee));
+            employee.setSalary(9000);
+            assertTrue(service.removeEmployee("jan@corp.pl"));
+            assertFalse(service.removeEmployee("jan@corp.pl"));
+            employee.setSalary(9500); // Usunięty pracownik nie generuje już zdarzeń
+
+            awaitSequence(first, 3);
+            awaitSequence(second, 3);
+            assertEquals(List.of("ADDED:jan@corp.pl:8000.0", "UPDATED:jan@corp.pl:9000.0",
+                    "REMOVED:jan@corp.pl:9000.0"), payroll);
+            assertEquals(List.of(1L, 2L, 3L), search);
+            assertEquals(3, bus.getCursor());
+            assertEquals(0, service.getEmployeeCount());
+            assertEquals(0, service.countEmployeesByPosition().values().stream().mapToLong(Long::longValue).sum());
+        }
+    }
+
+    @Test
+    public void shouldReportLostEventsWhenSlowConsumerIsOverwritten() throws InterruptedException {
+        EmployeeService service = new EmployeeService();
+        try (EmployeeEventBus bus = new EmployeeEventBus(64, EmployeeEventBus.OverflowPolicy.OVERWRITE)) {
+            service.attachEventBus(bus);
+            AtomicLong received = new AtomicLong();
+            AtomicLong lost = new AtomicLong();
+            AtomicLong lastSequence = new AtomicLong();
+            AtomicLong outOfOrder = new AtomicLong();
+            EmployeeEventBus.Subscription subscription = bus.subscribe("slow", new EmployeeEventHandler() {
+                @Override
+                public void onEvents(EmployeeEvent[] events, int count) {
+                    for (int i = 0; i < count; i++) {
+                        if (events[i].getSequence() <= lastSequence.getAndSet(events[i].getSequence())) {
+                            outOfOrder.incrementAndGet();
+                        }
+                    }
+                    received.addAndGet(count);
+                    sleep(1);
+                }
+
+                @Override
+                public void onEventsLost(long fromSequence, long count) {
+                    lost.addAndGet(count);
+                }
+            }, 16, 1);
+
+            for (int i = 0; i < 5_000; i++) {
+                service.addEmployee(new Employee("Jan Kowalski", "jan" + i + "@corp.pl", "TechCorp", Position.STAZYSTA));
+            }
+
+            awaitSequence(subscription, 5_000);
+            assertTrue(lost.get() > 0);
+            assertEquals(5_000, received.get() + lost.get());
+            assertEquals(lost.get(), subscription.getLostEvents());
+            assertEquals(0, outOfOrder.get());
+        }
+    }
+
+    private static void awaitSequence(EmployeeEventBus.Subscription subscription, long sequence)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (subscription.getSequence() < sequence && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(sequence, subscription.getSequence());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
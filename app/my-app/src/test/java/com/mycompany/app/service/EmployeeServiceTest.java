@@ -0,0 +1,447 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.mycompany.app.model.CompanyStatistics;
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+import com.mycompany.app.query.AggregateRow;
+import com.mycompany.app.query.EmployeeQuery;
+import com.mycompany.app.query.GroupBy;
+import com.mycompany.app.query.QueryResult;
+import com.mycompany.app.store.EmployeeColumns;
+import com.mycompany.app.store.EmployeePage;
+import com.mycompany.app.store.GroupStatistics;
+import com.mycompany.app.store.SalarySketch;
+
+/**
+ * Testy serwisu pracowników.
+ */
+public class EmployeeServiceTest {
+
+    @Test
+    public void shouldRejectDuplicateEmail() {
+        EmployeeService service = new EmployeeService();
+        assertTrue(service.addEmployee(new Employee("Jan Kowalski", "jan@techcorp.pl", "TechCorp", Position.PREZES)));
+        assertFalse(service.addEmployee(new Employee("Jan Kowalski Jr", "jan@techcorp.pl", "TechCorp", Position.MANAGER)));
+        assertEquals(1, service.getEmployeeCount());
+    }
+
+    @Test
+    public void shouldKeepIndexesInSyncWithSetters() {
+        EmployeeService service = new EmployeeService();
+        Employee anna = new Employee("Anna Nowak", "anna@techcorp.pl", "TechCorp", Position.MANAGER);
+        service.addEmployee(anna);
+
+        anna.setCompanyName("SoftDev");
+        anna.setPosition(Position.WICEPREZES);
+
+        assertTrue(service.findEmployeesByCompany("TechCorp").isEmpty());
+        assertEquals(List.of(anna), service.findEmployeesByCompany("SoftDev"));
+        Map<Position, List<Employee>> byPosition = service.groupEmployeesByPosition();
+        assertFalse(byPosition.containsKey(Position.MANAGER));
+        assertEquals(List.of(anna), byPosition.get(Position.WICEPREZES));
+    }
+
+    @Test
+    public void shouldMaintainAggregatesOnSalaryAndCompanyChanges() {
+        EmployeeService service = new EmployeeService();
+        Employee jan = new Employee("Jan Kowalski", "jan@techcorp.pl", "TechCorp", Position.PREZES);
+        Employee ewa = new Employee("Ewa Nowak", "ewa@techcorp.pl", "TechCorp", Position.MANAGER);
+        Employee adam = new Employee("Adam Zieliński", "adam@softdev.pl", "SoftDev", Position.PROGRAMISTA);
+        service.addEmployee(jan);
+        service.addEmployee(ewa);
+        service.addEmployee(adam);
+
+        assertEquals((25000 + 12000 + 8000) / 3.0, service.calculateAverageSalary(), 1e-9);
+        assertEquals(jan, service.findHighestPaidEmployee().orElseThrow());
+
+        jan.setSalary(5000); // Lider dostaje obniżkę - trzeba wyznaczyć nowego
+        assertEquals(ewa, service.findHighestPaidEmployee().orElseThrow());
+        assertEquals("Ewa Nowak", service.getCompanyStatistics().get("TechCorp").getHighestPaidEmployee());
+
+        ewa.setCompanyName("SoftDev");
+        Map<String, CompanyStatistics> stats = service.getCompanyStatistics();
+        assertEquals(1, stats.get("TechCorp").getEmployeeCount());
+        assertEquals(5000, stats.get("TechCorp").getAverageSalary(), 1e-9);
+        assertEquals(2, stats.get("SoftDev").getEmployeeCount());
+        assertEquals(10000, stats.get("SoftDev").getAverageSalary(), 1e-9);
+
+        adam.setPosition(Position.MANAGER);
+        assertEquals(2L, service.countEmployeesByPosition().get(Position.MANAGER));
+        assertFalse(service.countEmployeesByPosition().containsKey(Position.PROGRAMISTA));
+        assertEquals(12000, service.getCompanyStatistics().get("SoftDev").getAverageSalary(), 1e-9);
+    }
+
+    @Test
+    public void shouldRebuildColumnarSnapshotAfterChanges() {
+        EmployeeService service = new EmployeeService();
+        Employee jan = new Employee("Jan Kowalski", "jan@techcorp.pl", "TechCorp", Position.PREZES);
+        Employee ewa = new Employee("Ewa Nowak", "ewa@softdev.pl", "SoftDev", Position.MANAGER);
+        service.addEmployee(jan);
+        service.addEmployee(ewa);
+
+        EmployeeColumns columns = service.getColumnarSnapshot();
+        assertSame(columns, service.getColumnarSnapshot()); // Bez zmian - ta sama migawka
+        assertEquals((25000 + 12000) / 2.0, columns.averageSalary(), 1e-9);
+        assertEquals(1L, columns.countByPosition()[Position.MANAGER.ordinal()]);
+        assertTrue(service.validateSalaryConsistency().isEmpty());
+
+        ewa.setSalary(9000);
+        ewa.setCompanyName("TechCorp");
+        assertEquals(List.of(ewa), service.validateSalaryConsistency());
+        GroupStatistics techCorp = service.getColumnarSnapshot().companyStatistics("TechCorp");
+        assertEquals(2, techCorp.getCount());
+        assertEquals(jan, techCorp.getHighestPaid());
+        assertEquals(GroupStatistics.EMPTY, service.getColumnarSnapshot().companyStatistics("SoftDev"));
+        assertEquals(1, service.getColumnarSnapshot().companyStatistics().size());
+    }
+
+    @Test
+    public void columnsShouldFollowRemovalsAndLaterChanges() {
+        EmployeeService service = new EmployeeService();
+        Employee jan = new Employee("Jan Kowalski", "jan@techcorp.pl", "TechCorp", Position.PREZES);
+        Employee ewa = new Employee("Ewa Nowak", "ewa@softdev.pl", "SoftDev", Position.MANAGER);
+        Employee adam = new Employee("Adam Zieliński", "adam@softdev.pl", "SoftDev", Position.PROGRAMISTA);
+        for (Employee employee : List.of(jan, ewa, adam)) {
+            service.addEmployee(employee);
+        }
+
+        // Usunięcie przenosi ostatni wiersz (adam) w miejsce jana - kolejne zmiany muszą trafić do niego
+        assertTrue(service.removeEmployee("jan@techcorp.pl"));
+        adam.setSalary(1000);
+        jan.setSalary(1000); // Już poza magazynem - nie może zmienić kolumn
+        ewa.setPosition(Position.PREZES);
+
+        assertEquals(List.of(adam), service.validateSalaryConsistency());
+        EmployeeColumns columns = service.getColumnarSnapshot();
+        assertEquals(2, columns.size());
+        assertEquals((25000 + 1000) / 2.0, columns.averageSalary(), 1e-9);
+        assertEquals(1L, columns.countByPosition()[Position.PREZES.ordinal()]);
+        assertEquals(GroupStatistics.EMPTY, columns.companyStatistics("TechCorp"));
+        assertEquals(2, columns.companyStatistics("SoftDev").getCount());
+    }
+
+    @Test
+    public void shouldRankTopAndBottomEarners() {
+        EmployeeService service = new EmployeeService();
+        Employee jan = new Employee("Jan Kowalski", "jan@techcorp.pl", "TechCorp", Position.PREZES);
+        Employee ewa = new Employee("Ewa Nowak", "ewa@techcorp.pl", "TechCorp", Position.MANAGER);
+        Employee adam = new Employee("Adam Zieliński", "adam@softdev.pl", "SoftDev", Position.PROGRAMISTA);
+        Employee ola = new Employee("Ola Wiśniewska", "ola@softdev.pl", "SoftDev", Position.STAZYSTA);
+        for (Employee employee : List.of(jan, ewa, adam, ola)) {
+            service.addEmployee(employee);
+        }
+
+        assertEquals(List.of(jan, ewa), service.findHighestPaidEmployees(2));
+        assertEquals(List.of(ola, adam, ewa, jan), service.findLowestPaidEmployees(10));
+        assertEquals(List.of(adam), service.findHighestPaidEmployees("SoftDev", 1));
+        assertEquals(List.of(ewa), service.findLowestPaidEmployees(Position.MANAGER, 3));
+        assertTrue(service.findHighestPaidEmployees("Brak", 5).isEmpty());
+
+        ola.setFullName("Ola Adamska"); // Zmiana nazwiska przesuwa pracownika w porządku alfabetycznym
+        assertEquals(List.of(ola, jan, ewa, adam), service.getEmployeesSortedByLastName());
+    }
+
+    @Test
+    public void shouldApplyBulkUpdatesAtomicallyForStatistics() throws Exception {
+        EmployeeService service = new EmployeeService();
+        for (int i = 0; i < 20_000; i++) {
+            service.addEmployee(new Employee("Jan Kowalski", "jan" + i + "@corp.pl",
+                    i % 2 == 0 ? "TechCorp" : "SoftDev", i % 4 < 2 ? Position.PROGRAMISTA : Position.STAZYSTA));
+        }
+        double before = service.calculateAverageSalary();
+        double after = (5_000 * 8000 * 1.1 + 5_000 * 8000 + 10_000 * 3000) / 20_000;
+
+        // Czytelnik widzi średnią sprzed albo po całej podwyżce - nigdy wartości pośredniej
+        AtomicInteger torn = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                double average = service.calculateAverageSalary();
+                if (Math.abs(average - before) > 1e-6 && Math.abs(average - after) > 1e-6) {
+                    torn.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        BulkUpdateSummary raise = service.raiseSalaries("TechCorp", Position.PROGRAMISTA, 10);
+        reader.join();
+
+        assertEquals(0, torn.get());
+        assertEquals(5_000, raise.getMatchedCount());
+        assertEquals(5_000, raise.getUpdatedCount());
+        assertEquals(5_000 * 800, raise.getSalaryDelta(), 1e-3);
+        assertEquals(after, service.calculateAverageSalary(), 1e-6);
+
+        BulkUpdateSummary promotion = service.promote(
+                employee -> employee.getPosition() == Position.STAZYSTA && employee.getCompanyName().equals("SoftDev"),
+                Position.PROGRAMISTA);
+        assertEquals(5_000, promotion.getMatchedCount());
+        assertEquals(5_000 * 5000, promotion.getSalaryDelta(), 1e-3);
+        assertEquals(5_000L, service.countEmployeesByPosition().get(Position.STAZYSTA));
+    }
+
+    @Test
+    public void rejectedRaiseShouldLeaveStoreUnchanged() {
+        EmployeeService service = new EmployeeService();
+        for (int i = 0; i < 10_000; i++) {
+            service.addEmployee(new Employee("Jan Kowalski", "jan" + i + "@corp.pl", "TechCorp", Position.PROGRAMISTA));
+        }
+        service.findEmployeeByEmail("jan5000@corp.pl").orElseThrow().setSalary(Double.MAX_VALUE / 2);
+        double average = service.calculateAverageSalary();
+
+        for (double percent : new double[] {Double.NaN, Double.POSITIVE_INFINITY, -100.5}) {
+            assertThrows(IllegalArgumentException.class, () -> service.raiseSalaries("TechCorp", null, percent));
+        }
+        // Jedna pensja przekroczyłaby zakres - nikt nie dostaje podwyżki
+        assertThrows(IllegalArgumentException.class, () -> service.raiseSalaries("TechCorp", null, 200));
+        assertThrows(IllegalArgumentException.class, () -> service.raiseSalaries(employee -> true, 200));
+
+        assertEquals(average, service.calculateAverageSalary(), 0.0);
+        assertEquals(9_999, service.findEmployeesByCompany("TechCorp").stream()
+                .filter(employee -> employee.getSalary() == Position.PROGRAMISTA.getBaseSalary()).count());
+        assertEquals(10_000, service.raiseSalaries("TechCorp", null, -100).getMatchedCount());
+    }
+
+    @Test
+    public void shouldAnswerGroupedQueryInOnePass() {
+        EmployeeService service = new EmployeeService();
+        String[] companies = {"TechCorp", "SoftDev", "DataInc"};
+        Position[] positions = {Position.PROGRAMISTA, Position.MANAGER, Position.STAZYSTA};
+        // Powyżej progu równoległości - akumulatory z wielu wątków są scalane
+        for (int i = 0; i < 30_000; i++) {
+            Employee employee = new Employee("Jan Kowalski", "jan" + i + "@corp.pl",
+                    companies[i % 3], positions[i % 7 % 3]);
+            employee.setSalary(3000 + (i * 37) % 20_000);
+            service.addEmployee(employee);
+        }
+
+        QueryResult result = service.query(EmployeeQuery.all()
+                .company("TechCorp")
+                .salaryBetween(5000, 15000)
+                .groupBy(GroupBy.POSITION));
+
+        List<Employee> expected = service.getAllEmployees().stream()
+                .filter(e -> e.getCompanyName().equals("TechCorp"))
+                .filter(e -> e.getSalary() >= 5000 && e.getSalary() <= 15000)
+                .toList();
+        assertEquals(expected.size(), result.getTotal().getCount());
+        for (Position position : positions) {
+            List<Employee> group = expected.stream().filter(e -> e.getPosition() == position).toList();
+            AggregateRow row = result.getGroup(position);
+            assertEquals(group.size(), row.getCount());
+            assertEquals(group.stream().mapToDouble(Employee::getSalary).sum(), row.getSum(), 1e-3);
+            assertEquals(group.stream().mapToDouble(Employee::getSalary).min().getAsDouble(), row.getMin());
+            assertEquals(group.stream().mapToDouble(Employee::getSalary).max().getAsDouble(), row.getMax());
+            assertEquals(row.getMax(), row.getArgMax().getSalary());
+        }
+        assertEquals(0, service.query(EmployeeQuery.all().company("Brak")).getTotal().getCount());
+    }
+
+    @Test
+    public void shouldApproximateSalaryPercentilesWithinRelativeAccuracy() {
+        double accuracy = 0.02;
+        EmployeeService service = new EmployeeService(accuracy);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            Employee employee = new Employee("Jan Kowalski", "jan" + i + "@corp.pl",
+                    i % 2 == 0 ? "TechCorp" : "SoftDev", i % 3 == 0 ? Position.MANAGER : Position.PROGRAMISTA);
+            employee.setSalary(Math.round(Math.exp(8.5 + random.nextGaussian() * 0.6)));
+            service.addEmployee(employee);
+        }
+        // Zmiany po dodaniu - szkice muszą uwzględnić usunięcia starych wartości
+        service.raiseSalaries("TechCorp", Position.MANAGER, 15);
+        List<Employee> all = service.getAllEmployees();
+        for (int i = 0; i < all.size(); i += 5) {
+            all.get(i).setCompanyName("DataInc");
+        }
+
+        for (String company : List.of("TechCorp", "SoftDev", "DataInc")) {
+            double[] exact = all.stream().filter(e -> e.getCompanyName().equals(company))
+                    .mapToDouble(Employee::getSalary).sorted().toArray();
+            SalarySketch sketch = service.getCompanySalaryDistribution(company);
+            assertEquals(exact.length, sketch.getCount());
+            for (double q : new double[] {0.0, 0.5, 0.9, 0.99, 1.0}) {
+                double expected = exact[(int) Math.floor(q * (exact.length - 1))];
+                assertEquals(expected, sketch.quantile(q), expected * accuracy, company + " q=" + q);
+            }
+        }
+
+        SalarySketch total = service.getSalaryDistribution();
+        assertEquals(all.size(), total.getCount());
+        double[] bounds = {5000, 10_000};
+        long[] histogram = total.histogram(bounds);
+        assertEquals(all.size(), Arrays.stream(histogram).sum());
+        long below = all.stream().filter(e -> e.getSalary() < 5000).count();
+        long nearBoundary = all.stream()
+                .filter(e -> Math.abs(e.getSalary() - 5000) <= 5000 * accuracy).count();
+        assertTrue(Math.abs(histogram[0] - below) <= nearBoundary);
+    }
+
+    @Test
+    public void shouldRejectNonFiniteSalaryWithoutCorruptingIndexes() {
+        SalarySketch sketch = new SalarySketch();
+        sketch.add(12_000);
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> sketch.remove(Double.NaN));
+        assertEquals(1, sketch.getCount());
+        assertEquals(12_000, sketch.quantile(1.0), 12_000 * sketch.getRelativeAccuracy());
+        // Skrajnie duża pensja trafia do ostatniego kubełka zamiast powiększać tablicę
+        sketch.add(Double.MAX_VALUE);
+        assertEquals(2, sketch.getCount());
+
+        Employee unstored = new Employee("Anna Nowak", "anna@corp.pl", "TechCorp", Position.MANAGER);
+        assertThrows(IllegalArgumentException.class, () -> unstored.setSalary(Double.POSITIVE_INFINITY));
+        assertEquals(Position.MANAGER.getBaseSalary(), unstored.getSalary(), 0.0);
+    }
+
+    @Test
+    public void shouldRejectNonFiniteSalaryChangeOfStoredEmployee() {
+        EmployeeService service = new EmployeeService();
+        Employee jan = new Employee("Jan Kowalski", "jan@corp.pl", "TechCorp", Position.MANAGER);
+        service.addEmployee(jan);
+        jan.setSalary(12_000);
+
+        assertThrows(IllegalArgumentException.class, () -> jan.setSalary(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> jan.setSalary(Double.NEGATIVE_INFINITY));
+        assertEquals(12_000, jan.getSalary(), 0.0);
+
+        // Indeksy nie zostały naruszone - kolejne zmiany działają i są widoczne w agregatach
+        jan.setSalary(5_000);
+        assertEquals(5_000, service.calculateAverageSalary(), 0.0);
+        assertEquals(1, service.getCompanySalaryDistribution("TechCorp").getCount());
+        assertEquals(1, service.getPositionSalaryDistribution(Position.MANAGER).getCount());
+        assertEquals(jan, service.findHighestPaidEmployee().orElseThrow());
+    }
+
+    @Test
+    public void shouldSearchByPrefixAndFragmentAfterRenameAndRemoval() {
+        EmployeeService service = new EmployeeService();
+        for (int i = 0; i < 5_000; i++) {
+            service.addEmployee(new Employee(i % 2 == 0 ? "Anna Nowak" + i : "Piotr Wiśniewski" + i,
+                    "osoba" + i + "@corp.pl", "TechCorp", Position.PROGRAMISTA));
+        }
+
+        List<Employee> byLastName = service.searchByPrefix("NOWAK124", 100);
+        assertEquals(6, byLastName.size()); // nowak124 i parzyste nowak1240..nowak1248
+        assertTrue(byLastName.stream().allMatch(e -> e.getFullName().startsWith("Anna Nowak124")));
+        assertEquals(3, service.searchByPrefix("osoba1", 3).size());
+
+        List<Employee> containing = service.searchContaining("śniewski499", 100);
+        assertEquals(List.of("osoba4991@corp.pl", "osoba4993@corp.pl", "osoba4995@corp.pl",
+                        "osoba4997@corp.pl", "osoba4999@corp.pl", "osoba499@corp.pl"),
+                containing.stream().map(Employee::getEmail).sorted().toList());
+        assertEquals(10, service.searchContaining("ow", 10).size());
+
+        // Zmiana imienia i usunięcie od razu widoczne w obu indeksach
+        Employee renamed = service.findEmployeeByEmail("osoba0@corp.pl").orElseThrow();
+        renamed.setFullName("Zofia Zając");
+        assertEquals(List.of(renamed), service.searchByPrefix("zając", 10));
+        assertEquals(List.of(renamed), service.searchContaining("fia za", 10));
+        assertTrue(service.searchByPrefix("anna nowak0", 10).isEmpty());
+        assertTrue(service.removeEmployee("osoba0@corp.pl"));
+        assertTrue(service.searchContaining("zając", 10).isEmpty());
+        assertTrue(service.searchByPrefix("zofia", 10).isEmpty());
+
+        // Masowe zmiany imion przebudowują indeks trigramów - wyniki bez zmian
+        for (int i = 1; i < 5_000; i += 2) {
+            service.findEmployeeByEmail("osoba" + i + "@corp.pl").orElseThrow().setFullName("Ewa Kowalczyk" + i);
+        }
+        assertEquals(2_500, service.searchContaining("kowalczyk", 10_000).size());
+        assertTrue(service.searchContaining("wiśniewski", 10).isEmpty());
+    }
+
+    @Test
+    public void shouldAcceptEachEmailOnceUnderConcurrentWriters() throws InterruptedException {
+        EmployeeService service = new EmployeeService();
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Employee employee = new Employee("Osoba " + i, "osoba" + i + "@corp.pl",
+                            "Firma" + (i % 10), Position.PROGRAMISTA);
+                    if (service.addEmployee(employee)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1000, accepted.get());
+        assertEquals(1000, service.getEmployeeCount());
+        assertEquals(100, service.findEmployeesByCompany("Firma3").size());
+    }
+
+    @Test
+    public void shouldPageByCursorInSortedOrder() {
+        EmployeeService service = new EmployeeService();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            service.addEmployee(new Employee("Jan Nazwisko" + random.nextInt(100), "jan" + i + "@corp.pl",
+                    i % 2 == 0 ? "TechCorp" : "SoftDev", Position.PROGRAMISTA));
+        }
+
+        // Strony po nazwisku sklejone razem dają to samo co pełne sortowanie
+        List<Employee> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            EmployeePage page = service.getEmployeesSortedByLastName(cursor, 50);
+            assertTrue(page.getEmployees().size() <= 50);
+            paged.addAll(page.getEmployees());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<Employee> sorted = new ArrayList<>(service.getAllEmployees());
+        sorted.sort(Comparator.comparing(Employee::getLastName).thenComparing(Employee::getEmail));
+        assertEquals(sorted, paged);
+        assertEquals(sorted, service.getEmployeesSortedByLastName());
+
+        // Samo nazwisko jako kursor - strona zaczyna się od następnego nazwiska
+        String lastName = sorted.get(0).getLastName();
+        Employee next = service.getEmployeesSortedByLastName(lastName, 1).getEmployees().get(0);
+        assertTrue(next.getLastName().compareTo(lastName) > 0);
+
+        // Zmiana nazwiska i firmy przenosi pracownika w indeksach
+        Employee jan0 = service.findEmployeeByEmail("jan0@corp.pl").orElseThrow();
+        jan0.setFullName("Jan Aaaa");
+        jan0.setCompanyName("Nowa");
+        assertSame(jan0, service.employeesSortedByLastName(null).iterator().next());
+        EmployeePage nowa = service.findEmployeesByCompany("Nowa", null, 10);
+        assertEquals(List.of(jan0), nowa.getEmployees());
+        assertNull(nowa.getNextCursor());
+
+        // Strony firmy po emailu
+        EmployeePage first = service.findEmployeesByCompany("TechCorp", null, 100);
+        EmployeePage rest = service.findEmployeesByCompany("TechCorp", first.getNextCursor(), 1000);
+        assertEquals(249, first.getEmployees().size() + rest.getEmployees().size());
+        assertFalse(rest.hasNext());
+        assertTrue(first.getEmployees().get(99).getEmail().compareTo(rest.getEmployees().get(0).getEmail()) < 0);
+
+        service.removeEmployee("jan1@corp.pl");
+        EmployeePage all = service.getEmployeesPage("jan0@corp.pl", 2);
+        // Kolejność napisów: "jan100@" < "jan10@" ('0' < '@')
+        assertEquals(List.of("jan100@corp.pl", "jan101@corp.pl"),
+                List.of(all.getEmployees().get(0).getEmail(), all.getEmployees().get(1).getEmail()));
+        assertEquals("jan101@corp.pl", all.getNextCursor());
+    }
+}
@@ -0,0 +1,73 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+import com.mycompany.app.query.EmployeeQuery;
+
+public class ExportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void exportedCsvShouldRoundTripThroughImport() throws IOException {
+        EmployeeService service = new EmployeeService();
+        for (int i = 0; i < 3000; i++) {
+            Employee employee = new Employee("Jan Kowalski-" + i, "jan" + i + "@corp.pl",
+                    i % 3 == 0 ? "Tech, \"Corp\"" : "SoftDev", Position.PROGRAMISTA);
+            employee.setSalary(8000 + i * 0.25);
+            service.addEmployee(employee);
+        }
+        service.addEmployee(new Employee("Zażółć Gęślą Jaźń", "zolc@corp.pl", "SoftDev", Position.MANAGER));
+        ExportService exporter = new ExportService(service);
+
+        Path csv = tempDir.resolve("export.csv");
+        EmployeeQuery query = EmployeeQuery.all().company("SoftDev");
+        assertEquals(2001, exporter.export(query, ExportService.Format.CSV, csv));
+
+        EmployeeService restored = new EmployeeService();
+        ImportSummary summary = new ImportService(restored).importFromCsv(csv.toString());
+        assertEquals(2001, summary.getImportedCount());
+        assertEquals(0, summary.getErrorCount());
+        Employee jan = restored.findEmployeeByEmail("jan1@corp.pl").orElseThrow();
+        assertEquals("Jan Kowalski-1", jan.getFullName());
+        // Zwykły import nadaje stawkę bazową; pensję z pliku przenosi import przyrostowy
+        assertEquals(Position.PROGRAMISTA.getBaseSalary(), jan.getSalary());
+        EmployeeService synced = new EmployeeService();
+        assertEquals(2001, new DeltaImportService(synced).importDelta(csv).getInsertedCount());
+        assertEquals(8000.25, synced.findEmployeeByEmail("jan1@corp.pl").orElseThrow().getSalary());
+        assertEquals("Zażółć Gęślą Jaźń", restored.findEmployeeByEmail("zolc@corp.pl").orElseThrow().getFullName());
+
+        // Nazwa z przecinkiem i cudzysłowem przechodzi przez CSV bez zmian
+        Path all = tempDir.resolve("all.csv");
+        exporter.export(EmployeeQuery.all(), ExportService.Format.CSV, all);
+        EmployeeService everyone = new EmployeeService();
+        new ImportService(everyone).importFromCsv(all.toString());
+        assertEquals("Tech, \"Corp\"", everyone.findEmployeeByEmail("jan0@corp.pl").orElseThrow().getCompanyName());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1000, exporter.export(EmployeeQuery.all().company("Tech, \"Corp\""), ExportService.Format.JSON, out));
+        JsonArray json = JsonParser.parseString(out.toString(StandardCharsets.UTF_8)).getAsJsonArray();
+        assertEquals(1000, json.size());
+        JsonObject first = json.get(0).getAsJsonObject();
+        assertEquals("Tech, \"Corp\"", first.get("companyName").getAsString());
+        assertEquals("PROGRAMISTA", first.get("position").getAsString());
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        assertEquals(0, exporter.export(EmployeeQuery.all().company("Brak"), ExportService.Format.JSON, empty));
+        assertEquals(0, JsonParser.parseString(empty.toString(StandardCharsets.UTF_8)).getAsJsonArray().size());
+    }
+}
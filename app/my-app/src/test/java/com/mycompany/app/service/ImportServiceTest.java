@@ -0,0 +1,285 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Testy importu pracowników z pliku CSV.
+ */
+public class ImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void parallelImportShouldMatchSequentialImport() throws IOException {
+        Path csv = tempDir.resolve("employees.csv");
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName,email,company,position,salary\n");
+            for (int i = 0; i < 60_000; i++) {
+                if (i % 5_000 == 1) {
+                    writer.write("Zła,Linia,bez-pól\n");
+                } else if (i % 7_000 == 2) {
+                    writer.write("Jan,Kowalski,jan" + i + "@corp.pl,Firma,KIEROWCA,5000\r\n");
+                } else if (i % 9_000 == 3) {
+                    writer.write("\n");
+                } else {
+                    // Co 11 000 wierszy powtarzamy email, żeby sprawdzić wykrywanie duplikatów
+                    int id = i % 11_000 == 4 ? 0 : i;
+                    writer.write("Łukasz,Wiśniewski,osoba" + id + "@corp.pl,Firma" + (i % 13)
+                            + ",PROGRAMISTA,8000\n");
+                }
+            }
+        }
+
+        ImportSummary sequential = new ImportService(new EmployeeService()).importFromCsv(csv.toString());
+        EmployeeService parallelService = new EmployeeService();
+        ImportSummary parallel = new ImportService(parallelService).importFromCsvParallel(csv.toString(), 4);
+
+        assertEquals(sequential.getImportedCount(), parallel.getImportedCount());
+        assertEquals(sequential.getErrors(), parallel.getErrors());
+        assertEquals(parallel.getImportedCount(), parallelService.getEmployeeCount());
+    }
+
+    @Test
+    public void parallelImportShouldKeepNewlinesInQuotedFieldsAcrossChunks() throws IOException {
+        Path csv = tempDir.resolve("multiline.csv");
+        String company = "Firma" + "\n".repeat(20);
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName,email,company,position,salary\n");
+            // Prawie każdy znak nowej linii jest w cudzysłowie, więc granice fragmentów trafiają w pola
+            for (int i = 0; i < 60_000; i++) {
+                String position = i % 1_000 == 7 ? "KIEROWCA" : "PROGRAMISTA";
+                writer.write("Jan,Kowalski,jan" + i + "@corp.pl,\"" + company + "\"," + position + ",8000\n");
+            }
+        }
+
+        ImportSummary sequential = new ImportService(new EmployeeService()).importFromCsv(csv.toString());
+        EmployeeService parallelService = new EmployeeService();
+        ImportSummary parallel = new ImportService(parallelService).importFromCsvParallel(csv.toString(), 4);
+
+        assertEquals(59_940, sequential.getImportedCount());
+        assertEquals(sequential.getImportedCount(), parallel.getImportedCount());
+        assertEquals(sequential.getErrors(), parallel.getErrors());
+        assertEquals(company, parallelService.findEmployeeByEmail("jan59999@corp.pl").orElseThrow().getCompanyName());
+    }
+
+    @Test
+    public void shouldAssignBaseSalaryAndRejectTextAfterClosingQuote() throws IOException {
+        Path csv = tempDir.resolve("quoted.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Kowalski,jan@corp.pl,\"TechCorp\",MANAGER,15000\n"
+                + "Ewa,Nowak,ewa@corp.pl,\"Tech\"Corp,MANAGER,12000\n");
+        EmployeeService service = new EmployeeService();
+
+        ImportSummary summary = new ImportService(service).importFromCsv(csv.toString());
+
+        assertEquals(1, summary.getImportedCount());
+        assertEquals(1L, summary.getErrorCounts().get(ImportErrorCode.MALFORMED_FIELD));
+        // Pensja z pliku jest tylko walidowana - jak dotąd obowiązuje stawka bazowa stanowiska
+        assertEquals(Position.MANAGER.getBaseSalary(), service.findEmployeeByEmail("jan@corp.pl").orElseThrow().getSalary());
+    }
+
+    @Test
+    public void shouldBoundRetainedErrorsAndStreamAllToFile() throws IOException {
+        Path csv = tempDir.resolve("errors.csv");
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName,email,company,position,salary\n");
+            for (int i = 0; i < 50_000; i++) {
+                writer.write(i % 2 == 0 ? "Jan,Kowalski,jan" + i + "@corp.pl,Firma,KIEROWCA,5000\n"
+                        : "Jan,Kowalski,jan" + i + "@corp.pl,Firma,MANAGER,abc\n");
+            }
+        }
+        Path errorFile = tempDir.resolve("errors.log");
+        ErrorReportOptions options = ErrorReportOptions.defaults()
+                .withMaxRetainedErrors(100).withSampleSize(10).withErrorFile(errorFile);
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            ImportService service = new ImportService(new EmployeeService(), options);
+            ImportSummary summary = parallel ? service.importFromCsvParallel(csv.toString(), 4)
+                    : service.importFromCsv(csv.toString());
+
+            assertEquals(50_000, summary.getErrorCount());
+            assertEquals(25_000L, summary.getErrorCounts().get(ImportErrorCode.INVALID_POSITION));
+            assertEquals(25_000L, summary.getErrorCounts().get(ImportErrorCode.INVALID_SALARY));
+            assertEquals(100, summary.getErrors().size());
+            assertTrue(summary.isErrorListTruncated());
+            assertEquals("Invalid position at line 2: KIEROWCA", summary.getErrors().get(0));
+            ImportError salaryError = summary.getErrorDetails().get(1);
+            assertEquals(3, salaryError.getLine());
+            assertEquals("salary", salaryError.getField());
+            assertEquals("abc", salaryError.getValue());
+
+            List<ImportError> samples = summary.getErrorSamples();
+            assertEquals(10, samples.size());
+            assertTrue(samples.get(0).getLine() > 101); // Próbka pochodzi spoza zachowanych błędów
+
+            List<String> fileLines = Files.readAllLines(errorFile, StandardCharsets.UTF_8);
+            assertEquals(50_000, fileLines.size());
+            assertEquals("Linia 50001: Błąd parsowania - nieprawidłowe wynagrodzenie: abc", fileLines.get(49_999));
+        }
+    }
+
+    @Test
+    public void deltaImportShouldApplyOnlyChangedRows() throws Exception {
+        Path csv = tempDir.resolve("delta.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Kowalski,jan@corp.pl,TechCorp,PROGRAMISTA,8000\n"
+                + "Anna,Nowak,anna@corp.pl,TechCorp,MANAGER,12000\n"
+                + "Piotr,Zając,piotr@corp.pl,SoftDev,STAZYSTA,3000\n");
+        EmployeeService service = new EmployeeService();
+        Employee other = new Employee("Ewa Inna", "ewa@corp.pl", "Inna", Position.STAZYSTA);
+        service.addEmployee(other); // Spoza pliku - import przyrostowy jej nie usuwa
+        DeltaImportService delta = new DeltaImportService(service);
+
+        DeltaImportSummary first = delta.importDelta(csv);
+        assertEquals(3, first.getInsertedCount());
+        assertEquals(4, service.getEmployeeCount());
+
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Kowalski,jan@corp.pl,TechCorp,PROGRAMISTA,8000\n"
+                + "Anna,Nowak-Kowalska,anna@corp.pl,SoftDev,MANAGER,13000\n"
+                + "Marek,Nowy,marek@corp.pl,SoftDev,PROGRAMISTA,9000\n"
+                + "Zły,Wiersz,jan@corp.pl,TechCorp,PROGRAMISTA,1\n");
+        DeltaImportSummary second = delta.importDelta(csv);
+        assertEquals(1, second.getInsertedCount());
+        assertEquals(1, second.getUpdatedCount());
+        assertEquals(1, second.getDeletedCount());
+        assertEquals(1, second.getUnchangedCount());
+        assertEquals(1, second.getImportSummary().getErrorCount());
+        Employee anna = service.findEmployeeByEmail("anna@corp.pl").orElseThrow();
+        assertEquals("Anna Nowak-Kowalska", anna.getFullName());
+        assertEquals(13000, anna.getSalary());
+        assertEquals(1, service.getCompanyStatistics().get("TechCorp").getEmployeeCount());
+        assertTrue(service.findEmployeeByEmail("piotr@corp.pl").isEmpty());
+        assertTrue(service.findEmployeeByEmail("ewa@corp.pl").isPresent());
+
+        // Obserwacja pliku: zmiana trafia do serwisu bez ręcznego importu
+        BlockingQueue<DeltaImportSummary> summaries = new LinkedBlockingQueue<>();
+        try (DeltaImportService.Watch watch = delta.watch(csv, Duration.ofMillis(100), summaries::add)) {
+            assertEquals(0, summaries.poll(10, TimeUnit.SECONDS).getUpdatedCount());
+            Path replacement = tempDir.resolve("delta.csv.tmp");
+            Files.writeString(replacement, "firstName,lastName,email,company,position,salary\n"
+                    + "Jan,Kowalski,jan@corp.pl,TechCorp,PROGRAMISTA,8500\n"
+                    + "Anna,Nowak-Kowalska,anna@corp.pl,SoftDev,MANAGER,13000\n"
+                    + "Marek,Nowy,marek@corp.pl,SoftDev,PROGRAMISTA,9000\n");
+            Files.move(replacement, csv, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            DeltaImportSummary changed = summaries.poll(30, TimeUnit.SECONDS);
+            assertEquals(1, changed.getUpdatedCount());
+            assertEquals(8500, service.findEmployeeByEmail("jan@corp.pl").orElseThrow().getSalary());
+        }
+    }
+
+    @Test
+    public void shouldImportCompressedShardsFromDirectory() throws IOException {
+        Path shards = Files.createDirectory(tempDir.resolve("shards"));
+        String header = "firstName,lastName,email,company,position,salary\n";
+        StringBuilder first = new StringBuilder(header);
+        StringBuilder second = new StringBuilder(header);
+        for (int i = 0; i < 500; i++) {
+            first.append("Jan,Kowalski").append(i).append(",jan").append(i).append("@corp.pl,TechCorp,PROGRAMISTA,8000\n");
+            second.append("Anna,Nowak").append(i).append(",anna").append(i).append("@corp.pl,SoftDev,MANAGER,12000\n");
+        }
+        second.append("Zły,Wiersz,zly@corp.pl,SoftDev,MANAGER,abc\n");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(shards.resolve("part-1.csv.gz")))) {
+            out.write(first.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        Files.writeString(shards.resolve("part-2.csv"), second);
+        Files.writeString(shards.resolve("readme.txt"), "nie CSV");
+
+        EmployeeService service = new EmployeeService();
+        ImportSummary summary = new ImportService(service).importFromCsvFiles(shards.toString(), 2);
+
+        assertEquals(1000, summary.getImportedCount());
+        assertEquals(1000, service.getEmployeeCount());
+        assertEquals(List.of("part-1.csv.gz", "part-2.csv"), List.copyOf(summary.getFileSummaries().keySet()));
+        assertEquals(0, summary.getFileSummaries().get("part-1.csv.gz").getErrorCount());
+        ImportSummary part = summary.getFileSummaries().get("part-2.csv");
+        assertEquals(500, part.getImportedCount());
+        assertEquals(1, summary.getErrorCount());
+        ImportError error = summary.getErrorDetails().get(0);
+        assertEquals("part-2.csv", error.getSource());
+        assertEquals(502, error.getLine());
+        assertTrue(summary.getErrors().get(0).startsWith("part-2.csv: "));
+
+        // Wzorzec glob wybiera tylko skompresowane pliki
+        EmployeeService compressedOnly = new EmployeeService();
+        ImportSummary globbed = new ImportService(compressedOnly)
+                .importFromCsvFiles(shards.resolve("*.gz").toString(), 2);
+        assertEquals(500, globbed.getImportedCount());
+        assertEquals(1, globbed.getFileSummaries().size());
+    }
+
+    @Test
+    public void shouldMergeRemainingFilesWhenOneFileFails() throws IOException {
+        Path shards = Files.createDirectory(tempDir.resolve("failing"));
+        String header = "firstName,lastName,email,company,position,salary\n";
+        StringBuilder many = new StringBuilder(header);
+        StringBuilder few = new StringBuilder(header);
+        for (int i = 0; i < 5; i++) {
+            many.append("Jan,Kowalski,jan").append(i).append("@corp.pl,TechCorp,PROGRAMISTA,8000\n");
+            few.append("Ewa,Nowak,ewa").append(i).append("@corp.pl,SoftDev,MANAGER,12000\n");
+        }
+        for (int i = 0; i < 2_000; i++) {
+            many.append("Jan,Kowalski,zly").append(i).append("@corp.pl,TechCorp,PROGRAMISTA,abc\n");
+        }
+        for (int i = 0; i < 10; i++) {
+            few.append("Ewa,Nowak,zla").append(i).append("@corp.pl,SoftDev,KIEROWCA,5000\n");
+        }
+        Files.writeString(shards.resolve("a.csv"), many);
+        Files.writeString(shards.resolve("b.csv"), header
+                + "Adam,Zieliński,adam@corp.pl,DataInc,STAZYSTA,3000\n"
+                + "Awaria,Serwisu,boom@corp.pl,DataInc,STAZYSTA,3000\n"
+                + "Adam,Nowy,nowy@corp.pl,DataInc,STAZYSTA,3000\n");
+        Files.writeString(shards.resolve("c.csv"), few);
+        EmployeeService service = new EmployeeService() {
+            @Override
+            public boolean addEmployee(Employee employee) {
+                if (employee.getEmail().startsWith("boom")) {
+                    throw new IllegalStateException("awaria serwisu");
+                }
+                return super.addEmployee(employee);
+            }
+        };
+        Path errorFile = tempDir.resolve("failing.log");
+        ErrorReportOptions options = ErrorReportOptions.defaults()
+                .withMaxRetainedErrors(0).withSampleSize(10).withErrorFile(errorFile);
+
+        ImportSummary summary = new ImportService(service, options).importFromCsvFiles(shards.toString(), 3);
+
+        assertEquals(11, summary.getImportedCount());
+        assertEquals(11, service.getEmployeeCount());
+        assertEquals(List.of("a.csv", "b.csv", "c.csv"), List.copyOf(summary.getFileSummaries().keySet()));
+        ImportSummary failed = summary.getFileSummaries().get("b.csv");
+        assertEquals(1, failed.getImportedCount());
+        assertEquals(1L, failed.getErrorCounts().get(ImportErrorCode.OTHER));
+        assertEquals(5, summary.getFileSummaries().get("c.csv").getImportedCount());
+        assertEquals(2_011, summary.getErrorCount());
+        // Wspólny plik błędów nie jest nadpisywany przez błąd scalania
+        assertEquals(2_011, Files.readAllLines(errorFile, StandardCharsets.UTF_8).size());
+        // Przykład z próbki dużego pliku waży tyle, ile reprezentowanych błędów
+        long fromLargeFile = summary.getErrorSamples().stream().filter(e -> "a.csv".equals(e.getSource())).count();
+        assertTrue(fromLargeFile >= 8, "próbka z a.csv: " + fromLargeFile);
+    }
+}
@@ -0,0 +1,138 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Testy potoku importu opartego na Flow.
+ */
+public class IngestionPipelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void csvPipelineShouldMatchImportService() throws IOException {
+        Path csv = tempDir.resolve("employees.csv");
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName,email,company,position,salary\n");
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 3_000 == 1) {
+                    writer.write("Zła,Linia\n");
+                } else {
+                    int id = i % 4_000 == 2 ? 0 : i; // Powtórzony email - duplikat
+                    writer.write("Jan,Kowalski,osoba" + id + "@corp.pl,Firma" + (i % 7) + ",MANAGER,12000\n");
+                }
+            }
+        }
+
+        ImportSummary expected = new ImportService(new EmployeeService()).importFromCsv(csv.toString());
+        ImportSummary actual = new IngestionPipeline(new EmployeeService(), 64, 100, employee -> null)
+                .importCsv(csv);
+
+        assertEquals(expected.getImportedCount(), actual.getImportedCount());
+        assertEquals(expected.getErrors(), actual.getErrors());
+    }
+
+    @Test
+    public void fastSourceShouldWaitForSlowStore() {
+        AtomicLong produced = new AtomicLong();
+        AtomicLong maxInFlight = new AtomicLong();
+        EmployeeService service = new EmployeeService();
+        ExecutorService validation = Executors.newSingleThreadExecutor();
+
+        IngestSource source = new IngestSource(validation, 64) {
+            @Override
+            protected void produce(Consumer<IngestRecord> sink) {
+                for (int i = 0; i < 20_000; i++) {
+                    long inFlight = produced.incrementAndGet() - service.getEmployeeCount();
+                    maxInFlight.accumulateAndGet(inFlight, Math::max);
+                    String email = i == 5 ? "bez-malpy" : "osoba" + i + "@corp.pl";
+                    sink.accept(IngestRecord.of(i + 1, "Rekord",
+                            new Employee("Jan Kowalski", email, "TechCorp", Position.PROGRAMISTA)));
+                }
+            }
+        };
+        // Walidacja celowo wolna - źródło musi na nią czekać zamiast buforować wszystko
+        ImportSummary summary = new IngestionPipeline(service, 64, 64, employee -> {
+            if (employee.getEmail().hashCode() % 50 == 0) {
+                Thread.yield();
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return employee.getEmail().contains("@") ? null : "Nieprawidłowy email: " + employee.getEmail();
+        }).run(source);
+        validation.shutdown();
+
+        assertEquals(19_999, summary.getImportedCount());
+        assertEquals("Rekord 6: Nieprawidłowy email: bez-malpy", summary.getErrors().get(0));
+        assertTrue(maxInFlight.get() <= 4 * 64 + 8, "W locie: " + maxInFlight.get());
+    }
+
+    @Test
+    public void sourceFailureShouldEndPipelineWithError() {
+        ImportSummary summary = new IngestionPipeline(new EmployeeService())
+                .importCsv(tempDir.resolve("brak.csv"));
+        assertEquals(0, summary.getImportedCount());
+        assertEquals(1, summary.getErrors().size());
+        assertTrue(summary.getErrors().get(0).startsWith("Błąd źródła danych"));
+    }
+
+    @Test
+    public void storeOrProducerFailureShouldNotHangPipeline() {
+        EmployeeService failingStore = new EmployeeService() {
+            @Override
+            public boolean[] addEmployees(List<Employee> batch) {
+                throw new IllegalStateException("magazyn niedostępny");
+            }
+        };
+        ImportSummary storeFailed = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> new IngestionPipeline(failingStore, 16, 4, employee -> null).run(source(10, null)));
+        assertEquals(0, storeFailed.getImportedCount());
+        assertTrue(storeFailed.getErrors().stream().anyMatch(error -> error.contains("magazyn niedostępny")),
+                storeFailed.getErrors().toString());
+
+        EmployeeService service = new EmployeeService();
+        ImportSummary producerFailed = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> new IngestionPipeline(service, 16, 4, employee -> null)
+                        .run(source(10, new AssertionError("błąd producenta"))));
+        assertTrue(producerFailed.getErrors().get(0).startsWith("Błąd źródła danych"));
+    }
+
+    private static IngestSource source(int count, Error failure) {
+        return new IngestSource(Executors.newSingleThreadExecutor(), 16) {
+            @Override
+            protected void produce(Consumer<IngestRecord> sink) {
+                for (int i = 0; i < count; i++) {
+                    sink.accept(IngestRecord.of(i + 1, "Rekord",
+                            new Employee("Jan Kowalski", "osoba" + i + "@corp.pl", "TechCorp", Position.PROGRAMISTA)));
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        };
+    }
+}
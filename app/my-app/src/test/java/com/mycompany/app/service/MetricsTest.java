@@ -0,0 +1,95 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mycompany.app.metrics.HistogramSnapshot;
+import com.mycompany.app.metrics.LatencyHistogram;
+import com.mycompany.app.metrics.Metrics;
+
+/**
+ * Testy metryk: dokładność histogramu i publikacja przez JMX.
+ */
+public class MetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void histogramPercentilesShouldStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(50_000_000, snapshot.getP50(), 50_000_000 * 0.125);
+        assertEquals(99_000_000, snapshot.getP99(), 99_000_000 * 0.125);
+        assertTrue(snapshot.getP99() >= 99_000_000); // Górna granica kubełka - nigdy zaniżona
+        assertEquals(50_000_500, snapshot.getMean(), 1.0);
+    }
+
+    @Test
+    public void shouldPublishImportAndQueryMetricsOverJmx() throws Exception {
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, "firstName,lastName,email,company,position,salary\n"
+                + "Jan,Kowalski,jan@corp.pl,TechCorp,MANAGER,12000\n"
+                + "Ewa,Nowak,ewa@corp.pl,TechCorp,KIEROWCA,9000\n"
+                + "Jan,Kowalski,jan@corp.pl,TechCorp,MANAGER,12000\n");
+        Metrics metrics = Metrics.global();
+        long rowsBefore = metrics.getImportedRows();
+        long positionErrorsBefore = metrics.getImportErrorCounts().getOrDefault("INVALID_POSITION", 0L);
+
+        EmployeeService service = new EmployeeService();
+        new ImportService(service).importFromCsv(csv.toString());
+        service.calculateAverageSalary();
+        service.findEmployeesByCompany("TechCorp", null, 10);
+        service.getEmployeesSortedByLastName(null, 10);
+
+        assertEquals(rowsBefore + 3, metrics.getImportedRows());
+        assertEquals(positionErrorsBefore + 1, (long) metrics.getImportErrorCounts().get("INVALID_POSITION"));
+        assertTrue(metrics.getImportErrorCounts().get("DUPLICATE_EMAIL") >= 1);
+
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        CompositeData latency = (CompositeData) ((TabularData) ManagementFactory
+                .getPlatformMBeanServer().getAttribute(name, "QueryLatencies"))
+                .get(new Object[] {"calculateAverageSalary"}).get("value");
+        assertTrue((Long) latency.get("count") >= 1);
+        // Każda metoda stronicująca ma własny histogram
+        TabularData latencies = (TabularData) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(name, "QueryLatencies");
+        assertTrue(latencies.containsKey(new Object[] {"findEmployeesByCompany"}));
+        assertTrue(latencies.containsKey(new Object[] {"getEmployeesSortedByLastName"}));
+        assertTrue((Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "StoreSize") >= 1);
+    }
+
+    @Test
+    public void disabledMetricsShouldSkipRecording() throws IOException {
+        Metrics metrics = Metrics.global();
+        metrics.setEnabled(false);
+        try {
+            assertFalse(metrics.startTimer().isRunning());
+            long before = metrics.getImportedRows();
+            Path csv = tempDir.resolve("employees.csv");
+            Files.writeString(csv, "header\nJan,Kowalski,jan@corp.pl,TechCorp,MANAGER,12000\n");
+            new ImportService(new EmployeeService()).importFromCsv(csv.toString());
+            assertEquals(before, metrics.getImportedRows());
+        } finally {
+            metrics.setEnabled(true);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Testy dziennika zmian: group commit, odtwarzanie i punkt kontrolny.
+ */
+public class MutationJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldReplayConcurrentChangesFromJournal() throws Exception {
+        Path journalFile = tempDir.resolve("employees.journal");
+        EmployeeService service = new EmployeeService();
+        MutationJournal journal = MutationJournal.open(journalFile, MutationJournal.SyncPolicy.ALWAYS,
+                Duration.ofMillis(5));
+        service.attachJournal(journal);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    Employee employee = new Employee("Jan Kowalski", "jan" + thread + "-" + i + "@corp.pl",
+                            "Firma" + thread, Position.PROGRAMISTA);
+                    service.addEmployee(employee);
+                    employee.setSalary(9000 + i);
+                    if (i % 3 == 0) {
+                        employee.setPosition(Position.MANAGER);
+                    }
+                    if (i % 5 == 0) {
+                        employee.setCompanyName("Nowa" + thread);
+                    }
+                    if (i % 7 == 0) {
+                        service.removeEmployee(employee.getEmail());
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        // Operacja grupowa czeka na fsync raz, po zdjęciu blokady - rekordy i tak muszą trafić do dziennika
+        assertTrue(service.raiseSalaries("Firma0", null, 10).getUpdatedCount() > 0);
+        journal.close();
+
+        EmployeeService restored = new EmployeeService();
+        ImportSummary summary = MutationJournal.replay(journalFile, restored);
+        assertTrue(summary.getErrors().isEmpty(), summary.getErrors().toString());
+        assertSameEmployees(service, restored);
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshotPlusJournalAfterCheckpoint() throws IOException {
+        Path journalFile = tempDir.resolve("employees.journal");
+        Path snapshotFile = tempDir.resolve("employees.snapshot");
+        EmployeeService service = new EmployeeService();
+        MutationJournal journal = MutationJournal.open(journalFile, MutationJournal.SyncPolicy.INTERVAL,
+                Duration.ofMillis(5));
+        service.attachJournal(journal);
+
+        Employee jan = new Employee("Jan Kowalski", "jan@techcorp.pl", "TechCorp", Position.PREZES);
+        Employee ewa = new Employee("Ewa Nowak", "ewa@techcorp.pl", "TechCorp", Position.MANAGER);
+        service.addEmployees(List.of(jan, ewa));
+        jan.setSalary(30000);
+        journal.checkpoint(new SnapshotService(service), snapshotFile);
+        assertFalse(Files.exists(tempDir.resolve("employees.journal.old")));
+
+        ewa.setCompanyName("SoftDev");
+        service.addEmployee(new Employee("Adam Zieliński", "adam@softdev.pl", "SoftDev", Position.STAZYSTA));
+        journal.close();
+        // Przerwany zapis na końcu dziennika - ma zostać pominięty
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2}));
+        }
+
+        EmployeeService restored = new EmployeeService();
+        assertEquals(2, new SnapshotService(restored).load(snapshotFile).getImportedCount());
+        ImportSummary replayed = MutationJournal.replay(journalFile, restored);
+        assertEquals(2, replayed.getImportedCount());
+        assertEquals(1, replayed.getErrors().size());
+        assertEquals(1L, replayed.getErrorCounts().get(ImportErrorCode.INVALID_RECORD));
+        assertSameEmployees(service, restored);
+
+        // Ponowne otwarcie odcina uszkodzony koniec i dopisuje dalej
+        MutationJournal reopened = MutationJournal.open(journalFile, MutationJournal.SyncPolicy.NEVER,
+                Duration.ofMillis(5));
+        restored.attachJournal(reopened);
+        restored.findEmployeeByEmail("adam@softdev.pl").orElseThrow().setSalary(4000);
+        reopened.close();
+        EmployeeService again = new EmployeeService();
+        new SnapshotService(again).load(snapshotFile);
+        assertTrue(MutationJournal.replay(journalFile, again).getErrors().isEmpty());
+        assertSameEmployees(restored, again);
+    }
+
+    @Test
+    public void shouldCheckpointWhileFlusherSyncsInIntervalMode() throws Exception {
+        Path journalFile = tempDir.resolve("employees.journal");
+        Path snapshotFile = tempDir.resolve("employees.snapshot");
+        EmployeeService service = new EmployeeService();
+        MutationJournal journal = MutationJournal.open(journalFile, MutationJournal.SyncPolicy.INTERVAL,
+                Duration.ofMillis(1));
+        service.attachJournal(journal);
+        Employee jan = new Employee("Jan Kowalski", "jan@techcorp.pl", "TechCorp", Position.PROGRAMISTA);
+        service.addEmployee(jan);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> writer = pool.submit(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                jan.setSalary(9000 + i);
+            }
+        });
+        SnapshotService snapshots = new SnapshotService(service);
+        // Punkt kontrolny nie może zamknąć pliku, gdy wątek zapisujący robi na nim fsync
+        for (int i = 0; i < 50; i++) {
+            journal.checkpoint(snapshots, snapshotFile);
+            Thread.sleep(1);
+        }
+        writer.get();
+        pool.shutdown();
+        journal.close();
+
+        EmployeeService restored = new EmployeeService();
+        new SnapshotService(restored).load(snapshotFile);
+        assertTrue(MutationJournal.replay(journalFile, restored).getErrors().isEmpty());
+        assertSameEmployees(service, restored);
+    }
+
+    @Test
+    public void closeShouldLetWritersWaitForTheirRecords() throws Exception {
+        Path journalFile = tempDir.resolve("employees.journal");
+        EmployeeService service = new EmployeeService();
+        MutationJournal journal = MutationJournal.open(journalFile, MutationJournal.SyncPolicy.ALWAYS,
+                Duration.ofMillis(5));
+        service.attachJournal(journal);
+        List<Employee> employees = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Employee employee = new Employee("Jan Kowalski", "jan" + t + "@corp.pl", "TechCorp", Position.PROGRAMISTA);
+            service.addEmployee(employee);
+            employees.add(employee);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> futures = new ArrayList<>();
+        for (Employee employee : employees) {
+            futures.add(pool.submit(() -> {
+                try {
+                    for (int i = 1; ; i++) {
+                        employee.setSalary(9000 + i);
+                    }
+                } catch (IllegalStateException e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+        Thread.sleep(50);
+        journal.close();
+        // Rekord dopisany przed zamknięciem trafia na dysk - odrzucane jest tylko dopisywanie po nim
+        for (Future<String> future : futures) {
+            assertEquals("Dziennik zmian jest zamknięty", future.get());
+        }
+        pool.shutdown();
+    }
+
+    private static void assertSameEmployees(EmployeeService expected, EmployeeService actual) {
+        assertEquals(expected.getEmployeeCount(), actual.getEmployeeCount());
+        for (Employee employee : expected.getAllEmployees()) {
+            Employee restored = actual.findEmployeeByEmail(employee.getEmail()).orElseThrow();
+            assertEquals(employee.getCompanyName(), restored.getCompanyName());
+            assertEquals(employee.getPosition(), restored.getPosition());
+            assertEquals(employee.getSalary(), restored.getSalary(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.mycompany.app.model.CompanyStatistics;
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+public class ShardedEmployeeServiceTest {
+
+    @Test
+    public void shouldMergePartialAggregatesLikeSingleService() {
+        for (ShardedEmployeeService.ShardKey key : ShardedEmployeeService.ShardKey.values()) {
+            EmployeeService single = new EmployeeService();
+            try (ShardedEmployeeService sharded = ShardedEmployeeService.inProcess(4, key)) {
+                Position[] positions = Position.values();
+                for (int i = 0; i < 5_000; i++) {
+                    String company = "Firma" + (i % 7);
+                    Position position = positions[i % positions.length];
+                    double salary = 4000 + (i * 31) % 9000;
+                    single.addEmployee(employee(i, company, position, salary));
+                    sharded.addEmployee(employee(i, company, position, salary));
+                }
+
+                assertEquals(single.getEmployeeCount(), sharded.getEmployeeCount(), key.name());
+                assertEquals(single.calculateAverageSalary(), sharded.calculateAverageSalary(), 1e-6);
+                assertEquals(single.countEmployeesByPosition(), sharded.countEmployeesByPosition());
+                assertEquals(single.findHighestPaidEmployee().get().getSalary(),
+                        sharded.findHighestPaidEmployee().get().getSalary());
+
+                Map<String, CompanyStatistics> expected = single.getCompanyStatistics();
+                Map<String, CompanyStatistics> actual = sharded.getCompanyStatistics();
+                assertEquals(expected.keySet(), actual.keySet());
+                expected.forEach((company, statistics) -> {
+                    assertEquals(statistics.getEmployeeCount(), actual.get(company).getEmployeeCount());
+                    assertEquals(statistics.getAverageSalary(), actual.get(company).getAverageSalary(), 1e-6);
+                });
+                assertTrue(sharded.findEmployeeByEmail("e42@corp.pl").isPresent());
+                assertFalse(sharded.findEmployeeByEmail("brak@corp.pl").isPresent());
+            }
+        }
+    }
+
+    @Test
+    public void shouldEnforceEmailUniquenessAcrossShards() throws InterruptedException {
+        try (ShardedEmployeeService sharded = ShardedEmployeeService.inProcess(8, ShardedEmployeeService.ShardKey.COMPANY)) {
+            // Ten sam email w różnych firmach trafiłby na różne shardy
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            AtomicInteger accepted = new AtomicInteger();
+            for (int i = 0; i < 64; i++) {
+                int company = i;
+                pool.execute(() -> {
+                    if (sharded.addEmployee(employee(1, "Firma" + company, Position.PROGRAMISTA, 8000))) {
+                        accepted.incrementAndGet();
+                    }
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(1, accepted.get());
+            assertEquals(1, sharded.getEmployeeCount());
+        }
+    }
+
+    private static Employee employee(int i, String company, Position position, double salary) {
+        Employee employee = new Employee("Jan Kowalski", "e" + i + "@corp.pl", company, position);
+        employee.setSalary(salary);
+        return employee;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mycompany.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mycompany.app.model.Employee;
+import com.mycompany.app.model.Position;
+
+/**
+ * Testy zapisu i odczytu binarnej migawki pracowników.
+ */
+public class SnapshotServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldRestoreEmployeesAndIndexesFromSnapshot() throws IOException {
+        EmployeeService source = new EmployeeService();
+        Position[] positions = Position.values();
+        for (int i = 0; i < 5_000; i++) {
+            Employee employee = new Employee("Łukasz Wiśniewski" + i, "osoba" + i + "@corp.pl",
+                    "Firma" + (i % 17), positions[i % positions.length]);
+            employee.setSalary(1000 + i * 0.25);
+            source.addEmployee(employee);
+        }
+        Path file = tempDir.resolve("employees.snapshot");
+        assertEquals(5_000, new SnapshotService(source).save(file));
+
+        EmployeeService restored = new EmployeeService();
+        ImportSummary summary = new SnapshotService(restored).load(file);
+        assertEquals(5_000, summary.getImportedCount());
+        assertTrue(summary.getErrors().isEmpty());
+
+        for (Employee expected : source.getAllEmployees()) {
+            Employee actual = restored.findEmployeesByCompany(expected.getCompanyName()).stream()
+                    .filter(employee -> employee.getEmail().equals(expected.getEmail()))
+                    .findFirst().orElseThrow();
+            assertEquals(expected.getFullName(), actual.getFullName());
+            assertEquals(expected.getPosition(), actual.getPosition());
+            assertEquals(expected.getSalary(), actual.getSalary(), 0.0);
+        }
+        assertEquals(source.getCompanyStatistics().keySet(), restored.getCompanyStatistics().keySet());
+        assertEquals(source.calculateAverageSalary(), restored.calculateAverageSalary(), 1e-9);
+        // Słownik firm - jedna instancja nazwy na firmę
+        assertSame(restored.findEmployeesByCompany("Firma3").get(0).getCompanyName(),
+                restored.findEmployeesByCompany("Firma3").get(1).getCompanyName());
+
+        // Ponowne wczytanie do tego samego serwisu - same duplikaty
+        ImportSummary again = new SnapshotService(restored).load(file);
+        assertEquals(0, again.getImportedCount());
+        assertEquals(5_000, again.getErrors().size());
+        assertEquals(5_000L, again.getErrorCounts().get(ImportErrorCode.DUPLICATE_EMAIL));
+        assertEquals("Rekord 1: Pracownik z emailem " + again.getErrorDetails().get(0).getValue() + " już istnieje",
+                again.getErrors().get(0));
+    }
+
+    @Test
+    public void shouldReportTruncatedSnapshotAndKeepCompleteRecords() throws IOException {
+        EmployeeService source = new EmployeeService();
+        for (int i = 0; i < 3_000; i++) {
+            source.addEmployee(new Employee("Jan Kowalski", "jan" + i + "@corp.pl", "TechCorp", Position.MANAGER));
+        }
+        Path file = tempDir.resolve("employees.snapshot");
+        new SnapshotService(source).save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        EmployeeService restored = new EmployeeService();
+        ImportSummary summary = new SnapshotService(restored).load(file);
+        assertEquals(2_999, summary.getImportedCount());
+        assertEquals(1, summary.getErrors().size());
+        assertTrue(summary.getErrors().get(0).startsWith("Błąd odczytu migawki"));
+
+        Files.writeString(file, "firstName,lastName\n");
+        assertEquals(0, new SnapshotService(new EmployeeService()).load(file).getImportedCount());
+    }
+}